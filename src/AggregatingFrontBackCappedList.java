@@ -0,0 +1,517 @@
+/**
+ * A class that decorates a list with front or back entry or removal and capped to a given capacity, keeping the
+ * sum, mean, smallest and largest of its numeric entries up to date as entries are added and removed, so a list
+ * used as a sliding window over a stream of measurements never has to be scanned to summarize it.
+ *
+ * The sum and the number of entries are updated by every add and remove. The smallest and largest entries are kept
+ * with a deque made of two stacks that meet in the middle of the list: the front stack holds the front part of the
+ * list with the first entry on top, and the back stack holds the rest with the last entry on top. Every stack level
+ * also records the smallest and largest entries at or below it, so the smallest and largest of the whole list are
+ * found from the tops of the two stacks. A remove that finds its stack empty moves half of the other stack over,
+ * which keeps adds and removes at either end amortized constant time.
+ *
+ * Every change must go through the decorator. If the decorated list evicts an entry to make room for an add, the
+ * decorator sees that the add did not grow the list and removes the evicted entry from the aggregates. The decorator
+ * is not thread-safe.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.util.*;
+import java.util.function.Consumer;
+
+public class AggregatingFrontBackCappedList<T extends Number & Comparable<? super T>>
+		implements FrontBackCappedListInterface<T> {
+
+	private final FrontBackCappedListInterface<T> list;
+	private final AggregateStack frontStack = new AggregateStack();	// Front part of the list, first entry on top
+	private final AggregateStack backStack = new AggregateStack();		// Back part of the list, last entry on top
+	private double sum;
+	private boolean initialized = false;
+
+
+	/**
+	 * Creates a decorator that keeps the aggregates of a list, starting from the entries already in it.
+	 *
+	 * @param list The list to decorate, which must not be changed except through the decorator
+	 */
+	public AggregatingFrontBackCappedList(FrontBackCappedListInterface<T> list) {
+		this.list = Objects.requireNonNull(list);
+		for (T entry : list) {
+			backStack.push(entry);
+			sum += entry.doubleValue();
+		}
+		initialized = true;
+	}
+
+
+	/**
+	 * Adds an entry to the beginning of the list if it is not full, and adds it to the aggregates.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	@Override
+	public boolean addFront(T newEntry) {
+		checkInitialization();
+		int oldSize = list.size();
+		boolean result = list.addFront(newEntry);
+
+		if (result) {
+			if (list.size() == oldSize) {
+				removed(false);					// The list evicted its last entry to make room
+			}
+			frontStack.push(newEntry);
+			sum += newEntry.doubleValue();
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Adds an entry to the end of the list if it is not full, and adds it to the aggregates.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	@Override
+	public boolean addBack(T newEntry) {
+		checkInitialization();
+		int oldSize = list.size();
+		boolean result = list.addBack(newEntry);
+
+		if (result) {
+			if (list.size() == oldSize) {
+				removed(true);					// The list evicted its first entry to make room
+			}
+			backStack.push(newEntry);
+			sum += newEntry.doubleValue();
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the beginning of the list if the list is not empty, and removes it from the aggregates.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeFront() {
+		checkInitialization();
+		T result = list.removeFront();
+
+		if (result != null) {
+			removed(true);
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the end of the list if the list is not empty, and removes it from the aggregates.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeBack() {
+		checkInitialization();
+		T result = list.removeBack();
+
+		if (result != null) {
+			removed(false);
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Clears the list to an empty list and resets the aggregates.
+	 */
+	@Override
+	public void clear() {
+		checkInitialization();
+		list.clear();
+		frontStack.clear();
+		backStack.clear();
+		sum = 0;
+	}
+
+
+	/**
+	 * Retrieves the sum of the entries in the list, as doubles, in constant time. The sum is updated by every add and
+	 * remove, so entries that are not exactly representable as doubles may leave rounding errors while the list is
+	 * not empty.
+	 *
+	 * @return The sum of the entries, or 0 if the list is empty
+	 */
+	public double getSum() {
+		checkInitialization();
+		return sum;
+	}
+
+
+	/**
+	 * Retrieves the mean of the entries in the list in constant time.
+	 *
+	 * @return The mean of the entries, or NaN if the list is empty
+	 */
+	public double getMean() {
+		checkInitialization();
+		return isEmpty() ? Double.NaN : sum / size();
+	}
+
+
+	/**
+	 * Retrieves the smallest entry in the list in constant time.
+	 *
+	 * @return The smallest entry or null if the list is empty
+	 */
+	public T getMin() {
+		checkInitialization();
+		T frontMin = frontStack.min();
+		T backMin = backStack.min();
+
+		if (frontMin == null || (backMin != null && backMin.compareTo(frontMin) < 0)) {
+			frontMin = backMin;
+		}
+
+		return frontMin;
+	}
+
+
+	/**
+	 * Retrieves the largest entry in the list in constant time.
+	 *
+	 * @return The largest entry or null if the list is empty
+	 */
+	public T getMax() {
+		checkInitialization();
+		T frontMax = frontStack.max();
+		T backMax = backStack.max();
+
+		if (frontMax == null || (backMax != null && backMax.compareTo(frontMax) > 0)) {
+			frontMax = backMax;
+		}
+
+		return frontMax;
+	}
+
+
+	/**
+	 * Retrieves the entry at a certain position in the decorated list.
+	 *
+	 * @param givenPosition An integer that indicates the position of the desired entry
+	 * @return A reference to the indicated entry or null if the index is out of bounds
+	 */
+	@Override
+	public T getEntry(int givenPosition) {
+		checkInitialization();
+		return list.getEntry(givenPosition);
+	}
+
+
+	/**
+	 * Determines the first position in the decorated list of a given entry.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The first position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int indexOf(T anEntry) {
+		checkInitialization();
+		return list.indexOf(anEntry);
+	}
+
+
+	/**
+	 * Determines the last position in the decorated list of a given entry.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The last position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int lastIndexOf(T anEntry) {
+		checkInitialization();
+		return list.lastIndexOf(anEntry);
+	}
+
+
+	/**
+	 * Determines whether an entry is in the decorated list.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 */
+	@Override
+	public boolean contains(T anEntry) {
+		checkInitialization();
+		return list.contains(anEntry);
+	}
+
+
+	/**
+	 * Retrieves length of the list.
+	 *
+	 * @return Integer number of entries currently in the list.
+	 */
+	@Override
+	public int size() {
+		return list.size();
+	}
+
+
+	/**
+	 * Determines if the list is empty.
+	 *
+	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return list.isEmpty();
+	}
+
+
+	/**
+	 * Determines if the list is full.
+	 *
+	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 */
+	@Override
+	public boolean isFull() {
+		return list.isFull();
+	}
+
+
+	/**
+	 * Retrieves the capacity of the decorated list.
+	 *
+	 * @return The largest number of entries the decorated list can hold
+	 */
+	@Override
+	public int getCapacity() {
+		return list.getCapacity();
+	}
+
+
+	/**
+	 * Copies the entries in the decorated list, in order, to a new array.
+	 *
+	 * @return An array containing all the entries in the list
+	 */
+	@Override
+	public Object[] toArray() {
+		checkInitialization();
+		return list.toArray();
+	}
+
+
+	/**
+	 * Copies the entries in the decorated list, in order, into an array, starting at the given index of the array.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 * @throws IndexOutOfBoundsException if the entries do not fit in the array from the given index
+	 */
+	@Override
+	public void copyInto(T[] dest, int from) {
+		checkInitialization();
+		list.copyInto(dest, from);
+	}
+
+
+	/**
+	 * Performs an action on each entry of the decorated list, from the front to the back.
+	 *
+	 * @param action The action to perform on each entry
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		checkInitialization();
+		list.forEach(action);
+	}
+
+
+	/**
+	 * Creates an iterator over the entries of the decorated list, from front to back.
+	 *
+	 * @return An iterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		checkInitialization();
+		return list.iterator();
+	}
+
+
+	/**
+	 * Creates a spliterator over the entries of the decorated list.
+	 *
+	 * @return A spliterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		checkInitialization();
+		return list.spliterator();
+	}
+
+
+	/**
+	 * Retrieves the decorated list's string representation, followed by the aggregates if the list is not empty.
+	 *
+	 * @return String representation of the list and its sum, mean, smallest and largest entries
+	 */
+	public String toString() {
+		checkInitialization();
+		StringBuilder result = new StringBuilder(list.toString());
+
+		if (!isEmpty()) {
+			result.append("\tsum=").append(getSum()).append(" mean=").append(getMean())
+					.append(" min=").append(getMin()).append(" max=").append(getMax());
+		}
+
+		return result.toString();
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Removes the entry that was just removed from one end of the decorated list from the aggregates. If the stack
+	 * for that end is empty, half of the other stack is moved over first.
+	 *
+	 * Precondition: The aggregates hold at least one entry.
+	 *
+	 * @param front True if the entry was removed from the front; false if it was removed from the back
+	 */
+	private void removed(boolean front) {
+		AggregateStack stack = front ? frontStack : backStack;
+		if (stack.isEmpty()) {
+			rebalance(front);
+		}
+
+		sum -= stack.pop().doubleValue();
+		if (frontStack.isEmpty() && backStack.isEmpty()) {
+			sum = 0;							// Discards any rounding error left by the removed entries
+		}
+	}
+
+
+	/**
+	 * Moves half of the entries of one stack to the other, empty stack, so each holds the entries nearest its end.
+	 * The nearer half goes to the empty stack, and the entries left are pushed again so their running smallest and
+	 * largest entries are recomputed.
+	 *
+	 * @param front True to fill the empty front stack from the back stack; false for the reverse
+	 */
+	private void rebalance(boolean front) {
+		AggregateStack empty = front ? frontStack : backStack;
+		AggregateStack full = front ? backStack : frontStack;
+		Object[] entries = full.drain();		// Bottom first, which is nearest the empty stack's end
+		int moved = (entries.length + 1) / 2;
+
+		for (int index = moved - 1; index >= 0; index--) {
+			empty.push(entryAt(entries, index));
+		}
+		for (int index = moved; index < entries.length; index++) {
+			full.push(entryAt(entries, index));
+		}
+	}
+
+
+	// The cast is safe because the stacks only hold entries of the list
+	@SuppressWarnings("unchecked")
+	private T entryAt(Object[] entries, int index) {
+		return (T) entries[index];
+	}
+
+
+	/**
+	 * Checks if the decorator is properly initialized.
+	 *
+	 * @throws SecurityException if this object is not initialized
+	 */
+	private void checkInitialization() {
+		if (!initialized) {
+			throw new SecurityException("AggregatingFrontBackCappedList object is not initialized properly.");
+		}
+	}
+
+
+	/*
+	****************
+	STACK CLASS:
+	****************
+	 */
+
+	/*
+	 * A stack of entries in which every level also records the smallest and largest entries at or below it.
+	 */
+	private class AggregateStack {
+		private Object[] entries = new Object[16];
+		private Object[] mins = new Object[16];
+		private Object[] maxes = new Object[16];
+		private int size;
+
+		private boolean isEmpty() {
+			return size == 0;
+		}
+
+		private void push(T newEntry) {
+			if (size == entries.length) {
+				entries = Arrays.copyOf(entries, size * 2);
+				mins = Arrays.copyOf(mins, size * 2);
+				maxes = Arrays.copyOf(maxes, size * 2);
+			}
+
+			T min = min();
+			T max = max();
+			entries[size] = newEntry;
+			mins[size] = (min == null || newEntry.compareTo(min) < 0) ? newEntry : min;
+			maxes[size] = (max == null || newEntry.compareTo(max) > 0) ? newEntry : max;
+			size++;
+		}
+
+		private T pop() {
+			size--;
+			T result = entryAt(entries, size);
+			entries[size] = null;				// Release references for garbage collection
+			mins[size] = null;
+			maxes[size] = null;
+			return result;
+		}
+
+		// The smallest entry in the stack, or null if it is empty
+		private T min() {
+			return (size == 0) ? null : entryAt(mins, size - 1);
+		}
+
+		// The largest entry in the stack, or null if it is empty
+		private T max() {
+			return (size == 0) ? null : entryAt(maxes, size - 1);
+		}
+
+		// Empties the stack and returns its entries, bottom first
+		private Object[] drain() {
+			Object[] result = Arrays.copyOf(entries, size);
+			clear();
+			return result;
+		}
+
+		private void clear() {
+			Arrays.fill(entries, 0, size, null);
+			Arrays.fill(mins, 0, size, null);
+			Arrays.fill(maxes, 0, size, null);
+			size = 0;
+		}
+	} // end AggregateStack
+} // end AggregatingFrontBackCappedList
@@ -0,0 +1,779 @@
+/**
+ * A class that implements the ADT list with front or back entry or removal and capped to a given capacity,
+ * using a preallocated circular array.
+ *
+ * The array is allocated once at construction, so no operation allocates memory. The front of the list is
+ * tracked by an index into the array that wraps around at either end, which makes adding or removing at the
+ * front or back, as well as retrieving an entry at a given position, constant-time operations.
+ *
+ * Searches of lists at least as long as the parallel search threshold split the list into ranges that the common
+ * ForkJoinPool searches at once. A range that can only hold matches farther from the end searched from than one
+ * already found is skipped, so a search for an entry near that end finishes almost as soon as a sequential one.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.util.*;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class ArrayFrontBackCappedList<T> implements FrontBackCappedListInterface<T> {
+
+	private final T[] list;				// Circular array of list entries
+	private int frontIndex;				// Index of the first entry
+	private int numberOfEntries;
+	private final int capacity;
+	private boolean initialized = false;
+	private int modCount = 0;			// Number of structural modifications, checked by iterators
+	private int parallelSearchThreshold = Integer.MAX_VALUE;	// Smallest list searched in parallel
+
+	private static final int SEARCH_LEAF_SIZE = 1 << 12;		// Largest range a search task scans itself
+
+
+	/**
+	 * Creates and initializes an empty list.
+	 *
+	 * Precondition: Capacity is not negative.
+	 *
+	 * @param capacity Maximum size of list
+	 */
+	public ArrayFrontBackCappedList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative.");
+		}
+
+		// The cast is safe because the new array contains null entries
+		@SuppressWarnings("unchecked")
+		T[] tempList = (T[]) new Object[capacity];
+		list = tempList;
+		this.capacity = capacity;
+		initializeDataFields();
+		initialized = true;
+	}
+
+
+	/**
+	 * Adds an entry to the beginning of the list if it is not full. If the entry is successfully added, entries
+	 * currently in the list are shifted back, and the list size is increased by 1.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	@Override
+	public boolean addFront(T newEntry) {
+		checkInitialization();
+		boolean result = true;
+
+		if (isFull()) {
+			result = false;
+		} else {
+			frontIndex = decrement(frontIndex);
+			list[frontIndex] = newEntry;
+			numberOfEntries++;
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Adds an entry to the end of the list if it is not full. If the entry is successfully added, entries
+	 * currently in the list are unaffected, and the list size is increased by 1.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	@Override
+	public boolean addBack(T newEntry) {
+		checkInitialization();
+		boolean result = true;
+
+		if (isFull()) {
+			result = false;
+		} else {
+			list[physicalIndex(numberOfEntries)] = newEntry;
+			numberOfEntries++;
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the beginning of the list if the list is not empty. The remaining entries
+	 * are shifted forwards, and the list size is decreased by 1.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeFront() {
+		checkInitialization();
+		T result = null;
+
+		if (!(isEmpty())) {
+			result = list[frontIndex];
+			list[frontIndex] = null;			// Release reference for garbage collection
+			frontIndex = increment(frontIndex);
+			numberOfEntries--;
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the end of the list if the list is not empty. The rest of the list is not
+	 * impacted, and the list is decreased by 1.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeBack() {
+		checkInitialization();
+		T result = null;
+
+		if (!(isEmpty())) {
+			int backIndex = physicalIndex(numberOfEntries - 1);
+			result = list[backIndex];
+			list[backIndex] = null;				// Release reference for garbage collection
+			numberOfEntries--;
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Clears the list to an empty list.
+	 */
+	@Override
+	public void clear() {
+		checkInitialization();
+
+		for (int index = 0; index < numberOfEntries; index++) {
+			list[physicalIndex(index)] = null;
+		}
+
+		initializeDataFields();
+		modCount++;
+	}
+
+
+	/**
+	 * Adds the entries of an array to the end of the list, in order, until the list is full. The entries are
+	 * copied into the circular array in at most two blocks, one on each side of the point where it wraps around.
+	 *
+	 * @param newEntries The objects to be added as new entries
+	 * @return The number of entries added, which is less than the length of the array if the list became full
+	 */
+	@Override
+	public int addAllBack(T[] newEntries) {
+		checkInitialization();
+		int added = Math.min(newEntries.length, capacity - numberOfEntries);
+
+		if (added > 0) {
+			int start = physicalIndex(numberOfEntries);
+			int firstPart = Math.min(added, capacity - start);
+			System.arraycopy(newEntries, 0, list, start, firstPart);
+			System.arraycopy(newEntries, firstPart, list, 0, added - firstPart);
+			numberOfEntries += added;
+			modCount++;
+		}
+
+		return added;
+	}
+
+
+	/**
+	 * Adds the entries of a collection to the end of the list, in the collection's iteration order, until the list
+	 * is full.
+	 *
+	 * @param newEntries The objects to be added as new entries
+	 * @return The number of entries added, which is less than the size of the collection if the list became full
+	 */
+	@Override
+	public int addAllBack(Collection<? extends T> newEntries) {
+		checkInitialization();
+		int added = Math.min(newEntries.size(), capacity - numberOfEntries);
+
+		if (added > 0) {
+			Iterator<? extends T> entries = newEntries.iterator();
+			int index = physicalIndex(numberOfEntries);
+			for (int count = 0; count < added; count++) {
+				list[index] = entries.next();
+				index = increment(index);
+			}
+			numberOfEntries += added;
+			modCount++;
+		}
+
+		return added;
+	}
+
+
+	/**
+	 * Adds the entries of a collection to the beginning of the list, in the collection's iteration order, until the
+	 * list is full, so the last entry added becomes the first. Since the entries end up in reverse order, they are
+	 * stored one at a time rather than copied in blocks.
+	 *
+	 * @param newEntries The objects to be added as new entries
+	 * @return The number of entries added, which is less than the size of the collection if the list became full
+	 */
+	@Override
+	public int addAllFront(Collection<? extends T> newEntries) {
+		checkInitialization();
+		int added = Math.min(newEntries.size(), capacity - numberOfEntries);
+
+		if (added > 0) {
+			Iterator<? extends T> entries = newEntries.iterator();
+			for (int count = 0; count < added; count++) {
+				frontIndex = decrement(frontIndex);
+				list[frontIndex] = entries.next();
+			}
+			numberOfEntries += added;
+			modCount++;
+		}
+
+		return added;
+	}
+
+
+	/**
+	 * Retrieves the entry at a certain position in the list, after determining if the position is valid.
+	 *
+	 * @param givenPosition An integer that indicates the position of the desired entry
+	 * @return A reference to the indicated entry or null if the index is out of bounds
+	 */
+	@Override
+	public T getEntry(int givenPosition) {
+		checkInitialization();
+		T result = null;
+
+		if (validPosition(givenPosition)) {
+			result = list[physicalIndex(givenPosition)];
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the first index
+	 * is returned.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The first position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int indexOf(T anEntry) {
+		checkInitialization();
+		if (numberOfEntries >= parallelSearchThreshold) {
+			return indexOfParallel(anEntry);
+		}
+		int position = -1;
+
+		for (int index = 0; (index < numberOfEntries) && (position < 0); index++) {
+			if (list[physicalIndex(index)].equals(anEntry)) {
+				position = index;
+			}
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the last index
+	 * is returned.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The last position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int lastIndexOf(T anEntry) {
+		checkInitialization();
+		if (numberOfEntries >= parallelSearchThreshold) {
+			return lastIndexOfParallel(anEntry);
+		}
+		int position = -1;
+
+		for (int index = numberOfEntries - 1; (index >= 0) && (position < 0); index--) {
+			if (list[physicalIndex(index)].equals(anEntry)) {
+				position = index;
+			}
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry by searching ranges of the list in parallel in the
+	 * common ForkJoinPool, or in the pool of the calling task. If the entry appears more than once, the first index
+	 * is returned. The list must not be changed during the search.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The first position that the entry was found or -1 if the entry is not found
+	 */
+	public int indexOfParallel(T anEntry) {
+		checkInitialization();
+		AtomicInteger match = new AtomicInteger(Integer.MAX_VALUE);
+
+		if (!isEmpty()) {
+			new SearchTask(0, numberOfEntries, anEntry, false, match).invoke();
+		}
+
+		return (match.get() == Integer.MAX_VALUE) ? -1 : match.get();
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry by searching ranges of the list in parallel in the
+	 * common ForkJoinPool, or in the pool of the calling task. If the entry appears more than once, the last index
+	 * is returned. The list must not be changed during the search.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The last position that the entry was found or -1 if the entry is not found
+	 */
+	public int lastIndexOfParallel(T anEntry) {
+		checkInitialization();
+		AtomicInteger match = new AtomicInteger(-1);
+
+		if (!isEmpty()) {
+			new SearchTask(0, numberOfEntries, anEntry, true, match).invoke();
+		}
+
+		return match.get();
+	}
+
+
+	/**
+	 * Sets the smallest list that indexOf, lastIndexOf and contains search in parallel. Parallel searches pay for
+	 * splitting the list into tasks, so they only pay off for long lists or entries whose equals is expensive.
+	 *
+	 * @param threshold The smallest number of entries searched in parallel; Integer.MAX_VALUE to always search
+	 * sequentially, which is the default
+	 * @throws IllegalArgumentException if the threshold is negative
+	 */
+	public void setParallelSearchThreshold(int threshold) {
+		checkInitialization();
+		if (threshold < 0) {
+			throw new IllegalArgumentException("Parallel search threshold cannot be negative.");
+		}
+
+		parallelSearchThreshold = threshold;
+	}
+
+
+	/**
+	 * Retrieves the smallest list that indexOf, lastIndexOf and contains search in parallel.
+	 *
+	 * @return The parallel search threshold of this list
+	 */
+	public int getParallelSearchThreshold() {
+		return parallelSearchThreshold;
+	}
+
+
+	/**
+	 * Determines whether an entry is in the list.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 */
+	@Override
+	public boolean contains(T anEntry) {
+		checkInitialization();
+		return (indexOf(anEntry) >= 0);
+	}
+
+
+	/**
+	 * Retrieves length of the list.
+	 *
+	 * @return Integer number of entries currently in the list.
+	 */
+	@Override
+	public int size() {
+		return numberOfEntries;
+	}
+
+
+	/**
+	 * Determines if the list is empty.
+	 *
+	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return (numberOfEntries == 0);
+	}
+
+
+	/**
+	 * Determines if the list is full.
+	 *
+	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 */
+	@Override
+	public boolean isFull() {
+		return (numberOfEntries >= capacity);
+	}
+
+
+	/**
+	 * Retrieves the capacity of the list, the largest number of entries it can hold.
+	 *
+	 * @return The capacity of the list
+	 */
+	@Override
+	public int getCapacity() {
+		return capacity;
+	}
+
+
+	/**
+	 * Creates an iterator over the entries from the front to the back of the list. The iterator throws a
+	 * ConcurrentModificationException if the list is structurally modified after the iterator was created.
+	 *
+	 * @return An iterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		checkInitialization();
+		return new ArraySpliterator(0, numberOfEntries, modCount);
+	}
+
+
+	/**
+	 * Creates a spliterator over the entries in the list. Since any position can be reached in constant time, the
+	 * spliterator splits its range of positions exactly in half.
+	 *
+	 * @return A SIZED and ORDERED spliterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		checkInitialization();
+		return new ArraySpliterator(0, numberOfEntries, modCount);
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, to a new array. The entries are copied in at most two blocks, one
+	 * on each side of the end of the circular array.
+	 *
+	 * @return An array containing all the entries in the list
+	 */
+	@Override
+	public Object[] toArray() {
+		checkInitialization();
+		Object[] result = new Object[numberOfEntries];
+		copyBlocks(result, 0);
+		return result;
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, into an array, starting at the given index of the array. The entries
+	 * are copied in at most two blocks, one on each side of the end of the circular array.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 * @throws IndexOutOfBoundsException if the entries do not fit in the array from the given index
+	 */
+	@Override
+	public void copyInto(T[] dest, int from) {
+		checkInitialization();
+		Objects.checkFromIndexSize(from, numberOfEntries, dest.length);
+		copyBlocks(dest, from);
+	}
+
+
+	/**
+	 * Performs an action on each entry, from the front to the back of the list, without creating an iterator.
+	 *
+	 * @param action The action to perform on each entry
+	 * @throws ConcurrentModificationException if the action structurally modifies the list
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		checkInitialization();
+		Objects.requireNonNull(action);
+		int expectedModCount = modCount;
+
+		for (int index = 0; (index < numberOfEntries) && (modCount == expectedModCount); index++) {
+			action.accept(list[physicalIndex(index)]);
+		}
+
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+
+	/**
+	 * Retrieves the entries in the list, number of entries, and capacity of the list. If the list is not empty, the
+	 * entries at the front and back of the list are retrieved. The entries are appended to a single builder, sized
+	 * for entries as long as the first one.
+	 *
+	 * @return String representation of the list, with number of elements, capacity of the list, and entries at the
+	 * head and tail, if applicable
+	 */
+	public String toString() {
+		int entryLength = isEmpty() ? 0 : String.valueOf(list[frontIndex]).length() + 2;
+		StringBuilder result = new StringBuilder((int) Math.min(64L + (long) entryLength * numberOfEntries,
+				Integer.MAX_VALUE - 8));
+
+		result.append('[');
+		for (int index = 0; index < numberOfEntries; index++) {
+			if (index > 0) {
+				result.append(", ");
+			}
+			result.append(list[physicalIndex(index)]);
+		}
+		result.append("]\tsize=").append(numberOfEntries).append("\tcapacity=").append(capacity);
+
+		if (!isEmpty()) {
+			result.append("\thead=").append(list[frontIndex])
+					.append(" tail=").append(list[physicalIndex(numberOfEntries - 1)]);
+		}
+
+		return result.toString();
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Initializes the class's data fields to indicate an empty list.
+	 */
+	private void initializeDataFields() {
+		frontIndex = 0;
+		numberOfEntries = 0;
+	}
+
+
+	/**
+	 * Checks if list is properly initialized.
+	 *
+	 * @throws SecurityException if this object is not initialized
+	 */
+	private void checkInitialization() {
+		if (!initialized) {
+			throw new SecurityException("ArrayFrontBackCappedList object is not initialized properly.");
+		}
+	}
+
+
+	/**
+	 * Determines if given position is a valid position within the bounds of the list.
+	 *
+	 * @param position The position in the list
+	 * @return True if the position is valid; otherwise, returns false.
+	 */
+	private boolean validPosition(int position) {
+		return position >= 0 && position < numberOfEntries;
+	}
+
+
+	/**
+	 * Translates a position in the list to an index in the circular array.
+	 *
+	 * Precondition: 0 <= position <= numberOfEntries < capacity or 0 <= position < numberOfEntries.
+	 *
+	 * @param position The position in the list
+	 * @return The index in the array holding the entry at the given position
+	 */
+	private int physicalIndex(int position) {
+		int index = frontIndex + position;		// Cannot overflow: both operands are below capacity
+		return (index >= capacity) ? index - capacity : index;
+	}
+
+
+	// Advances an array index by one, wrapping around at the end of the array
+	private int increment(int index) {
+		return (index + 1 == capacity) ? 0 : index + 1;
+	}
+
+
+	// Moves an array index back by one, wrapping around at the beginning of the array
+	private int decrement(int index) {
+		return (index == 0) ? capacity - 1 : index - 1;
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, into an array with System.arraycopy.
+	 *
+	 * Precondition: The entries fit in the array from the given index.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 */
+	private void copyBlocks(Object[] dest, int from) {
+		int firstPart = Math.min(numberOfEntries, capacity - frontIndex);
+
+		System.arraycopy(list, frontIndex, dest, from, firstPart);
+		System.arraycopy(list, 0, dest, from + firstPart, numberOfEntries - firstPart);
+	}
+
+
+	/*
+	****************
+	SEARCH TASK CLASS:
+	****************
+	 */
+
+	/*
+	 * Searches a range of positions in the list for an entry, splitting the range in halves until it is small
+	 * enough to scan. The position found so far is shared by every task of the search, so a task is skipped when
+	 * its range can only hold matches on the far side of it.
+	 */
+	private class SearchTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int origin;				// First position to search
+		private final int fence;				// One past the last position to search
+		private final T anEntry;
+		private final boolean last;				// True to find the last match; false to find the first
+		private final AtomicInteger match;		// Best match found so far by any task of the search
+
+		private SearchTask(int origin, int fence, T anEntry, boolean last, AtomicInteger match) {
+			this.origin = origin;
+			this.fence = fence;
+			this.anEntry = anEntry;
+			this.last = last;
+			this.match = match;
+		}
+
+		@Override
+		protected void compute() {
+			if (last ? (fence - 1 <= match.get()) : (origin >= match.get())) {
+				return;							// A better match was already found
+			}
+
+			if (fence - origin > SEARCH_LEAF_SIZE) {
+				int middle = (origin + fence) >>> 1;
+				invokeAll(new SearchTask(origin, middle, anEntry, last, match),
+						new SearchTask(middle, fence, anEntry, last, match));
+			} else if (!last) {
+				// The shared match is read once, so the scan itself is as tight as a sequential one
+				int end = Math.min(fence, match.get());
+				for (int position = origin; position < end; position++) {
+					if (list[physicalIndex(position)].equals(anEntry)) {
+						match.accumulateAndGet(position, Math::min);
+						break;
+					}
+				}
+			} else {
+				int end = Math.max(origin - 1, match.get());
+				for (int position = fence - 1; position > end; position--) {
+					if (list[physicalIndex(position)].equals(anEntry)) {
+						match.accumulateAndGet(position, Math::max);
+						break;
+					}
+				}
+			}
+		}
+	} // end SearchTask
+
+
+	/*
+	****************
+	ITERATOR CLASS:
+	****************
+	 */
+
+	/*
+	 * Traverses a range of positions in the list. Serves as both the iterator and the spliterator of the list.
+	 */
+	private class ArraySpliterator implements Iterator<T>, Spliterator<T> {
+		private int position;					// Position of the next entry to traverse
+		private final int fence;				// One past the last position to traverse
+		private final int expectedModCount;
+
+		private ArraySpliterator(int origin, int fence, int expectedModCount) {
+			position = origin;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return position < fence;
+		}
+
+		@Override
+		public T next() {
+			checkForComodification();
+			if (position >= fence) {
+				throw new NoSuchElementException("Illegal call to next(); iterator is after end of list.");
+			}
+
+			return list[physicalIndex(position++)];
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			boolean result = false;
+
+			if (position < fence) {
+				action.accept(list[physicalIndex(position++)]);
+				checkForComodification();
+				result = true;
+			}
+
+			return result;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+
+			while (position < fence) {
+				action.accept(list[physicalIndex(position++)]);
+			}
+
+			checkForComodification();
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			Spliterator<T> result = null;
+			int middle = (position + fence) >>> 1;
+
+			if (position < middle) {
+				result = new ArraySpliterator(position, middle, expectedModCount);
+				position = middle;
+			}
+
+			return result;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - position;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	} // end ArraySpliterator
+} // end ArrayFrontBackCappedList
@@ -0,0 +1,392 @@
+/**
+ * A class that writes the entries of a capped list to a channel in a compact binary form, and reads them back into
+ * a list, so lists can be passed between programs without the cost and loss of parsing toString.
+ *
+ * A written list starts with a 20-byte header that holds a magic number, a format version, the list's capacity, its
+ * size, and the width of its entries. The entries follow in order from front to back. With a fixed-width codec,
+ * each entry takes the codec's width, and the header records that width; with a variable-width codec, each entry is
+ * preceded by its length in 4 bytes, or by -1 if it is null, and the header records a width of -1. Numbers are
+ * big-endian, whatever the machine's byte order.
+ *
+ * All reads and writes go through one direct buffer, allocated when the codec is created and reused by every call,
+ * so streaming a list allocates nothing but the entries read. Entries are added to the list as they are decoded,
+ * without collecting them first. A read never takes bytes past the end of its list from the channel, so several
+ * lists can be written to one stream and read back in turn, by any codecs. Fixed-width entries are read as many at a
+ * time as the buffer holds; variable-width entries are read one length and one entry at a time, since the stream
+ * does not record where their list ends. Since the buffer is shared, a codec must not be used by several threads at
+ * once.
+ *
+ * The channels are expected to be blocking, so every read or write moves at least one byte.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+public class BinaryListCodec<T> {
+
+	private static final int MAGIC = 0x43464253;			// "CFBS"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 20;
+	private static final int LENGTH_PREFIXED = -1;			// The width recorded for variable-width entries
+	private static final int NULL_LENGTH = -1;				// The length recorded for a null entry
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	private final FixedWidthCodec<T> fixedCodec;			// Null if entries have variable widths
+	private final VariableWidthCodec<T> variableCodec;		// Null if entries have a fixed width
+	private final int width;								// The width recorded in the header
+	private final ByteBuffer buffer;						// Holds no bytes from one call to the next
+	private long unfetched;									// Bytes of the list being read that reads may fetch ahead
+
+
+	/**
+	 * Creates a codec that stores each entry in the fixed number of bytes of a given codec, with a buffer of 64 KiB.
+	 *
+	 * @param codec The codec that stores each entry
+	 */
+	public BinaryListCodec(FixedWidthCodec<T> codec) {
+		this(codec, DEFAULT_BUFFER_SIZE);
+	}
+
+
+	/**
+	 * Creates a codec that stores each entry in the fixed number of bytes of a given codec.
+	 *
+	 * @param codec The codec that stores each entry
+	 * @param bufferSize The size in bytes of the buffer every read and write goes through
+	 * @throws IllegalArgumentException if the buffer cannot hold the header or an entry
+	 */
+	public BinaryListCodec(FixedWidthCodec<T> codec, int bufferSize) {
+		this(codec, null, codec.width(), bufferSize);
+	}
+
+
+	/**
+	 * Creates a codec that stores each entry in as many bytes as a given codec needs, preceded by the number of
+	 * bytes, with a buffer of 64 KiB.
+	 *
+	 * @param codec The codec that stores each entry
+	 */
+	public BinaryListCodec(VariableWidthCodec<T> codec) {
+		this(codec, DEFAULT_BUFFER_SIZE);
+	}
+
+
+	/**
+	 * Creates a codec that stores each entry in as many bytes as a given codec needs, preceded by the number of
+	 * bytes. Each entry and its length must fit in the buffer.
+	 *
+	 * @param codec The codec that stores each entry
+	 * @param bufferSize The size in bytes of the buffer every read and write goes through
+	 * @throws IllegalArgumentException if the buffer cannot hold the header
+	 */
+	public BinaryListCodec(VariableWidthCodec<T> codec, int bufferSize) {
+		this(null, Objects.requireNonNull(codec), LENGTH_PREFIXED, bufferSize);
+	}
+
+
+	private BinaryListCodec(FixedWidthCodec<T> fixedCodec, VariableWidthCodec<T> variableCodec, int width,
+			int bufferSize) {
+		if (bufferSize < Math.max(HEADER_SIZE, width)) {
+			throw new IllegalArgumentException("Buffer must hold at least " + Math.max(HEADER_SIZE, width) + " bytes.");
+		}
+
+		this.fixedCodec = fixedCodec;
+		this.variableCodec = variableCodec;
+		this.width = width;
+		buffer = ByteBuffer.allocateDirect(bufferSize);
+	}
+
+
+	/**
+	 * Writes the capacity, size and entries of a list to a channel. The list must not change during the write.
+	 *
+	 * @param list The list to write
+	 * @param channel The channel to write to
+	 * @return The number of bytes written
+	 * @throws IOException if the channel cannot be written to
+	 * @throws NullPointerException if an entry is null and entries have a fixed width
+	 * @throws IllegalArgumentException if an entry cannot be stored by the entry codec, or does not fit in the buffer
+	 * @throws ConcurrentModificationException if the list holds more or fewer entries than its size
+	 */
+	public long write(FrontBackCappedListInterface<T> list, WritableByteChannel channel) throws IOException {
+		int size = list.size();
+		long written = HEADER_SIZE;
+		int count = 0;
+
+		buffer.clear();
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(list.getCapacity()).putInt(size).putInt(width);
+		for (T entry : list) {
+			if (count == size) {
+				throw new ConcurrentModificationException("The list holds more entries than its size.");
+			}
+			written += (fixedCodec != null) ? writeFixed(entry, channel) : writeVariable(entry, channel);
+			count++;
+		}
+		if (count != size) {
+			throw new ConcurrentModificationException("The list holds fewer entries than its size.");
+		}
+		flush(channel);
+
+		return written;
+	}
+
+
+	/**
+	 * Reads a list from a channel into a new list with the capacity recorded in the stream.
+	 *
+	 * @param channel The channel to read from
+	 * @param listFactory Creates an empty list of a given capacity
+	 * @return The new list, holding the entries read, in order
+	 * @throws IOException if the channel cannot be read, ends inside the list, or does not hold a list written by a
+	 * codec of the same width
+	 */
+	public <L extends FrontBackCappedListInterface<T>> L readList(ReadableByteChannel channel,
+			IntFunction<? extends L> listFactory) throws IOException {
+		int[] header = readHeader(channel);
+		L result = listFactory.apply(header[0]);
+		readEntries(channel, header[1], result);
+
+		return result;
+	}
+
+
+	/**
+	 * Reads a list from a channel and adds its entries to the end of a given list, in order, until the given list is
+	 * full, as addAllBack would. Entries that do not fit are read and dropped, so the next read from the channel
+	 * starts after the list.
+	 *
+	 * @param channel The channel to read from
+	 * @param list The list to add the entries to
+	 * @return The number of entries added, which is less than the size of the list read if the given list became full
+	 * @throws IOException if the channel cannot be read, ends inside the list, or does not hold a list written by a
+	 * codec of the same width
+	 */
+	public int readAllBack(ReadableByteChannel channel, FrontBackCappedListInterface<T> list) throws IOException {
+		int[] header = readHeader(channel);
+		return readEntries(channel, header[1], list);
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Encodes an entry of fixed width into the buffer, first writing the buffer to the channel if it is too full.
+	 *
+	 * @param entry The entry to write
+	 * @param channel The channel the buffer is written to
+	 * @return The number of bytes the entry took
+	 */
+	private int writeFixed(T entry, WritableByteChannel channel) throws IOException {
+		if (buffer.remaining() < width) {
+			flush(channel);
+		}
+		fixedCodec.write(buffer, buffer.position(), entry);
+		buffer.position(buffer.position() + width);
+
+		return width;
+	}
+
+
+	/**
+	 * Encodes an entry of variable width into the buffer after its length. If the entry does not fit, the buffer is
+	 * written to the channel and the entry is encoded again at the start of the buffer.
+	 *
+	 * @param entry The entry to write
+	 * @param channel The channel the buffer is written to
+	 * @return The number of bytes the entry and its length took
+	 */
+	private int writeVariable(T entry, WritableByteChannel channel) throws IOException {
+		if (buffer.remaining() < Integer.BYTES) {
+			flush(channel);
+		}
+		int start = buffer.position();
+		int length = NULL_LENGTH;
+
+		if (entry != null) {
+			try {
+				buffer.position(start + Integer.BYTES);
+				variableCodec.write(buffer, entry);
+				length = buffer.position() - start - Integer.BYTES;
+			} catch (BufferOverflowException e) {
+				if (start == 0) {
+					throw new IllegalArgumentException("Entry does not fit in a buffer of " + buffer.capacity()
+							+ " bytes.", e);
+				}
+				buffer.position(start);
+				flush(channel);
+				return writeVariable(entry, channel);
+			}
+		}
+		buffer.putInt(start, length);
+		buffer.position(start + Integer.BYTES + Math.max(length, 0));
+
+		return Integer.BYTES + Math.max(length, 0);
+	}
+
+
+	/**
+	 * Writes the bytes in the buffer to the channel and empties the buffer for writing.
+	 *
+	 * @param channel The channel to write to
+	 */
+	private void flush(WritableByteChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+
+	/**
+	 * Reads and checks the header of a list. Any bytes left in the buffer by a read that failed are dropped, since
+	 * no read takes bytes past its list.
+	 *
+	 * @param channel The channel to read from
+	 * @return The capacity and the size of the list, in that order
+	 * @throws IOException if the header is not one this codec wrote
+	 */
+	private int[] readHeader(ReadableByteChannel channel) throws IOException {
+		buffer.clear().limit(0);
+		unfetched = 0;
+		fill(channel, HEADER_SIZE);
+		int magic = buffer.getInt();
+		int version = buffer.getInt();
+		int capacity = buffer.getInt();
+		int size = buffer.getInt();
+		int entryWidth = buffer.getInt();
+
+		if (magic != MAGIC) {
+			throw new IOException("Stream does not hold a capped list.");
+		}
+		if (version != VERSION) {
+			throw new IOException("Stream holds format version " + version + ", not " + VERSION + ".");
+		}
+		if (entryWidth != width) {
+			throw new IOException("Stream holds " + describeWidth(entryWidth) + ", but the codec stores "
+					+ describeWidth(width) + ".");
+		}
+		if (size < 0 || capacity < size) {
+			throw new IOException("Stream holds a list of " + size + " entries with capacity " + capacity + ".");
+		}
+		if (fixedCodec != null) {
+			unfetched = (long) size * width;		// Every entry of the list may be fetched ahead
+		}
+
+		return new int[] {capacity, size};
+	}
+
+
+	// Describes the entries stored with a width recorded in a header
+	private static String describeWidth(int entryWidth) {
+		return (entryWidth == LENGTH_PREFIXED) ? "entries of variable width" : "entries of " + entryWidth + " bytes";
+	}
+
+
+	/**
+	 * Reads a given number of entries and adds them to the end of a list until it is full.
+	 *
+	 * @param channel The channel to read from
+	 * @param size The number of entries to read
+	 * @param list The list to add the entries to
+	 * @return The number of entries added
+	 */
+	private int readEntries(ReadableByteChannel channel, int size, FrontBackCappedListInterface<T> list)
+			throws IOException {
+		int added = 0;
+
+		for (int count = 0; count < size; count++) {
+			T entry = (fixedCodec != null) ? readFixed(channel) : readVariable(channel);
+			if (added == count && list.addBack(entry)) {		// Once the list rejects an entry, the rest are dropped
+				added++;
+			}
+		}
+
+		return added;
+	}
+
+
+	/**
+	 * Decodes the next entry of fixed width.
+	 *
+	 * @param channel The channel to read from
+	 * @return The entry decoded
+	 */
+	private T readFixed(ReadableByteChannel channel) throws IOException {
+		fill(channel, width);
+		T result = fixedCodec.read(buffer, buffer.position());
+		buffer.position(buffer.position() + width);
+
+		return result;
+	}
+
+
+	/**
+	 * Decodes the next entry of variable width after its length. The entry codec sees only the entry's bytes.
+	 *
+	 * @param channel The channel to read from
+	 * @return The entry decoded, or null if a null entry was written
+	 * @throws IOException if the length is negative or does not fit in the buffer
+	 */
+	private T readVariable(ReadableByteChannel channel) throws IOException {
+		fill(channel, Integer.BYTES);
+		int length = buffer.getInt();
+		T result = null;
+
+		if (length != NULL_LENGTH) {
+			if (length < 0 || length > buffer.capacity()) {
+				throw new IOException("Stream holds an entry of " + length + " bytes, which does not fit in a buffer of "
+						+ buffer.capacity() + " bytes.");
+			}
+			fill(channel, length);
+			int limit = buffer.limit();
+			int end = buffer.position() + length;
+			buffer.limit(end);
+			result = variableCodec.read(buffer, length);
+			buffer.limit(limit).position(end);
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Reads from the channel until the buffer holds at least a given number of unread bytes. The unread bytes are
+	 * moved to the start of the buffer first. The buffer's limit is lowered so a read fetches no more than the bytes
+	 * needed or, if more, the bytes of the list that may be fetched ahead.
+	 *
+	 * @param channel The channel to read from
+	 * @param bytes The number of unread bytes needed, at most the buffer's capacity
+	 * @throws EOFException if the channel ends first
+	 */
+	private void fill(ReadableByteChannel channel, int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			buffer.compact();
+			int start = buffer.position();
+			long ahead = Math.max(bytes - start, unfetched);
+			buffer.limit((int) Math.min(buffer.capacity(), start + ahead));
+			while (buffer.position() < bytes) {
+				if (channel.read(buffer) < 0) {
+					buffer.flip();
+					throw new EOFException("Stream ends inside a list.");
+				}
+			}
+			unfetched = Math.max(0, unfetched - (buffer.position() - start));
+			buffer.flip();
+		}
+	}
+} // end BinaryListCodec
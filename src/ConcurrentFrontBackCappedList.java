@@ -0,0 +1,953 @@
+/**
+ * A thread-safe class that implements the ADT list with front or back entry or removal and capped to a given
+ * capacity, using a preallocated circular array.
+ *
+ * The front and the back of the list are guarded by separate locks, so a thread working at the front never waits
+ * for a thread working at the back. The two ends coordinate through two atomic counters:
+ *   - reserved counts the entries in the list plus those being added; an add must raise it without passing the
+ *     capacity before it touches the array, so concurrent adds can never overfill the list.
+ *   - available counts the entries that have been completely added and not yet claimed by a remove; a remove must
+ *     lower it without going below zero before it touches the array, so it only ever takes a fully written entry.
+ * Each end allows a single add or remove in progress at a time, so when the list holds one entry and removes run
+ * at both ends, only the remove that claims it first returns it.
+ *
+ * Operations that read the whole list, such as getEntry, indexOf and toString, hold both locks and so see a
+ * consistent list. Iterators and spliterators traverse a copy of the list taken when they are created; they never
+ * throw ConcurrentModificationException.
+ *
+ * For producer-consumer use, the put and take methods wait until the list has room or an entry, and the offer and
+ * poll methods wait up to a given time. Waiting threads are parked on conditions, so they use no processor time
+ * until an add or remove signals them. Adds and removes only signal when a thread is waiting. Since a removed null
+ * could not be told apart from an empty list, the list does not accept null entries.
+ *
+ * When the list is full, adds are rejected, evict the entry at the opposite end, or wait for room, as set by the
+ * overflow policy.
+ *
+ * The bulk adds and drains are made of single adds and removes, so each entry is added or removed atomically, but
+ * other threads may add or remove entries in between.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+public class ConcurrentFrontBackCappedList<T> implements FrontBackCappedListInterface<T> {
+
+	private final Object[] list;				// Circular array of list entries
+	private int frontIndex;						// Index of the first entry; guarded by frontLock
+	private int backIndex;						// Index one past the last entry; guarded by backLock
+	private final int capacity;
+	private final AtomicInteger reserved = new AtomicInteger();
+	private final AtomicInteger available = new AtomicInteger();
+	private final ReentrantLock frontLock = new ReentrantLock();
+	private final ReentrantLock backLock = new ReentrantLock();
+
+	// Threads waiting for an entry or for room park on these conditions; the counts let adds and removes skip
+	// signalling when nobody waits
+	private final ReentrantLock waitLock = new ReentrantLock();
+	private final Condition notEmpty = waitLock.newCondition();
+	private final Condition notFull = waitLock.newCondition();
+	private volatile int emptyWaiters;			// Modified only while holding waitLock
+	private volatile int fullWaiters;			// Modified only while holding waitLock
+
+	private volatile OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+	private volatile Consumer<? super T> evictionListener;	// Receives each evicted entry; null if none
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Creates and initializes an empty list.
+	 *
+	 * Precondition: Capacity is not negative.
+	 *
+	 * @param capacity Maximum size of list
+	 */
+	public ConcurrentFrontBackCappedList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative.");
+		}
+
+		list = new Object[capacity];
+		this.capacity = capacity;
+	}
+
+
+	/**
+	 * Adds an entry to the beginning of the list. If the list is full, the overflow policy decides whether the add
+	 * is rejected, evicts the last entry, or waits for room. If the entry is added, entries currently in the list
+	 * are shifted back, and the list size is increased by 1.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full and the policy rejects the
+	 * add, or if the thread was interrupted while waiting for room.
+	 * @throws NullPointerException if the entry is null
+	 */
+	@Override
+	public boolean addFront(T newEntry) {
+		return add(newEntry, true);
+	}
+
+
+	/**
+	 * Adds an entry to the end of the list. If the list is full, the overflow policy decides whether the add is
+	 * rejected, evicts the first entry, or waits for room. If the entry is added, entries currently in the list are
+	 * unaffected, and the list size is increased by 1.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full and the policy rejects the
+	 * add, or if the thread was interrupted while waiting for room.
+	 * @throws NullPointerException if the entry is null
+	 */
+	@Override
+	public boolean addBack(T newEntry) {
+		return add(newEntry, false);
+	}
+
+
+	/**
+	 * Removes an entry from the beginning of the list if the list is not empty. The remaining entries
+	 * are shifted forwards, and the list size is decreased by 1.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeFront() {
+		boolean removed = false;
+		T result = null;
+		frontLock.lock();
+
+		try {
+			if (claim()) {
+				result = entryAt(frontIndex);
+				list[frontIndex] = null;		// Release reference for garbage collection
+				frontIndex = increment(frontIndex);
+				reserved.decrementAndGet();		// Frees the slot for adds at either end
+				removed = true;
+			}
+		} finally {
+			frontLock.unlock();
+		}
+
+		if (removed) {
+			signalNotFull();
+		}
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the end of the list if the list is not empty. The rest of the list is not
+	 * impacted, and the list is decreased by 1.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeBack() {
+		boolean removed = false;
+		T result = null;
+		backLock.lock();
+
+		try {
+			if (claim()) {
+				backIndex = decrement(backIndex);
+				result = entryAt(backIndex);
+				list[backIndex] = null;			// Release reference for garbage collection
+				reserved.decrementAndGet();		// Frees the slot for adds at either end
+				removed = true;
+			}
+		} finally {
+			backLock.unlock();
+		}
+
+		if (removed) {
+			signalNotFull();
+		}
+		return result;
+	}
+
+
+	/**
+	 * Clears the list to an empty list, and wakes every thread waiting for room.
+	 */
+	@Override
+	public void clear() {
+		lockBothEnds();
+
+		try {
+			Arrays.fill(list, null);
+			frontIndex = 0;
+			backIndex = 0;
+			available.set(0);
+			reserved.set(0);
+		} finally {
+			unlockBothEnds();
+		}
+
+		signalAllNotFull();					// Every slot may have been freed
+	}
+
+
+	/**
+	 * Sets what an add does when the list is full. Under EVICT_OPPOSITE_END, an add that finds the list full
+	 * removes an entry from the opposite end and tries again, so each add evicts at most as many entries as other
+	 * threads' adds take the room it made. Under BLOCK, addFront and addBack wait like putFront and putBack; if the
+	 * thread is interrupted while waiting, the entry is not added, the add returns false, and the thread's interrupt
+	 * status is set again. The put, offer, take and poll methods behave the same under every policy.
+	 *
+	 * @param overflowPolicy The new overflow policy
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+	}
+
+
+	/**
+	 * Retrieves what an add does when the list is full.
+	 *
+	 * @return The overflow policy of this list
+	 */
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+
+	/**
+	 * Sets an action to receive each entry evicted to make room for an add. The action is called by the adding
+	 * thread, with no lock held, just after the entry is evicted.
+	 *
+	 * @param evictionListener The action that receives each evicted entry, or null for none
+	 */
+	public void setEvictionListener(Consumer<? super T> evictionListener) {
+		this.evictionListener = evictionListener;
+	}
+
+
+	/**
+	 * Retrieves the number of entries evicted to make room for adds since the list was created.
+	 *
+	 * @return The number of evicted entries
+	 */
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+
+	/**
+	 * Adds an entry to the beginning of the list, waiting for room if the list is full.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public void putFront(T newEntry) throws InterruptedException {
+		awaitRoom(newEntry, true, false, 0);
+	}
+
+
+	/**
+	 * Adds an entry to the end of the list, waiting for room if the list is full.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public void putBack(T newEntry) throws InterruptedException {
+		awaitRoom(newEntry, false, false, 0);
+	}
+
+
+	/**
+	 * Adds an entry to the beginning of the list, waiting up to the given time for room if the list is full.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @param timeout How long to wait for room, in units of unit
+	 * @param unit The unit of the timeout
+	 * @return True if the entry was added; otherwise, returns false if the list was still full after the timeout.
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public boolean offerFront(T newEntry, long timeout, TimeUnit unit) throws InterruptedException {
+		return awaitRoom(newEntry, true, true, unit.toNanos(timeout));
+	}
+
+
+	/**
+	 * Adds an entry to the end of the list, waiting up to the given time for room if the list is full.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @param timeout How long to wait for room, in units of unit
+	 * @param unit The unit of the timeout
+	 * @return True if the entry was added; otherwise, returns false if the list was still full after the timeout.
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public boolean offerBack(T newEntry, long timeout, TimeUnit unit) throws InterruptedException {
+		return awaitRoom(newEntry, false, true, unit.toNanos(timeout));
+	}
+
+
+	/**
+	 * Removes an entry from the beginning of the list, waiting for one if the list is empty.
+	 *
+	 * @return A reference to the removed entry
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public T takeFront() throws InterruptedException {
+		return awaitEntry(true, false, 0);
+	}
+
+
+	/**
+	 * Removes an entry from the end of the list, waiting for one if the list is empty.
+	 *
+	 * @return A reference to the removed entry
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public T takeBack() throws InterruptedException {
+		return awaitEntry(false, false, 0);
+	}
+
+
+	/**
+	 * Removes an entry from the beginning of the list, waiting up to the given time for one if the list is empty.
+	 *
+	 * @param timeout How long to wait for an entry, in units of unit
+	 * @param unit The unit of the timeout
+	 * @return A reference to the removed entry or null if the list was still empty after the timeout
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public T pollFront(long timeout, TimeUnit unit) throws InterruptedException {
+		return awaitEntry(true, true, unit.toNanos(timeout));
+	}
+
+
+	/**
+	 * Removes an entry from the end of the list, waiting up to the given time for one if the list is empty.
+	 *
+	 * @param timeout How long to wait for an entry, in units of unit
+	 * @param unit The unit of the timeout
+	 * @return A reference to the removed entry or null if the list was still empty after the timeout
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public T pollBack(long timeout, TimeUnit unit) throws InterruptedException {
+		return awaitEntry(false, true, unit.toNanos(timeout));
+	}
+
+
+	/**
+	 * Removes up to a given number of entries from the beginning of the list and passes each one to an action, in
+	 * the order they were removed. Stops early if another thread empties the list.
+	 *
+	 * @param maxEntries The largest number of entries to remove
+	 * @param sink The action that receives each removed entry
+	 * @return The number of entries removed
+	 */
+	@Override
+	public int drainFront(int maxEntries, Consumer<? super T> sink) {
+		return drain(maxEntries, sink, true);
+	}
+
+
+	/**
+	 * Removes up to a given number of entries from the end of the list and passes each one to an action, in the
+	 * order they were removed. Stops early if another thread empties the list.
+	 *
+	 * @param maxEntries The largest number of entries to remove
+	 * @param sink The action that receives each removed entry
+	 * @return The number of entries removed
+	 */
+	@Override
+	public int drainBack(int maxEntries, Consumer<? super T> sink) {
+		return drain(maxEntries, sink, false);
+	}
+
+
+	/**
+	 * Retrieves the entry at a certain position in the list, after determining if the position is valid.
+	 *
+	 * @param givenPosition An integer that indicates the position of the desired entry
+	 * @return A reference to the indicated entry or null if the index is out of bounds
+	 */
+	@Override
+	public T getEntry(int givenPosition) {
+		T result = null;
+		lockBothEnds();
+
+		try {
+			if (givenPosition >= 0 && givenPosition < available.get()) {
+				result = entryAt(physicalIndex(givenPosition));
+			}
+		} finally {
+			unlockBothEnds();
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the first index
+	 * is returned.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The first position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int indexOf(T anEntry) {
+		int position = -1;
+		lockBothEnds();
+
+		try {
+			int numberOfEntries = available.get();
+			for (int index = 0; (index < numberOfEntries) && (position < 0); index++) {
+				if (list[physicalIndex(index)].equals(anEntry)) {
+					position = index;
+				}
+			}
+		} finally {
+			unlockBothEnds();
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the last index
+	 * is returned.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The last position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int lastIndexOf(T anEntry) {
+		int position = -1;
+		lockBothEnds();
+
+		try {
+			for (int index = available.get() - 1; (index >= 0) && (position < 0); index--) {
+				if (list[physicalIndex(index)].equals(anEntry)) {
+					position = index;
+				}
+			}
+		} finally {
+			unlockBothEnds();
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines whether an entry is in the list.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 */
+	@Override
+	public boolean contains(T anEntry) {
+		return (indexOf(anEntry) >= 0);
+	}
+
+
+	/**
+	 * Retrieves length of the list. Entries that are still being added are not counted.
+	 *
+	 * @return Integer number of entries currently in the list.
+	 */
+	@Override
+	public int size() {
+		return available.get();
+	}
+
+
+	/**
+	 * Determines if the list is empty.
+	 *
+	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return (available.get() == 0);
+	}
+
+
+	/**
+	 * Determines if the list is full. Entries that are still being added count towards the capacity.
+	 *
+	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 */
+	@Override
+	public boolean isFull() {
+		return (reserved.get() >= capacity);
+	}
+
+
+	/**
+	 * Retrieves the capacity of the list, the largest number of entries it can hold.
+	 *
+	 * @return The capacity of the list
+	 */
+	@Override
+	public int getCapacity() {
+		return capacity;
+	}
+
+
+	/**
+	 * Creates an iterator over a copy of the entries in the list, taken when this method is called. Later changes
+	 * to the list are not seen by the iterator.
+	 *
+	 * @return An iterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return Arrays.asList(copyEntries()).iterator();
+	}
+
+
+	/**
+	 * Creates a spliterator over a copy of the entries in the list, taken when this method is called.
+	 *
+	 * @return A SIZED and ORDERED spliterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(copyEntries(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, to a new array, while holding both locks.
+	 *
+	 * @return An array containing all the entries in the list
+	 */
+	@Override
+	public Object[] toArray() {
+		return copyEntries();
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, to the given array if they fit, or else to a new array of the same
+	 * type, while holding both locks. If the given array is longer than the list, the element after the last entry
+	 * is set to null.
+	 *
+	 * @param array The array to copy the entries to, if it is long enough
+	 * @return The given array or, if it is too short, a new array holding the entries of the list
+	 */
+	@Override
+	public T[] toArray(T[] array) {
+		lockBothEnds();
+
+		try {
+			int size = available.get();
+			T[] result = (array.length >= size) ? array : Arrays.copyOf(array, size);
+			copyBlocks(result, 0, size);
+			if (result.length > size) {
+				result[size] = null;
+			}
+			return result;
+		} finally {
+			unlockBothEnds();
+		}
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, into an array, starting at the given index of the array, while
+	 * holding both locks.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 * @throws IndexOutOfBoundsException if the entries do not fit in the array from the given index
+	 */
+	@Override
+	public void copyInto(T[] dest, int from) {
+		lockBothEnds();
+
+		try {
+			int size = available.get();
+			Objects.checkFromIndexSize(from, size, dest.length);
+			copyBlocks(dest, from, size);
+		} finally {
+			unlockBothEnds();
+		}
+	}
+
+
+	/**
+	 * Retrieves the entries in the list, number of entries, and capacity of the list. If the list is not empty, the
+	 * entries at the front and back of the list are retrieved. The entries are copied while holding both locks, and
+	 * then appended to a single builder, sized for entries as long as the first one, after the locks are released.
+	 *
+	 * @return String representation of the list, with number of elements, capacity of the list, and entries at the
+	 * head and tail, if applicable
+	 */
+	public String toString() {
+		T[] entries = copyEntries();
+		int entryLength = (entries.length == 0) ? 0 : String.valueOf(entries[0]).length() + 2;
+		StringBuilder result = new StringBuilder((int) Math.min(64L + (long) entryLength * entries.length,
+				Integer.MAX_VALUE - 8));
+
+		result.append('[');
+		for (int index = 0; index < entries.length; index++) {
+			if (index > 0) {
+				result.append(", ");
+			}
+			result.append(entries[index]);
+		}
+		result.append("]\tsize=").append(entries.length).append("\tcapacity=").append(capacity);
+
+		if (entries.length > 0) {
+			result.append("\thead=").append(entries[0]).append(" tail=").append(entries[entries.length - 1]);
+		}
+
+		return result.toString();
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Adds an entry at one end of the list, applying the overflow policy if the list is full.
+	 *
+	 * @param newEntry The object to be added as a new entry
+	 * @param front True to add to the beginning of the list; false to add to the end
+	 * @return True if the entry was added; otherwise, false.
+	 */
+	private boolean add(T newEntry, boolean front) {
+		boolean result = tryAdd(newEntry, front);
+
+		if (!result && capacity > 0) {
+			OverflowPolicy policy = overflowPolicy;
+
+			if (policy == OverflowPolicy.EVICT_OPPOSITE_END) {
+				while (!result) {
+					T evictedEntry = front ? removeBack() : removeFront();
+					if (evictedEntry != null) {
+						evictionCount.increment();
+						Consumer<? super T> listener = evictionListener;
+						if (listener != null) {
+							listener.accept(evictedEntry);
+						}
+					} else {
+						Thread.onSpinWait();	// Full of entries still being added; they will be claimable soon
+					}
+					result = tryAdd(newEntry, front);
+				}
+			} else if (policy == OverflowPolicy.BLOCK) {
+				try {
+					result = awaitRoom(newEntry, front, false, 0);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Adds an entry at one end of the list if it is not full, whatever the overflow policy.
+	 *
+	 * @param newEntry The object to be added as a new entry
+	 * @param front True to add to the beginning of the list; false to add to the end
+	 * @return True if the entry was added; otherwise, false if the list is full.
+	 * @throws NullPointerException if the entry is null
+	 */
+	private boolean tryAdd(T newEntry, boolean front) {
+		Objects.requireNonNull(newEntry, "ConcurrentFrontBackCappedList does not accept null entries.");
+		boolean result = false;
+		ReentrantLock lock = front ? frontLock : backLock;
+		lock.lock();
+
+		try {
+			if (reserve()) {
+				if (front) {
+					frontIndex = decrement(frontIndex);
+					list[frontIndex] = newEntry;
+				} else {
+					list[backIndex] = newEntry;
+					backIndex = increment(backIndex);
+				}
+				available.incrementAndGet();	// Publishes the entry to removes at either end
+				result = true;
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		if (result) {
+			signalNotEmpty();
+		}
+		return result;
+	}
+
+
+	/**
+	 * Removes entries from one end of the list, one at a time, until the given number have been removed or the list
+	 * is empty, passing each one to an action.
+	 *
+	 * @param maxEntries The largest number of entries to remove
+	 * @param sink The action that receives each removed entry
+	 * @param front True to remove from the front; false to remove from the back
+	 * @return The number of entries removed
+	 */
+	private int drain(int maxEntries, Consumer<? super T> sink, boolean front) {
+		Objects.requireNonNull(sink);
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("Number of entries to drain cannot be negative.");
+		}
+		int removed = 0;
+		T entry;
+
+		while (removed < maxEntries && (entry = front ? removeFront() : removeBack()) != null) {
+			sink.accept(entry);
+			removed++;
+		}
+
+		return removed;
+	}
+
+
+	/**
+	 * Reserves room for one more entry, unless the entries in the list and those being added already reach the
+	 * capacity.
+	 *
+	 * @return True if room was reserved; otherwise, false if the list is full.
+	 */
+	private boolean reserve() {
+		int current;
+
+		do {
+			current = reserved.get();
+			if (current >= capacity) {
+				return false;
+			}
+		} while (!reserved.compareAndSet(current, current + 1));
+
+		return true;
+	}
+
+
+	/**
+	 * Claims one completely added entry for removal, unless there is none.
+	 *
+	 * @return True if an entry was claimed; otherwise, false if the list is empty.
+	 */
+	private boolean claim() {
+		int current;
+
+		do {
+			current = available.get();
+			if (current == 0) {
+				return false;
+			}
+		} while (!available.compareAndSet(current, current - 1));
+
+		return true;
+	}
+
+
+	/**
+	 * Adds an entry at one end of the list, parking the thread until there is room.
+	 *
+	 * @param newEntry The object to be added as a new entry
+	 * @param front True to add to the beginning of the list; false to add to the end
+	 * @param timed True to give up after nanos nanoseconds; false to wait as long as it takes
+	 * @param nanos How long to wait, if timed
+	 * @return True if the entry was added; otherwise, false if the wait timed out
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	private boolean awaitRoom(T newEntry, boolean front, boolean timed, long nanos) throws InterruptedException {
+		if (tryAdd(newEntry, front)) {
+			return true;
+		}
+
+		waitLock.lockInterruptibly();
+		fullWaiters++;						// Counted before retrying, so a remove after the retry signals
+
+		try {
+			while (!tryAdd(newEntry, front)) {
+				if (!timed) {
+					notFull.await();
+				} else if (nanos > 0) {
+					nanos = notFull.awaitNanos(nanos);
+				} else {
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			fullWaiters--;
+			waitLock.unlock();
+		}
+	}
+
+
+	/**
+	 * Removes an entry from one end of the list, parking the thread until there is one.
+	 *
+	 * @param front True to remove from the beginning of the list; false to remove from the end
+	 * @param timed True to give up after nanos nanoseconds; false to wait as long as it takes
+	 * @param nanos How long to wait, if timed
+	 * @return The removed entry, or null if the wait timed out
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	private T awaitEntry(boolean front, boolean timed, long nanos) throws InterruptedException {
+		T result = front ? removeFront() : removeBack();
+		if (result != null) {
+			return result;
+		}
+
+		waitLock.lockInterruptibly();
+		emptyWaiters++;						// Counted before retrying, so an add after the retry signals
+
+		try {
+			while ((result = front ? removeFront() : removeBack()) == null) {
+				if (!timed) {
+					notEmpty.await();
+				} else if (nanos > 0) {
+					nanos = notEmpty.awaitNanos(nanos);
+				} else {
+					return null;
+				}
+			}
+			return result;
+		} finally {
+			emptyWaiters--;
+			waitLock.unlock();
+		}
+	}
+
+
+	// Wakes a thread waiting for an entry, if there is one
+	private void signalNotEmpty() {
+		if (emptyWaiters > 0) {
+			waitLock.lock();
+			try {
+				notEmpty.signal();
+			} finally {
+				waitLock.unlock();
+			}
+		}
+	}
+
+
+	// Wakes a thread waiting for room, if there is one
+	private void signalNotFull() {
+		if (fullWaiters > 0) {
+			waitLock.lock();
+			try {
+				notFull.signal();
+			} finally {
+				waitLock.unlock();
+			}
+		}
+	}
+
+
+	// Wakes every thread waiting for room, after a change that may free more than one slot
+	private void signalAllNotFull() {
+		if (fullWaiters > 0) {
+			waitLock.lock();
+			try {
+				notFull.signalAll();
+			} finally {
+				waitLock.unlock();
+			}
+		}
+	}
+
+
+	// Locks the front, then the back; every method that needs both locks takes them in this order
+	private void lockBothEnds() {
+		frontLock.lock();
+		backLock.lock();
+	}
+
+
+	private void unlockBothEnds() {
+		backLock.unlock();
+		frontLock.unlock();
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, to a new array.
+	 *
+	 * @return An array containing all the entries in the list
+	 */
+	private T[] copyEntries() {
+		lockBothEnds();
+
+		try {
+			// The cast is safe because the array is only read as entries of the list
+			@SuppressWarnings("unchecked")
+			T[] result = (T[]) new Object[available.get()];
+			copyBlocks(result, 0, result.length);
+			return result;
+		} finally {
+			unlockBothEnds();
+		}
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, into an array with System.arraycopy.
+	 *
+	 * Precondition: Both locks are held; the entries fit in the array from the given index.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 * @param size The number of entries in the list
+	 */
+	private void copyBlocks(Object[] dest, int from, int size) {
+		int firstPart = Math.min(size, capacity - frontIndex);
+
+		System.arraycopy(list, frontIndex, dest, from, firstPart);
+		System.arraycopy(list, 0, dest, from + firstPart, size - firstPart);
+	}
+
+
+	// The entry stored at an index of the array
+	@SuppressWarnings("unchecked")
+	private T entryAt(int index) {
+		return (T) list[index];
+	}
+
+
+	/**
+	 * Translates a position in the list to an index in the circular array.
+	 *
+	 * Precondition: Both locks are held; 0 <= position < size().
+	 *
+	 * @param position The position in the list
+	 * @return The index in the array holding the entry at the given position
+	 */
+	private int physicalIndex(int position) {
+		int index = frontIndex + position;		// Cannot overflow: both operands are below capacity
+		return (index >= capacity) ? index - capacity : index;
+	}
+
+
+	// Advances an array index by one, wrapping around at the end of the array
+	private int increment(int index) {
+		return (index + 1 == capacity) ? 0 : index + 1;
+	}
+
+
+	// Moves an array index back by one, wrapping around at the beginning of the array
+	private int decrement(int index) {
+		return (index == 0) ? capacity - 1 : index - 1;
+	}
+} // end ConcurrentFrontBackCappedList
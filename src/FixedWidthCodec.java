@@ -0,0 +1,184 @@
+/**
+ * An interface for a codec that stores entries of a given type in a fixed number of bytes, so that a list can keep
+ * its entries in a single preallocated block of memory. Every entry is written to, and read from, the same number of
+ * bytes at a given offset in a buffer.
+ *
+ * Codecs for integers, longs and doubles, and for strings of a bounded length, are provided.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public interface FixedWidthCodec<T> {
+
+	/**
+	 * Stores integers in 4 bytes.
+	 */
+	public static final FixedWidthCodec<Integer> INTEGER = new FixedWidthCodec<>() {
+		@Override
+		public int width() {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int offset, Integer entry) {
+			buffer.putInt(offset, entry);
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset);
+		}
+
+		@Override
+		public boolean matches(ByteBuffer buffer, int offset, Integer entry) {
+			return (entry != null) && (buffer.getInt(offset) == entry);
+		}
+	};
+
+
+	/**
+	 * Stores longs in 8 bytes.
+	 */
+	public static final FixedWidthCodec<Long> LONG = new FixedWidthCodec<>() {
+		@Override
+		public int width() {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int offset, Long entry) {
+			buffer.putLong(offset, entry);
+		}
+
+		@Override
+		public Long read(ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+
+		@Override
+		public boolean matches(ByteBuffer buffer, int offset, Long entry) {
+			return (entry != null) && (buffer.getLong(offset) == entry);
+		}
+	};
+
+
+	/**
+	 * Stores doubles in 8 bytes. Entries match as Double.equals would match them, so NaN matches NaN and 0.0 does
+	 * not match -0.0.
+	 */
+	public static final FixedWidthCodec<Double> DOUBLE = new FixedWidthCodec<>() {
+		@Override
+		public int width() {
+			return Double.BYTES;
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int offset, Double entry) {
+			buffer.putDouble(offset, entry);
+		}
+
+		@Override
+		public Double read(ByteBuffer buffer, int offset) {
+			return buffer.getDouble(offset);
+		}
+
+		@Override
+		public boolean matches(ByteBuffer buffer, int offset, Double entry) {
+			return (entry != null)
+					&& (Double.doubleToLongBits(buffer.getDouble(offset)) == Double.doubleToLongBits(entry));
+		}
+	};
+
+
+	/**
+	 * Retrieves the number of bytes each entry is stored in.
+	 *
+	 * @return The width of an entry in bytes
+	 */
+	public int width();
+
+
+	/**
+	 * Stores an entry in the bytes starting at the given offset. The buffer's position and limit are unchanged.
+	 *
+	 * @param buffer The buffer to write to
+	 * @param offset The index in the buffer of the first byte to write
+	 * @param entry The entry to store
+	 * @throws IllegalArgumentException if the entry cannot be stored in the codec's width
+	 */
+	public void write(ByteBuffer buffer, int offset, T entry);
+
+
+	/**
+	 * Reads the entry stored in the bytes starting at the given offset. The buffer's position and limit are unchanged.
+	 *
+	 * @param buffer The buffer to read from
+	 * @param offset The index in the buffer of the first byte to read
+	 * @return The entry stored at the offset
+	 */
+	public T read(ByteBuffer buffer, int offset);
+
+
+	/**
+	 * Determines whether the entry stored at the given offset equals a given entry. Codecs may override this method
+	 * to compare the stored bytes without creating an object for the stored entry.
+	 *
+	 * @param buffer The buffer to read from
+	 * @param offset The index in the buffer of the first byte to read
+	 * @param entry The entry to compare with
+	 * @return True if the stored entry equals the given entry; otherwise, false
+	 */
+	public default boolean matches(ByteBuffer buffer, int offset, T entry) {
+		return read(buffer, offset).equals(entry);
+	}
+
+
+	/**
+	 * Creates a codec that stores strings in UTF-8, preceded by their length in bytes.
+	 *
+	 * @param maxBytes The largest number of bytes a stored string may take in UTF-8
+	 * @return A codec for strings of at most the given number of bytes
+	 */
+	public static FixedWidthCodec<String> string(int maxBytes) {
+		if (maxBytes < 0 || maxBytes > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Maximum length must be between 0 and " + Short.MAX_VALUE + ".");
+		}
+
+		return new FixedWidthCodec<>() {
+			@Override
+			public int width() {
+				return Short.BYTES + maxBytes;
+			}
+
+			@Override
+			public void write(ByteBuffer buffer, int offset, String entry) {
+				byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+				if (bytes.length > maxBytes) {
+					throw new IllegalArgumentException("String is longer than " + maxBytes + " bytes.");
+				}
+
+				buffer.putShort(offset, (short) bytes.length);
+				buffer.put(offset + Short.BYTES, bytes);
+			}
+
+			@Override
+			public String read(ByteBuffer buffer, int offset) {
+				byte[] bytes = new byte[buffer.getShort(offset)];
+				buffer.get(offset + Short.BYTES, bytes);
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			@Override
+			public boolean matches(ByteBuffer buffer, int offset, String entry) {
+				// Each char takes 1 to 3 bytes in UTF-8, so most mismatches are found without decoding
+				int length = buffer.getShort(offset);
+				return (entry != null) && (length >= entry.length()) && (length <= 3 * entry.length())
+						&& read(buffer, offset).equals(entry);
+			}
+		};
+	}
+} // end FixedWidthCodec
@@ -4,11 +4,20 @@
  * Entries can only be removed or added to the beginning (front) or end (back) of the list.
  * Entries can be accessed from any position. 
  * The size of the list is limited ("capped"). When the limit is reached, no more entries can be added.
+ * Entries can be traversed in order from the beginning to the end of the list.
  * 
  * @author Jessica Masters
  */
 
-public interface FrontBackCappedListInterface<T> {
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public interface FrontBackCappedListInterface<T> extends Iterable<T> {
 	
 	/**
 	 * Adds a new entry to the beginning of the list if the list is not full. 
@@ -116,5 +125,211 @@ public interface FrontBackCappedListInterface<T> {
 	 * @return True if the list is full, or false otherwise.
 	 */
 	public boolean isFull();
+
+
+	/**
+	 * Gets the capacity of this list.
+	 * 
+	 * @return The largest number of entries the list can hold.
+	 */
+	public int getCapacity();
+
+
+	/**
+	 * Adds the entries of an array to the end of the list, in order, until the list is full.
+	 * The result is the same as calling addBack for each entry until it returns false.
+	 * 
+	 * @param newEntries the objects to be added as new entries.
+	 * @return the number of entries added, which is less than the length of the array if the list became full
+	 */
+	public default int addAllBack(T[] newEntries) {
+		return addAllBack(Arrays.asList(newEntries));
+	}
+
+
+	/**
+	 * Adds the entries of a collection to the end of the list, in the collection's iteration order, until the list
+	 * is full. The result is the same as calling addBack for each entry until it returns false.
+	 * 
+	 * @param newEntries the objects to be added as new entries.
+	 * @return the number of entries added, which is less than the size of the collection if the list became full
+	 */
+	public default int addAllBack(Collection<? extends T> newEntries) {
+		int added = 0;
+		Iterator<? extends T> entries = newEntries.iterator();
+		while (entries.hasNext() && addBack(entries.next())) {
+			added++;
+		}
+		return added;
+	}
+
+
+	/**
+	 * Adds the entries of an array to the beginning of the list, in order, until the list is full.
+	 * The result is the same as calling addFront for each entry until it returns false, 
+	 * so the last entry added becomes the first entry of the list.
+	 * 
+	 * @param newEntries the objects to be added as new entries.
+	 * @return the number of entries added, which is less than the length of the array if the list became full
+	 */
+	public default int addAllFront(T[] newEntries) {
+		return addAllFront(Arrays.asList(newEntries));
+	}
+
+
+	/**
+	 * Adds the entries of a collection to the beginning of the list, in the collection's iteration order, until the
+	 * list is full. The result is the same as calling addFront for each entry until it returns false, 
+	 * so the last entry added becomes the first entry of the list.
+	 * 
+	 * @param newEntries the objects to be added as new entries.
+	 * @return the number of entries added, which is less than the size of the collection if the list became full
+	 */
+	public default int addAllFront(Collection<? extends T> newEntries) {
+		int added = 0;
+		Iterator<? extends T> entries = newEntries.iterator();
+		while (entries.hasNext() && addFront(entries.next())) {
+			added++;
+		}
+		return added;
+	}
+
+
+	/**
+	 * Removes up to a given number of entries from the beginning of the list and passes each one to an action,
+	 * in the order they were removed. The result is the same as calling removeFront that many times.
+	 * 
+	 * @param maxEntries the largest number of entries to remove; must not be negative.
+	 * @param sink the action that receives each removed entry.
+	 * @return the number of entries removed, which is less than maxEntries if the list became empty
+	 */
+	public default int drainFront(int maxEntries, Consumer<? super T> sink) {
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("Number of entries to drain cannot be negative.");
+		}
+		int removed = 0;
+		while (removed < maxEntries && !isEmpty()) {
+			sink.accept(removeFront());
+			removed++;
+		}
+		return removed;
+	}
+
+
+	/**
+	 * Removes up to a given number of entries from the end of the list and passes each one to an action,
+	 * in the order they were removed. The result is the same as calling removeBack that many times.
+	 * 
+	 * @param maxEntries the largest number of entries to remove; must not be negative.
+	 * @param sink the action that receives each removed entry.
+	 * @return the number of entries removed, which is less than maxEntries if the list became empty
+	 */
+	public default int drainBack(int maxEntries, Consumer<? super T> sink) {
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("Number of entries to drain cannot be negative.");
+		}
+		int removed = 0;
+		while (removed < maxEntries && !isEmpty()) {
+			sink.accept(removeBack());
+			removed++;
+		}
+		return removed;
+	}
+
+
+	/**
+	 * Copies the entries of the list, from the beginning to the end of the list, to a new array.
+	 * 
+	 * @return an array holding the entries of the list, whose length is the size of the list
+	 */
+	public default Object[] toArray() {
+		Object[] result = new Object[size()];
+		int index = 0;
+		for (T entry : this) {
+			result[index++] = entry;
+		}
+		return result;
+	}
+
+
+	/**
+	 * Copies the entries of the list, from the beginning to the end of the list, to the given array if they fit,
+	 * or else to a new array of the same type. If the given array is longer than the list, the element after
+	 * the last entry is set to null.
+	 * 
+	 * @param array the array to copy the entries to, if it is long enough.
+	 * @return the given array or, if it is too short, a new array holding the entries of the list
+	 */
+	public default T[] toArray(T[] array) {
+		int size = size();
+		T[] result = (array.length >= size) ? array : Arrays.copyOf(array, size);
+		copyInto(result, 0);
+		if (result.length > size) {
+			result[size] = null;
+		}
+		return result;
+	}
+
+
+	/**
+	 * Copies the entries of the list, from the beginning to the end of the list, into an array, starting at
+	 * the given index of the array. The rest of the array is unchanged.
+	 * 
+	 * @param dest the array to copy the entries to.
+	 * @param from the index in the array of the first entry.
+	 * @throws IndexOutOfBoundsException if the entries do not fit in the array from the given index
+	 */
+	public default void copyInto(T[] dest, int from) {
+		Objects.checkFromIndexSize(from, size(), dest.length);
+		int index = from;
+		for (T entry : this) {
+			dest[index++] = entry;
+		}
+	}
+
+
+	/**
+	 * Performs an action on each entry, from the beginning to the end of the list.
+	 * 
+	 * @param action the action to perform on each entry.
+	 */
+	@Override
+	public default void forEach(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		for (T entry : this) {
+			action.accept(entry);
+		}
+	}
+
+
+	/**
+	 * Creates an iterator that traverses the entries from the beginning to the end of the list.
+	 * The iterator fails fast: if the list is added to, removed from, or cleared after the iterator was created,
+	 * the iterator throws a ConcurrentModificationException.
+	 * 
+	 * @return An iterator over the entries in the list.
+	 */
+	@Override
+	public Iterator<T> iterator();
+
+
+	/**
+	 * Creates a sequential stream of the entries in the list, from the beginning to the end of the list.
+	 * 
+	 * @return A stream over the entries in the list.
+	 */
+	public default Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+
+	/**
+	 * Creates a possibly parallel stream of the entries in the list, from the beginning to the end of the list.
+	 * 
+	 * @return A possibly parallel stream over the entries in the list.
+	 */
+	public default Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
 	
 } 
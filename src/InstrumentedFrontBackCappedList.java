@@ -0,0 +1,858 @@
+/**
+ * A class that decorates a list with front or back entry or removal and capped to a given capacity, counting its
+ * operations so a program can see how the list is used: how many of each operation were called, how many adds a
+ * full list rejected, how many removes found the list empty, and the largest size the list reached.
+ *
+ * The first thread to use the decorator owns it, and counts in plain fields that only it writes, so counting takes
+ * no atomic instruction and adds a few nanoseconds to each operation. Any other thread counts in LongAdders, which
+ * threads can update at once without contending, so the decorator is as thread-safe as the list it decorates. The
+ * high-water mark is kept in an AtomicInteger, which is only written when the list grows past it. With latency
+ * histograms on, the searches and getEntry are also timed, and their times are recorded in histograms whose
+ * buckets are at most 12.5% wide, so percentiles can be read from them. Timing takes two reads of the clock, so
+ * histograms are off by default.
+ *
+ * snapshot() copies the counters and histograms into an immutable Metrics object, which can be read or exported as
+ * JSON while the list goes on changing. Bulk adds and drains are passed to the decorated list's own bulk methods,
+ * and counted as the single adds and removes they stand for: each entry added, plus the rejected add that stops a
+ * bulk add short, and each entry drained.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public class InstrumentedFrontBackCappedList<T> implements FrontBackCappedListInterface<T> {
+
+	/**
+	 * The operations that are counted. The searches and getEntry can also be timed.
+	 */
+	public enum Operation {
+		ADD_FRONT, ADD_BACK, REMOVE_FRONT, REMOVE_BACK, CLEAR, GET_ENTRY, INDEX_OF, LAST_INDEX_OF, CONTAINS;
+
+		// Determines whether the operation is timed when latency histograms are on
+		private boolean isTimed() {
+			return ordinal() >= GET_ENTRY.ordinal();
+		}
+	}
+
+	private static final Operation[] OPERATIONS = Operation.values();
+	private static final int REJECTED_ADDS = OPERATIONS.length;		// Counter indexes after the operations' own
+	private static final int EMPTY_REMOVES = OPERATIONS.length + 1;
+	private static final int COUNTERS = OPERATIONS.length + 2;
+
+	private final FrontBackCappedListInterface<T> list;
+	private final AtomicReference<Thread> owner = new AtomicReference<>();	// Counts in ownerCounts; null until set
+	private final AtomicLongArray ownerCounts = new AtomicLongArray(COUNTERS);	// Written only by the owner
+	private final AtomicLongArray ownerBaselines = new AtomicLongArray(COUNTERS);	// Owner's counts at the last reset
+	private final LongAdder[] sharedCounts = new LongAdder[COUNTERS];	// Counts of every other thread
+	private final AtomicInteger highWaterMark = new AtomicInteger();
+	private volatile LatencyHistogram[] histograms;	// Indexed by operation; null if latencies are not recorded
+	private boolean initialized = false;
+
+
+	/**
+	 * Creates a decorator that counts the operations on a list.
+	 *
+	 * @param list The list to decorate, which should not be changed except through the decorator
+	 */
+	public InstrumentedFrontBackCappedList(FrontBackCappedListInterface<T> list) {
+		this.list = Objects.requireNonNull(list);
+		for (int counter = 0; counter < COUNTERS; counter++) {
+			sharedCounts[counter] = new LongAdder();
+		}
+		highWaterMark.set(list.size());
+		initialized = true;
+	}
+
+
+	/**
+	 * Adds an entry to the beginning of the decorated list if it is not full, counting the add and, if the list is
+	 * full, the rejection.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	@Override
+	public boolean addFront(T newEntry) {
+		checkInitialization();
+		count(Operation.ADD_FRONT.ordinal(), 1);
+		return added(list.addFront(newEntry));
+	}
+
+
+	/**
+	 * Adds an entry to the end of the decorated list if it is not full, counting the add and, if the list is full,
+	 * the rejection.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	@Override
+	public boolean addBack(T newEntry) {
+		checkInitialization();
+		count(Operation.ADD_BACK.ordinal(), 1);
+		return added(list.addBack(newEntry));
+	}
+
+
+	/**
+	 * Removes an entry from the beginning of the decorated list if the list is not empty, counting the remove and,
+	 * if the list is empty, the miss.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeFront() {
+		checkInitialization();
+		count(Operation.REMOVE_FRONT.ordinal(), 1);
+		return removed(list.removeFront());
+	}
+
+
+	/**
+	 * Removes an entry from the end of the decorated list if the list is not empty, counting the remove and, if the
+	 * list is empty, the miss.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeBack() {
+		checkInitialization();
+		count(Operation.REMOVE_BACK.ordinal(), 1);
+		return removed(list.removeBack());
+	}
+
+
+	/**
+	 * Adds the entries of an array to the end of the decorated list until it is full, counting an add for each entry
+	 * added and, if the list became full, one rejected add.
+	 *
+	 * @param newEntries The objects to be added as new entries
+	 * @return The number of entries added, which is less than the length of the array if the list became full
+	 */
+	@Override
+	public int addAllBack(T[] newEntries) {
+		checkInitialization();
+		return addedAll(Operation.ADD_BACK, list.addAllBack(newEntries), newEntries.length);
+	}
+
+
+	/**
+	 * Adds the entries of a collection to the end of the decorated list until it is full, counting an add for each
+	 * entry added and, if the list became full, one rejected add.
+	 *
+	 * @param newEntries The objects to be added as new entries
+	 * @return The number of entries added, which is less than the size of the collection if the list became full
+	 */
+	@Override
+	public int addAllBack(Collection<? extends T> newEntries) {
+		checkInitialization();
+		return addedAll(Operation.ADD_BACK, list.addAllBack(newEntries), newEntries.size());
+	}
+
+
+	/**
+	 * Adds the entries of an array to the beginning of the decorated list until it is full, counting an add for
+	 * each entry added and, if the list became full, one rejected add.
+	 *
+	 * @param newEntries The objects to be added as new entries
+	 * @return The number of entries added, which is less than the length of the array if the list became full
+	 */
+	@Override
+	public int addAllFront(T[] newEntries) {
+		checkInitialization();
+		return addedAll(Operation.ADD_FRONT, list.addAllFront(newEntries), newEntries.length);
+	}
+
+
+	/**
+	 * Adds the entries of a collection to the beginning of the decorated list until it is full, counting an add for
+	 * each entry added and, if the list became full, one rejected add.
+	 *
+	 * @param newEntries The objects to be added as new entries
+	 * @return The number of entries added, which is less than the size of the collection if the list became full
+	 */
+	@Override
+	public int addAllFront(Collection<? extends T> newEntries) {
+		checkInitialization();
+		return addedAll(Operation.ADD_FRONT, list.addAllFront(newEntries), newEntries.size());
+	}
+
+
+	/**
+	 * Removes up to a given number of entries from the beginning of the decorated list and passes each one to an
+	 * action, counting a remove for each entry removed.
+	 *
+	 * @param maxEntries The largest number of entries to remove
+	 * @param sink The action that receives each removed entry
+	 * @return The number of entries removed, which is less than maxEntries if the list became empty
+	 */
+	@Override
+	public int drainFront(int maxEntries, Consumer<? super T> sink) {
+		checkInitialization();
+		int removed = list.drainFront(maxEntries, sink);
+		count(Operation.REMOVE_FRONT.ordinal(), removed);
+		return removed;
+	}
+
+
+	/**
+	 * Removes up to a given number of entries from the end of the decorated list and passes each one to an action,
+	 * counting a remove for each entry removed.
+	 *
+	 * @param maxEntries The largest number of entries to remove
+	 * @param sink The action that receives each removed entry
+	 * @return The number of entries removed, which is less than maxEntries if the list became empty
+	 */
+	@Override
+	public int drainBack(int maxEntries, Consumer<? super T> sink) {
+		checkInitialization();
+		int removed = list.drainBack(maxEntries, sink);
+		count(Operation.REMOVE_BACK.ordinal(), removed);
+		return removed;
+	}
+
+
+	/**
+	 * Clears the decorated list to an empty list, counting the clear.
+	 */
+	@Override
+	public void clear() {
+		checkInitialization();
+		count(Operation.CLEAR.ordinal(), 1);
+		list.clear();
+	}
+
+
+	/**
+	 * Retrieves the entry at a certain position in the decorated list, counting and, if histograms are on, timing
+	 * the retrieval.
+	 *
+	 * @param givenPosition An integer that indicates the position of the desired entry
+	 * @return A reference to the indicated entry or null if the index is out of bounds
+	 */
+	@Override
+	public T getEntry(int givenPosition) {
+		checkInitialization();
+		count(Operation.GET_ENTRY.ordinal(), 1);
+		LatencyHistogram[] timed = histograms;
+		if (timed == null) {
+			return list.getEntry(givenPosition);
+		}
+
+		long start = System.nanoTime();
+		T result = list.getEntry(givenPosition);
+		timed[Operation.GET_ENTRY.ordinal()].record(System.nanoTime() - start);
+		return result;
+	}
+
+
+	/**
+	 * Determines the first position in the decorated list of a given entry, counting and, if histograms are on,
+	 * timing the search.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The first position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int indexOf(T anEntry) {
+		checkInitialization();
+		count(Operation.INDEX_OF.ordinal(), 1);
+		LatencyHistogram[] timed = histograms;
+		if (timed == null) {
+			return list.indexOf(anEntry);
+		}
+
+		long start = System.nanoTime();
+		int result = list.indexOf(anEntry);
+		timed[Operation.INDEX_OF.ordinal()].record(System.nanoTime() - start);
+		return result;
+	}
+
+
+	/**
+	 * Determines the last position in the decorated list of a given entry, counting and, if histograms are on,
+	 * timing the search.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The last position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int lastIndexOf(T anEntry) {
+		checkInitialization();
+		count(Operation.LAST_INDEX_OF.ordinal(), 1);
+		LatencyHistogram[] timed = histograms;
+		if (timed == null) {
+			return list.lastIndexOf(anEntry);
+		}
+
+		long start = System.nanoTime();
+		int result = list.lastIndexOf(anEntry);
+		timed[Operation.LAST_INDEX_OF.ordinal()].record(System.nanoTime() - start);
+		return result;
+	}
+
+
+	/**
+	 * Determines whether an entry is in the decorated list, counting and, if histograms are on, timing the search.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 */
+	@Override
+	public boolean contains(T anEntry) {
+		checkInitialization();
+		count(Operation.CONTAINS.ordinal(), 1);
+		LatencyHistogram[] timed = histograms;
+		if (timed == null) {
+			return list.contains(anEntry);
+		}
+
+		long start = System.nanoTime();
+		boolean result = list.contains(anEntry);
+		timed[Operation.CONTAINS.ordinal()].record(System.nanoTime() - start);
+		return result;
+	}
+
+
+	/**
+	 * Retrieves length of the list.
+	 *
+	 * @return Integer number of entries currently in the list.
+	 */
+	@Override
+	public int size() {
+		return list.size();
+	}
+
+
+	/**
+	 * Determines if the list is empty.
+	 *
+	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return list.isEmpty();
+	}
+
+
+	/**
+	 * Determines if the list is full.
+	 *
+	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 */
+	@Override
+	public boolean isFull() {
+		return list.isFull();
+	}
+
+
+	/**
+	 * Retrieves the capacity of the decorated list.
+	 *
+	 * @return The largest number of entries the decorated list can hold
+	 */
+	@Override
+	public int getCapacity() {
+		return list.getCapacity();
+	}
+
+
+	/**
+	 * Copies the entries in the decorated list, in order, to a new array.
+	 *
+	 * @return An array containing all the entries in the list
+	 */
+	@Override
+	public Object[] toArray() {
+		checkInitialization();
+		return list.toArray();
+	}
+
+
+	/**
+	 * Copies the entries in the decorated list, in order, into an array, starting at the given index of the array.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 * @throws IndexOutOfBoundsException if the entries do not fit in the array from the given index
+	 */
+	@Override
+	public void copyInto(T[] dest, int from) {
+		checkInitialization();
+		list.copyInto(dest, from);
+	}
+
+
+	/**
+	 * Performs an action on each entry of the decorated list, from the front to the back.
+	 *
+	 * @param action The action to perform on each entry
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		checkInitialization();
+		list.forEach(action);
+	}
+
+
+	/**
+	 * Creates an iterator over the entries of the decorated list, from front to back.
+	 *
+	 * @return An iterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		checkInitialization();
+		return list.iterator();
+	}
+
+
+	/**
+	 * Creates a spliterator over the entries of the decorated list.
+	 *
+	 * @return A spliterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		checkInitialization();
+		return list.spliterator();
+	}
+
+
+	/**
+	 * Turns the latency histograms on or off. Turning them on starts new, empty histograms; turning them off
+	 * discards them.
+	 *
+	 * @param recording True to time the searches and getEntry; false to only count them
+	 */
+	public void setLatencyHistograms(boolean recording) {
+		checkInitialization();
+
+		if (!recording) {
+			histograms = null;
+		} else if (histograms == null) {
+			LatencyHistogram[] newHistograms = new LatencyHistogram[OPERATIONS.length];
+			for (Operation operation : OPERATIONS) {
+				if (operation.isTimed()) {
+					newHistograms[operation.ordinal()] = new LatencyHistogram();
+				}
+			}
+			histograms = newHistograms;
+		}
+	}
+
+
+	/**
+	 * Determines whether the searches and getEntry are timed.
+	 *
+	 * @return True if the latency histograms are on; otherwise, false.
+	 */
+	public boolean isLatencyHistograms() {
+		return histograms != null;
+	}
+
+
+	/**
+	 * Copies the counters and histograms into an immutable snapshot. Operations that run while the snapshot is taken
+	 * may be partly included, so counters may disagree by the operations in progress.
+	 *
+	 * @return The metrics of the list as of now
+	 */
+	public Metrics snapshot() {
+		checkInitialization();
+		return new Metrics(this);
+	}
+
+
+	/**
+	 * Sets every counter and histogram back to zero, and the high-water mark to the current size of the list. May be
+	 * called on any thread; operations that run during the reset may or may not be counted after it. The owner's
+	 * counts are never written here, since only the owner writes them: the reset records them as a baseline that is
+	 * subtracted from them instead.
+	 */
+	public void reset() {
+		checkInitialization();
+		for (int counter = 0; counter < COUNTERS; counter++) {
+			ownerBaselines.set(counter, ownerCounts.getOpaque(counter));
+			sharedCounts[counter].reset();
+		}
+		highWaterMark.set(list.size());
+		if (histograms != null) {
+			histograms = null;
+			setLatencyHistograms(true);
+		}
+	}
+
+
+	/**
+	 * Retrieves the decorated list's string representation.
+	 *
+	 * @return String representation of the decorated list
+	 */
+	public String toString() {
+		checkInitialization();
+		return list.toString();
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Counts a rejected add, or raises the high-water mark if the list has grown past it.
+	 *
+	 * @param result The result of the add
+	 * @return The result of the add
+	 */
+	private boolean added(boolean result) {
+		if (!result) {
+			count(REJECTED_ADDS, 1);
+		} else {
+			int size = list.size();
+			if (size > highWaterMark.get()) {
+				raiseHighWaterMark(size);
+			}
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Raises the high-water mark to a size if it is lower. A reset that lowers the mark meanwhile makes the
+	 * compareAndSet fail, so the size is compared again with the lowered mark.
+	 *
+	 * @param size The size the list has reached
+	 */
+	private void raiseHighWaterMark(int size) {
+		int mark = highWaterMark.get();
+		while (size > mark && !highWaterMark.compareAndSet(mark, size)) {
+			mark = highWaterMark.get();
+		}
+	}
+
+
+	/**
+	 * Adds to a counter: to the owner's plain count if the current thread owns the decorator, and otherwise to the
+	 * shared LongAdder. The first thread to count becomes the owner.
+	 *
+	 * @param counter The index of the counter, an operation's ordinal or one of the counters after them
+	 * @param amount The amount to add
+	 */
+	private void count(int counter, long amount) {
+		Thread current = Thread.currentThread();
+		Thread counting = owner.get();
+		if (current == counting) {
+			ownerCounts.setOpaque(counter, ownerCounts.getOpaque(counter) + amount);	// No other thread writes it
+		} else if (counting == null && owner.compareAndSet(null, current)) {
+			count(counter, amount);
+		} else {
+			sharedCounts[counter].add(amount);
+		}
+	}
+
+
+	/**
+	 * Retrieves the total of a counter since the last reset, over the owner's count and the other threads'. The
+	 * baseline is read first, so the owner's count read after it is never below it.
+	 *
+	 * @param counter The index of the counter
+	 * @return The total count
+	 */
+	private long sum(int counter) {
+		long baseline = ownerBaselines.get(counter);
+		return ownerCounts.getOpaque(counter) - baseline + sharedCounts[counter].sum();
+	}
+
+
+	/**
+	 * Counts the adds a bulk add stands for: one for each entry added, and a rejected one if the list became full
+	 * before every entry was added.
+	 *
+	 * @param operation ADD_FRONT or ADD_BACK
+	 * @param added The number of entries added
+	 * @param offered The number of entries given to the bulk add
+	 * @return The number of entries added
+	 */
+	private int addedAll(Operation operation, int added, int offered) {
+		boolean rejected = added < offered;
+		count(operation.ordinal(), rejected ? added + 1 : added);
+		if (rejected) {
+			count(REJECTED_ADDS, 1);
+		}
+		added(true);							// Raises the high-water mark
+
+		return added;
+	}
+
+
+	/**
+	 * Counts a remove that found the list empty.
+	 *
+	 * @param result The entry removed, or null if the list was empty
+	 * @return The entry removed, or null if the list was empty
+	 */
+	private T removed(T result) {
+		if (result == null) {
+			count(EMPTY_REMOVES, 1);
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Checks if the decorator is properly initialized.
+	 *
+	 * @throws SecurityException if this object is not initialized
+	 */
+	private void checkInitialization() {
+		if (!initialized) {
+			throw new SecurityException("InstrumentedFrontBackCappedList object is not initialized properly.");
+		}
+	}
+
+
+	/*
+	****************
+	HISTOGRAM CLASS:
+	****************
+	 */
+
+	/**
+	 * A histogram of latencies in nanoseconds with logarithmic buckets, each split into 8 linear sub-buckets, so a
+	 * value read back is at most 12.5% above the value recorded. Values below 16 have a bucket each. Threads can
+	 * record values at once.
+	 */
+	public static class LatencyHistogram {
+		private static final int SUB_BUCKET_BITS = 3;
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+		private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;	// Values below this have a bucket each
+		private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+		/**
+		 * Records a latency.
+		 *
+		 * @param nanos The latency in nanoseconds; a negative latency is recorded as 0
+		 */
+		public void record(long nanos) {
+			counts.incrementAndGet(bucketOf(Math.max(0, nanos)));
+		}
+
+		/**
+		 * Retrieves the number of latencies recorded.
+		 *
+		 * @return The number of latencies recorded
+		 */
+		public long getTotalCount() {
+			long total = 0;
+			for (int bucket = 0; bucket < BUCKETS; bucket++) {
+				total += counts.get(bucket);
+			}
+			return total;
+		}
+
+		/**
+		 * Retrieves a latency that at least the given percentage of the recorded latencies do not exceed.
+		 *
+		 * @param percentile The percentage of latencies, from 0 to 100
+		 * @return The largest latency in the bucket holding the percentile, in nanoseconds, or 0 if no latency
+		 * was recorded
+		 */
+		public long getValueAtPercentile(double percentile) {
+			return valueAtPercentile(copyCounts(), percentile);
+		}
+
+		// Copies the bucket counts, so percentiles of one copy agree with each other
+		private long[] copyCounts() {
+			long[] result = new long[BUCKETS];
+			for (int bucket = 0; bucket < BUCKETS; bucket++) {
+				result[bucket] = counts.get(bucket);
+			}
+			return result;
+		}
+
+		// The largest value in the bucket holding the percentile of the given bucket counts
+		private static long valueAtPercentile(long[] bucketCounts, double percentile) {
+			long total = 0;
+			for (long count : bucketCounts) {
+				total += count;
+			}
+			long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+			long result = 0;
+			long seen = 0;
+
+			for (int bucket = 0; bucket < BUCKETS && total > 0; bucket++) {
+				seen += bucketCounts[bucket];
+				if (seen >= rank) {
+					result = largestValueOf(bucket);
+					break;
+				}
+			}
+
+			return result;
+		}
+
+		// The bucket holding a value: values below 16 map to themselves; larger values keep their top 4 bits
+		private static int bucketOf(long value) {
+			if (value < LINEAR_LIMIT) {
+				return (int) value;
+			}
+			int exponent = 63 - Long.numberOfLeadingZeros(value);
+			int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+			return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+		}
+
+		// The largest value that maps to a bucket
+		private static long largestValueOf(int bucket) {
+			if (bucket < LINEAR_LIMIT) {
+				return bucket;
+			}
+			int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+			long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+			long width = 1L << (exponent - SUB_BUCKET_BITS);
+			return (1L << exponent) + (subBucket + 1) * width - 1;
+		}
+	} // end LatencyHistogram
+
+
+	/*
+	****************
+	METRICS CLASS:
+	****************
+	 */
+
+	/**
+	 * An immutable copy of the counters and histograms of an instrumented list.
+	 */
+	public static class Metrics {
+		private static final double[] EXPORTED_PERCENTILES = {50, 90, 99, 99.9, 100};
+		private static final String[] EXPORTED_NAMES = {"p50", "p90", "p99", "p99.9", "max"};
+
+		private final long[] counts = new long[OPERATIONS.length];
+		private final long rejectedAdds;
+		private final long emptyRemoves;
+		private final int highWaterMark;
+		private final long[][] histogramCounts = new long[OPERATIONS.length][];	// Null for operations not timed
+
+		private Metrics(InstrumentedFrontBackCappedList<?> list) {
+			for (Operation operation : OPERATIONS) {
+				counts[operation.ordinal()] = list.sum(operation.ordinal());
+			}
+			rejectedAdds = list.sum(REJECTED_ADDS);
+			emptyRemoves = list.sum(EMPTY_REMOVES);
+			highWaterMark = list.highWaterMark.get();
+
+			LatencyHistogram[] histograms = list.histograms;
+			for (int index = 0; histograms != null && index < OPERATIONS.length; index++) {
+				if (histograms[index] != null) {
+					histogramCounts[index] = histograms[index].copyCounts();
+				}
+			}
+		}
+
+		/**
+		 * Retrieves the number of times an operation was called.
+		 *
+		 * @param operation The operation
+		 * @return The number of calls
+		 */
+		public long getCount(Operation operation) {
+			return counts[operation.ordinal()];
+		}
+
+		/**
+		 * Retrieves the number of adds rejected because the list was full.
+		 *
+		 * @return The number of rejected adds
+		 */
+		public long getRejectedAdds() {
+			return rejectedAdds;
+		}
+
+		/**
+		 * Retrieves the number of removes that found the list empty.
+		 *
+		 * @return The number of removes from an empty list
+		 */
+		public long getEmptyRemoves() {
+			return emptyRemoves;
+		}
+
+		/**
+		 * Retrieves the largest size the list reached.
+		 *
+		 * @return The high-water mark of the list's size
+		 */
+		public int getHighWaterMark() {
+			return highWaterMark;
+		}
+
+		/**
+		 * Retrieves a latency of an operation that at least the given percentage of its timed calls did not exceed.
+		 *
+		 * @param operation The operation
+		 * @param percentile The percentage of calls, from 0 to 100
+		 * @return The latency in nanoseconds, or -1 if the operation was not timed
+		 */
+		public long getLatencyAtPercentile(Operation operation, double percentile) {
+			long[] bucketCounts = histogramCounts[operation.ordinal()];
+			return (bucketCounts == null) ? -1 : LatencyHistogram.valueAtPercentile(bucketCounts, percentile);
+		}
+
+		/**
+		 * Exports the metrics as a JSON object, with the latency percentiles of each timed operation in nanoseconds.
+		 *
+		 * @return The metrics as JSON
+		 */
+		public String toJson() {
+			StringBuilder result = new StringBuilder("{\"counts\": {");
+
+			for (Operation operation : OPERATIONS) {
+				result.append(operation.ordinal() == 0 ? "" : ", ")
+						.append('"').append(operation).append("\": ").append(getCount(operation));
+			}
+			result.append("}, \"rejectedAdds\": ").append(rejectedAdds)
+					.append(", \"emptyRemoves\": ").append(emptyRemoves)
+					.append(", \"highWaterMark\": ").append(highWaterMark)
+					.append(", \"latencyNanos\": {");
+
+			String separator = "";
+			for (Operation operation : OPERATIONS) {
+				if (histogramCounts[operation.ordinal()] != null) {
+					result.append(separator).append('"').append(operation).append("\": {");
+					for (int index = 0; index < EXPORTED_PERCENTILES.length; index++) {
+						result.append(index == 0 ? "" : ", ").append('"').append(EXPORTED_NAMES[index])
+								.append("\": ").append(getLatencyAtPercentile(operation, EXPORTED_PERCENTILES[index]));
+					}
+					result.append('}');
+					separator = ", ";
+				}
+			}
+
+			return result.append("}}").toString();
+		}
+
+		/**
+		 * Retrieves the metrics as a JSON object.
+		 *
+		 * @return The metrics as JSON
+		 */
+		public String toString() {
+			return toJson();
+		}
+	} // end Metrics
+} // end InstrumentedFrontBackCappedList
@@ -0,0 +1,315 @@
+/**
+ * A class that implements the ADT list with front or back entry or removal and capped to a given capacity, for
+ * int entries, using a preallocated circular array of ints.
+ *
+ * The methods mirror those of FrontBackCappedListInterface with int in place of the entry type. Entries are never
+ * boxed, and the array is allocated once at construction. Where the interface returns null for a missing entry,
+ * this list returns a sentinel value chosen at construction, Integer.MIN_VALUE by default. Callers that store the
+ * sentinel value itself should check isEmpty() or the position before relying on the result.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+public class IntFrontBackCappedList {
+
+	private final int[] list;				// Circular array of list entries
+	private int frontIndex;					// Index of the first entry
+	private int numberOfEntries;
+	private final int capacity;
+	private final int noEntryValue;			// Returned when there is no entry to return
+
+
+	/**
+	 * Creates and initializes an empty list that returns Integer.MIN_VALUE when there is no entry to return.
+	 *
+	 * Precondition: Capacity is not negative.
+	 *
+	 * @param capacity Maximum size of list
+	 */
+	public IntFrontBackCappedList(int capacity) {
+		this(capacity, Integer.MIN_VALUE);
+	}
+
+
+	/**
+	 * Creates and initializes an empty list.
+	 *
+	 * Precondition: Capacity is not negative.
+	 *
+	 * @param capacity Maximum size of list
+	 * @param noEntryValue The value returned when there is no entry to return
+	 */
+	public IntFrontBackCappedList(int capacity, int noEntryValue) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative.");
+		}
+
+		list = new int[capacity];
+		this.capacity = capacity;
+		this.noEntryValue = noEntryValue;
+	}
+
+
+	/**
+	 * Adds an entry to the beginning of the list if it is not full.
+	 *
+	 * @param newEntry The value to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	public boolean addFront(int newEntry) {
+		boolean result = true;
+
+		if (isFull()) {
+			result = false;
+		} else {
+			frontIndex = (frontIndex == 0) ? capacity - 1 : frontIndex - 1;
+			list[frontIndex] = newEntry;
+			numberOfEntries++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Adds an entry to the end of the list if it is not full.
+	 *
+	 * @param newEntry The value to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	public boolean addBack(int newEntry) {
+		boolean result = true;
+
+		if (isFull()) {
+			result = false;
+		} else {
+			list[physicalIndex(numberOfEntries)] = newEntry;
+			numberOfEntries++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the beginning of the list if the list is not empty.
+	 *
+	 * @return The removed entry or the no-entry value if the list is empty
+	 */
+	public int removeFront() {
+		int result = noEntryValue;
+
+		if (!(isEmpty())) {
+			result = list[frontIndex];
+			frontIndex = (frontIndex + 1 == capacity) ? 0 : frontIndex + 1;
+			numberOfEntries--;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the end of the list if the list is not empty.
+	 *
+	 * @return The removed entry or the no-entry value if the list is empty
+	 */
+	public int removeBack() {
+		int result = noEntryValue;
+
+		if (!(isEmpty())) {
+			result = list[physicalIndex(numberOfEntries - 1)];
+			numberOfEntries--;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Clears the list to an empty list. Since ints hold no references, the array is not cleared.
+	 */
+	public void clear() {
+		frontIndex = 0;
+		numberOfEntries = 0;
+	}
+
+
+	/**
+	 * Retrieves the entry at a certain position in the list, after determining if the position is valid.
+	 *
+	 * @param givenPosition An integer that indicates the position of the desired entry
+	 * @return The indicated entry or the no-entry value if the index is out of bounds
+	 */
+	public int getEntry(int givenPosition) {
+		int result = noEntryValue;
+
+		if (givenPosition >= 0 && givenPosition < numberOfEntries) {
+			result = list[physicalIndex(givenPosition)];
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the first index
+	 * is returned.
+	 *
+	 * @param anEntry The value to search for in the list
+	 * @return The first position that the entry was found or -1 if the entry is not found
+	 */
+	public int indexOf(int anEntry) {
+		int position = -1;
+
+		for (int index = 0; (index < numberOfEntries) && (position < 0); index++) {
+			if (list[physicalIndex(index)] == anEntry) {
+				position = index;
+			}
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the last index
+	 * is returned.
+	 *
+	 * @param anEntry The value to search for in the list
+	 * @return The last position that the entry was found or -1 if the entry is not found
+	 */
+	public int lastIndexOf(int anEntry) {
+		int position = -1;
+
+		for (int index = numberOfEntries - 1; (index >= 0) && (position < 0); index--) {
+			if (list[physicalIndex(index)] == anEntry) {
+				position = index;
+			}
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines whether an entry is in the list.
+	 *
+	 * @param anEntry The value to search for in the list
+	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 */
+	public boolean contains(int anEntry) {
+		return (indexOf(anEntry) >= 0);
+	}
+
+
+	/**
+	 * Retrieves length of the list.
+	 *
+	 * @return Integer number of entries currently in the list.
+	 */
+	public int size() {
+		return numberOfEntries;
+	}
+
+
+	/**
+	 * Determines if the list is empty.
+	 *
+	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 */
+	public boolean isEmpty() {
+		return (numberOfEntries == 0);
+	}
+
+
+	/**
+	 * Determines if the list is full.
+	 *
+	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 */
+	public boolean isFull() {
+		return (numberOfEntries >= capacity);
+	}
+
+
+	/**
+	 * Retrieves the value returned by removes and getEntry when there is no entry to return.
+	 *
+	 * @return The no-entry value of this list
+	 */
+	public int getNoEntryValue() {
+		return noEntryValue;
+	}
+
+
+	/**
+	 * Performs an action on each entry, from the front to the back of the list, without boxing.
+	 *
+	 * @param action The action to perform on each entry
+	 */
+	public void forEach(IntConsumer action) {
+		Objects.requireNonNull(action);
+
+		for (int index = 0; index < numberOfEntries; index++) {
+			action.accept(list[physicalIndex(index)]);
+		}
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, to a new array.
+	 *
+	 * @return An array containing all the entries in the list
+	 */
+	public int[] toArray() {
+		int[] result = new int[numberOfEntries];
+		int firstPart = Math.min(numberOfEntries, capacity - frontIndex);
+
+		System.arraycopy(list, frontIndex, result, 0, firstPart);
+		System.arraycopy(list, 0, result, firstPart, numberOfEntries - firstPart);
+
+		return result;
+	}
+
+
+	/**
+	 * Retrieves the entries in the list, number of entries, and capacity of the list. If the list is not empty, the
+	 * entries at the front and back of the list are retrieved.
+	 *
+	 * @return String representation of the list, with number of elements, capacity of the list, and entries at the
+	 * head and tail, if applicable
+	 */
+	public String toString() {
+		if (isEmpty()) {
+			return Arrays.toString(toArray()) + "\tsize=" + numberOfEntries + "\tcapacity=" + capacity;
+		} else {
+			return Arrays.toString(toArray()) + "\tsize=" + numberOfEntries + "\tcapacity=" + capacity +
+					"\thead=" + list[frontIndex] + " tail=" + list[physicalIndex(numberOfEntries - 1)];
+		}
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Translates a position in the list to an index in the circular array.
+	 *
+	 * Precondition: 0 <= position <= numberOfEntries < capacity or 0 <= position < numberOfEntries.
+	 *
+	 * @param position The position in the list
+	 * @return The index in the array holding the entry at the given position
+	 */
+	private int physicalIndex(int position) {
+		int index = frontIndex + position;		// Cannot overflow: both operands are below capacity
+		return (index >= capacity) ? index - capacity : index;
+	}
+} // end IntFrontBackCappedList
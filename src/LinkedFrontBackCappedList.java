@@ -1,12 +1,30 @@
 /**
  * A class that implements the ADT list with front or back entry or removal and capped to a given capacity,
- * using linked nodes.
+ * using doubly linked nodes.
+ *
+ * A snapshot of the list is an immutable view of its entries at the moment it was taken. It shares the list's
+ * nodes instead of copying them, so it takes constant time however long the list is. The list can add to either
+ * end and remove from the front without changing any node a snapshot can see; removing from the back of a list
+ * that shares its nodes copies them first.
+ *
+ * Lists are equal if they hold equal entries in the same order, whatever their capacities. The list can keep a
+ * fingerprint of its entries, a polynomial hash updated in constant time by every add and remove, so hashCode
+ * takes constant time and equals rejects most unequal lists without walking them.
+ *
+ * The list can also keep a position index: an array of every node whose key is a multiple of 64, which every add
+ * and remove at an end updates in constant time. getEntry then looks up the nearest of these checkpoints and walks
+ * at most 32 nodes from it, however long the list is.
+ *
+ * getEntry also keeps a cursor: the last node it reached and that node's key. Keys do not change while a node is in
+ * the list, so adds and removes at either end leave the cursor valid unless they remove its node. A call for a
+ * position near the last one walks from the cursor, so a loop over every position takes linear time in all.
  *
  * @author Trang Hoang (sect. 933)
- * @version 2.0
+ * @version 2.1
  */
 
 import java.util.*;
+import java.util.function.Consumer;
 
 public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implements FrontBackCappedListInterface<T>,
 		Comparable<LinkedFrontBackCappedList<T>> {
@@ -15,6 +33,41 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 	private int numberOfEntries;
 	private final int capacity;
 	private boolean initialized = false;
+	private int modCount = 0;			// Number of structural modifications, checked by iterators
+	private boolean recycleNodes = false;
+	private Node freeNodes;				// Removed nodes kept for reuse, linked through their next links
+
+	// Every entry has a key that stays fixed while it is in the list: entries added to the front get keys below
+	// the head's, entries added to the back get keys above the tail's. An entry's position is its key minus the
+	// head's key, so adding to the front shifts every position without renumbering any key.
+	private long headKey;
+	private Map<T, ArrayDeque<Long>> entryKeys;	// Keys of each entry's occurrences, in ascending order; null if not indexed
+
+	// The checkpoints are the nodes whose keys are multiples of CHECKPOINT_SPACING, in order, in a circular array.
+	// Since keys are consecutive, the checkpoint nearest any key is found by arithmetic alone.
+	private static final int CHECKPOINT_SPACING = 64;
+	private Object[] checkpoints;		// Nodes, since Node is generic; null if there is no position index
+	private int firstCheckpoint;		// Index in the array of the checkpoint nearest the head
+	private int numberOfCheckpoints;
+
+	private Node cursor;				// The node getEntry reached last; null if none or if it was removed
+	private long cursorKey;				// The key of the cursor node
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+	private long evictionCount;
+	private Consumer<? super T> evictionListener;	// Receives each evicted entry; null if none
+
+	// The fingerprint is the sum of mix(entry i's hash) * FINGERPRINT_BASE^(n - 1 - i) over the n entries, modulo
+	// 2^64. Adding or removing at either end changes one term and scales the rest by the base or its inverse.
+	private static final long FINGERPRINT_BASE = 0x9E3779B97F4A7C15L;		// Odd, so it has an inverse modulo 2^64
+	private static final long FINGERPRINT_BASE_INVERSE = inverse(FINGERPRINT_BASE);
+	private boolean fingerprinted = false;
+	private long fingerprint;
+	private long fingerprintPower = 1;	// FINGERPRINT_BASE^numberOfEntries, the weight the next front entry gets
+
+	private boolean shared = false;		// True if a snapshot may hold nodes of the list, which must then not change
+	private boolean copyOnWriteReads = false;
+	private volatile Snapshot published;	// The snapshot readers on other threads see; null if not publishing
 
 
 	/**
@@ -46,19 +99,37 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 	@Override
 	public boolean addFront(T newEntry) {
 		checkInitialization();
-		Node newNode = new Node(newEntry);
 		boolean result = true;
+		boolean evicting = isFull() && canEvict();
+		T evictedEntry = evicting ? removeBack() : null;	// Constant time, and recycles the node if recycling
 
 		if (isFull()) {
 			result = false;
-		} else if (isEmpty()) {				// Assertion: result is true
-			head = newNode;
-			tail = head;					// First node to an empty list becomes the tail
-			numberOfEntries++;
-		} else {
-			newNode.setNextNode(head);
-			head = newNode;					// New node becomes the head
+		} else {							// Assertion: result is true
+			Node newNode = obtainNode(newEntry);	// No node is needed when the list is full
+
+			if (isEmpty()) {
+				head = newNode;
+				tail = head;				// First node to an empty list becomes the tail
+			} else {
+				newNode.setNextNode(head);
+				head.setPreviousNode(newNode);
+				head = newNode;				// New node becomes the head
+				headKey--;
+			}
 			numberOfEntries++;
+			modCount++;
+
+			if (entryKeys != null) {
+				entryKeys.computeIfAbsent(newEntry, entry -> new ArrayDeque<>()).addFirst(headKey);
+			}
+			addCheckpoint(newNode, headKey, true);
+			addToFingerprint(newEntry, true);
+			publish();
+		}
+
+		if (evicting) {
+			evicted(evictedEntry);
 		}
 		return result;
 	}
@@ -75,21 +146,37 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 	@Override
 	public boolean addBack(T newEntry) {
 		checkInitialization();
-		Node newNode = new Node(newEntry);
 		boolean result = true;
+		boolean evicting = isFull() && canEvict();
+		T evictedEntry = evicting ? removeFront() : null;	// Constant time, and recycles the node if recycling
 
 		if (isFull()) {
 			result = false;
-		} else if (isEmpty()) {				// Assertion: result is true
-			tail = newNode;
-			head = tail;					// First node to an empty list becomes the head
-			numberOfEntries++;
-		} else {
-			tail.setNextNode(newNode);
-			tail = newNode;					// New node becomes the tail
+		} else {							// Assertion: result is true
+			Node newNode = obtainNode(newEntry);	// No node is needed when the list is full
+
+			if (isEmpty()) {
+				tail = newNode;
+				head = tail;				// First node to an empty list becomes the head
+			} else {
+				newNode.setPreviousNode(tail);
+				tail.setNextNode(newNode);
+				tail = newNode;				// New node becomes the tail
+			}
 			numberOfEntries++;
+			modCount++;
+
+			if (entryKeys != null) {
+				entryKeys.computeIfAbsent(newEntry, entry -> new ArrayDeque<>()).addLast(headKey + numberOfEntries - 1);
+			}
+			addCheckpoint(newNode, headKey + numberOfEntries - 1, false);
+			addToFingerprint(newEntry, false);
+			publish();
 		}
 
+		if (evicting) {
+			evicted(evictedEntry);
+		}
 		return result;
 	}
 
@@ -106,13 +193,25 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 		T result = null;
 
 		if (!(isEmpty())) {
-			result = head.getData();
-			head = head.getNextNode();
-			numberOfEntries--;
-		}
+			Node removedNode = head;
+			result = removedNode.getData();
+			modCount++;
 
-		if (numberOfEntries == 1) {
-			tail = head;
+			if (numberOfEntries == 1) {
+				initializeDataFields();			// or clear()
+			} else {
+				head = head.getNextNode();
+				head.setPreviousNode(null);
+				headKey++;
+				numberOfEntries--;
+				forgetRemovedCursor();
+			}
+			removeCheckpoint(removedNode, true);
+			releaseNode(removedNode);
+			endSharingIfEmpty();
+			unindex(result, true);
+			removeFromFingerprint(result, true);
+			publish();
 		}
 
 		return result;
@@ -131,19 +230,27 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 		T result = null;
 
 		if (!(isEmpty())) {
-			result = tail.getData();
+			if (shared && numberOfEntries > 1) {
+				unshare();						// The new tail's next link is about to be cut
+			}
+			Node removedNode = tail;
+			result = removedNode.getData();
+			modCount++;
 
 			if (numberOfEntries == 1) {
 				initializeDataFields();			// or clear()
 			} else {
-				tail = getNodeAt(numberOfEntries - 2);
+				tail = tail.getPreviousNode();	// Constant time: no traversal from the head
 				tail.setNextNode(null);
 				numberOfEntries--;
+				forgetRemovedCursor();
 			}
-		}
-
-		if (numberOfEntries == 1) {
-			tail = head;
+			removeCheckpoint(removedNode, false);
+			releaseNode(removedNode);
+			endSharingIfEmpty();
+			unindex(result, false);
+			removeFromFingerprint(result, false);
+			publish();
 		}
 
 		return result;
@@ -151,343 +258,1403 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 
 
 	/**
-	 * Clears the list to an empty list.
+	 * Clears the list to an empty list. When nodes are recycled, every node of the list is kept for reuse, unless a
+	 * snapshot may hold them.
 	 */
 	@Override
 	public void clear() {
+		checkInitialization();
+
+		if (recycleNodes && !shared) {
+			Node current = head;
+			while (current != null) {
+				Node next = current.getNextNode();
+				releaseNode(current);
+				current = next;
+			}
+		}
+
 		initializeDataFields();
+		shared = false;						// Snapshots keep the old nodes; the list starts a new chain
+		modCount++;
+
+		if (entryKeys != null) {
+			entryKeys.clear();
+		}
+		fingerprint = 0;
+		fingerprintPower = 1;
+		publish();
 	}
 
 
 	/**
-	 * Retrieves the entry at a certain position in the list, after determining if the position is valid.
+	 * Adds the entries of a collection to the end of the list, in the collection's iteration order, until the list
+	 * is full. The new nodes are linked to each other first and then spliced onto the tail in one step. When full
+	 * lists evict entries, the entries are added one at a time, so each one evicts the first entry.
 	 *
-	 * @param givenPosition An integer that indicates the position of the desired entry
-	 * @return A reference to the indicated entry or null if the index is out of bounds
+	 * @param newEntries The objects to be added as new entries
+	 * @return The number of entries added, which is less than the size of the collection if the list became full
 	 */
 	@Override
-	public T getEntry(int givenPosition) {
+	public int addAllBack(Collection<? extends T> newEntries) {
 		checkInitialization();
-		T result = null;
+		if (overflowPolicy == OverflowPolicy.EVICT_OPPOSITE_END) {
+			return FrontBackCappedListInterface.super.addAllBack(newEntries);
+		}
+		int added = Math.min(newEntries.size(), capacity - numberOfEntries);
+
+		if (added > 0) {
+			Iterator<? extends T> entries = newEntries.iterator();
+			Node first = obtainNode(entries.next());
+			Node last = first;
+			for (int count = 1; count < added; count++) {
+				Node newNode = obtainNode(entries.next());
+				newNode.setPreviousNode(last);
+				last.setNextNode(newNode);
+				last = newNode;
+			}
 
-		if (validPosition(givenPosition)) { 	// Assertion: list is not empty
-			result = getNodeAt(givenPosition).getData();
+			if (isEmpty()) {
+				head = first;
+			} else {
+				first.setPreviousNode(tail);
+				tail.setNextNode(first);
+			}
+			tail = last;
+
+			if (entryKeys != null) {
+				long key = headKey + numberOfEntries;
+				for (Node current = first; current != null; current = current.getNextNode()) {
+					entryKeys.computeIfAbsent(current.getData(), entry -> new ArrayDeque<>()).addLast(key++);
+				}
+			}
+			if (checkpoints != null) {
+				long key = headKey + numberOfEntries;
+				for (Node current = first; current != null; current = current.getNextNode()) {
+					addCheckpoint(current, key++, false);
+				}
+			}
+			for (Node current = first; current != null && fingerprinted; current = current.getNextNode()) {
+				addToFingerprint(current.getData(), false);
+			}
+			numberOfEntries += added;
+			modCount++;
+			publish();
 		}
 
-		return result;
+		return added;
 	}
 
 
 	/**
-	 * Determines the position in the list of a given entry. If the entry appears more than once, the first index
-	 * is returned.
+	 * Adds the entries of a collection to the beginning of the list, in the collection's iteration order, until the
+	 * list is full, so the last entry added becomes the head. The new nodes are linked to each other first and then
+	 * spliced onto the head in one step. When full lists evict entries, the entries are added one at a time, so
+	 * each one evicts the last entry.
 	 *
-	 * @param anEntry The object to search for in the list
-	 * @return The first position that the entry was found or -1 if the entry is not found
+	 * @param newEntries The objects to be added as new entries
+	 * @return The number of entries added, which is less than the size of the collection if the list became full
 	 */
 	@Override
-	public int indexOf(T anEntry) {
+	public int addAllFront(Collection<? extends T> newEntries) {
 		checkInitialization();
-		int position = -1;
+		if (overflowPolicy == OverflowPolicy.EVICT_OPPOSITE_END) {
+			return FrontBackCappedListInterface.super.addAllFront(newEntries);
+		}
+		int added = Math.min(newEntries.size(), capacity - numberOfEntries);
+
+		if (added > 0) {
+			Iterator<? extends T> entries = newEntries.iterator();
+			Node last = obtainNode(entries.next());		// The first entry added ends up last in the chain
+			Node first = last;
+			for (int count = 1; count < added; count++) {
+				Node newNode = obtainNode(entries.next());
+				newNode.setNextNode(first);
+				first.setPreviousNode(newNode);
+				first = newNode;
+			}
 
-//		// Iterative version
-//		Node current = head;
-//		int index = 0;
-//
-//		while (current != null && position < 0) {
-//			if (current.getData().equals(anEntry)) {
-//				position = index;
-//			}
-//			current = current.getNextNode();
-//			index++;
-//		}
-//
-//		return position;
+			// As with addFront, the first entry added to an empty list keeps the head's key
+			long key = isEmpty() ? headKey : headKey - 1;
+			if (isEmpty()) {
+				tail = last;
+			} else {
+				last.setNextNode(head);
+				head.setPreviousNode(last);
+			}
+			head = first;
+			headKey = key - (added - 1);
+
+			if (entryKeys != null) {
+				long entryKey = key;
+				for (Node current = last; current != null; current = current.getPreviousNode()) {
+					entryKeys.computeIfAbsent(current.getData(), entry -> new ArrayDeque<>()).addFirst(entryKey--);
+				}
+			}
+			if (checkpoints != null) {
+				long entryKey = key;
+				for (Node current = last; current != null; current = current.getPreviousNode()) {
+					addCheckpoint(current, entryKey--, true);
+				}
+			}
+			for (Node current = last; current != null && fingerprinted; current = current.getPreviousNode()) {
+				addToFingerprint(current.getData(), true);
+			}
+			numberOfEntries += added;
+			modCount++;
+			publish();
+		}
 
-		// Recursive version
-		return indexOf(anEntry, position, 0, head);
+		return added;
 	}
 
 
 	/**
-	 * Determines the position in the list of a given entry. If the entry appears more than once, the last index
-	 * is returned.
+	 * Removes up to a given number of entries from the beginning of the list and passes each one to an action, in
+	 * the order they were removed. The removed nodes are cut from the list in one step before any entry is passed
+	 * on, so the action sees the list as it is after the whole drain.
 	 *
-	 * @param anEntry The object to search for in the list
-	 * @return The last position that the entry was found or -1 if the entry is not found
+	 * @param maxEntries The largest number of entries to remove
+	 * @param sink The action that receives each removed entry
+	 * @return The number of entries removed, which is less than maxEntries if the list became empty
 	 */
 	@Override
-	public int lastIndexOf(T anEntry) {
+	public int drainFront(int maxEntries, Consumer<? super T> sink) {
 		checkInitialization();
-		int position = -1;
+		Objects.requireNonNull(sink);
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("Number of entries to drain cannot be negative.");
+		}
+		int removed = Math.min(maxEntries, numberOfEntries);
 
-//		// Iterative version
-//		Node current = head;
-//		int index = 0;
-//
-//		while (current != null) {
-//			if (current.getData().equals(anEntry)) {
-//				position = index;
-//			}
-//			current = current.getNextNode();
-//			index++;
-//		}
-//
-//		return position;
+		if (removed > 0) {
+			Node first = head;
+			if (removed == numberOfEntries) {
+				initializeDataFields();
+			} else {
+				Node last = first;
+				for (int count = 1; count < removed; count++) {
+					last = last.getNextNode();
+				}
+				head = last.getNextNode();
+				head.setPreviousNode(null);		// The last removed node keeps its next link, which snapshots may follow
+				headKey += removed;
+				numberOfEntries -= removed;
+				forgetRemovedCursor();
+			}
+			modCount++;
+			publish();
+
+			// Every removed entry leaves the index before the action can add new entries with the same keys
+			Node current = first;
+			for (int count = 0; count < removed && (entryKeys != null || fingerprinted || checkpoints != null); count++) {
+				removeCheckpoint(current, true);
+				unindex(current.getData(), true);
+				removeFromFingerprint(current.getData(), true);
+				current = current.getNextNode();
+			}
+			current = first;
+			for (int count = 0; count < removed; count++) {
+				Node next = current.getNextNode();
+				T entry = current.getData();
+				releaseNode(current);
+				sink.accept(entry);
+				current = next;
+			}
+			endSharingIfEmpty();
+		}
 
-		// Recursive version
-		position = lastIndexOf(anEntry, position, numberOfEntries - 1, tail);
-		return position;
+		return removed;
 	}
 
 
 	/**
-	 * Determines whether an entry is in the list.
+	 * Removes up to a given number of entries from the end of the list and passes each one to an action, in the
+	 * order they were removed. The removed nodes are cut from the list in one step before any entry is passed on,
+	 * so the action sees the list as it is after the whole drain.
 	 *
-	 * @param anEntry The object to search for in the list
-	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 * @param maxEntries The largest number of entries to remove
+	 * @param sink The action that receives each removed entry
+	 * @return The number of entries removed, which is less than maxEntries if the list became empty
 	 */
 	@Override
-	public boolean contains(T anEntry) {
+	public int drainBack(int maxEntries, Consumer<? super T> sink) {
 		checkInitialization();
+		Objects.requireNonNull(sink);
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("Number of entries to drain cannot be negative.");
+		}
+		int removed = Math.min(maxEntries, numberOfEntries);
 
-//		// Iterative version
-//		boolean result = false;
-//		Node current = head;
-//
-//		while (current != null && !result) {
-//			if (current.getData().equals(anEntry)) {
-//				result = true;
-//			}
-//			current = current.getNextNode();
-//		}
-//		return result;
-
-//		// Recursive version
-//		return contains(anEntry, head);
-
+		if (removed > 0) {
+			if (shared && removed < numberOfEntries) {
+				unshare();						// The new tail's next link is about to be cut
+			}
+			Node last = tail;
+			if (removed == numberOfEntries) {
+				initializeDataFields();
+			} else {
+				Node first = last;
+				for (int count = 1; count < removed; count++) {
+					first = first.getPreviousNode();
+				}
+				tail = first.getPreviousNode();
+				tail.setNextNode(null);
+				numberOfEntries -= removed;
+				forgetRemovedCursor();
+			}
+			modCount++;
+			publish();
+
+			// Every removed entry leaves the index before the action can add new entries with the same keys
+			Node current = last;
+			for (int count = 0; count < removed && (entryKeys != null || fingerprinted || checkpoints != null); count++) {
+				removeCheckpoint(current, false);
+				unindex(current.getData(), false);
+				removeFromFingerprint(current.getData(), false);
+				current = current.getPreviousNode();
+			}
+			current = last;
+			for (int count = 0; count < removed; count++) {
+				Node previous = current.getPreviousNode();
+				T entry = current.getData();
+				releaseNode(current);
+				sink.accept(entry);
+				current = previous;
+			}
+			endSharingIfEmpty();
+		}
 
-		// Utilize indexOf(anEntry)
-		return (indexOf(anEntry) >= 0);
+		return removed;
 	}
 
 
 	/**
-	 * Retrieves length of the list.
+	 * Sets what an add does when the list is full. Under EVICT_OPPOSITE_END, the evicted entry is removed in
+	 * constant time, as by removeFront or removeBack, so the list can serve as a sliding window over a stream of
+	 * entries. BLOCK is not supported, since no other thread could ever make room.
 	 *
-	 * @return Integer number of entries currently in the list.
+	 * @param overflowPolicy REJECT to reject adds to a full list, or EVICT_OPPOSITE_END to evict an entry
+	 * @throws IllegalArgumentException if the policy is BLOCK
 	 */
-	@Override
-	public int size() {
-		return numberOfEntries;
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		checkInitialization();
+		Objects.requireNonNull(overflowPolicy);
+		if (overflowPolicy == OverflowPolicy.BLOCK) {
+			throw new IllegalArgumentException("LinkedFrontBackCappedList is not thread-safe, so it cannot block.");
+		}
+
+		this.overflowPolicy = overflowPolicy;
 	}
 
 
 	/**
-	 * Determines if the list is empty.
+	 * Retrieves what an add does when the list is full.
 	 *
-	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 * @return The overflow policy of this list
 	 */
-	@Override
-	public boolean isEmpty() {
-		return (numberOfEntries == 0);
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
 	}
 
 
 	/**
-	 * Determines if the list is full.
+	 * Sets an action to receive each entry evicted to make room for an add. The action is called after the add is
+	 * complete, so it sees the list with the new entry.
 	 *
-	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 * @param evictionListener The action that receives each evicted entry, or null for none
 	 */
-	@Override
-	public boolean isFull() {
-		return (numberOfEntries >= capacity);
+	public void setEvictionListener(Consumer<? super T> evictionListener) {
+		checkInitialization();
+		this.evictionListener = evictionListener;
 	}
 
 
 	/**
-	 * Retrieves the entries in the list, number of entries, and capacity of the list. If the list is not empty, the
-	 * entries in the head and tail nodes are retrieved.
+	 * Retrieves the number of entries evicted to make room for adds since the list was created.
 	 *
-	 * @return String representation of the list, with number of elements, capacity of the list, and entries in head
-	 * tail nodes, if applicable
+	 * @return The number of evicted entries
 	 */
-	public String toString() {
-		if (isEmpty()) {
-			return Arrays.toString(toArray()) + "\tsize=" + numberOfEntries + "\tcapacity=" + capacity;
-		} else {
-			return Arrays.toString(toArray()) + "\tsize=" + numberOfEntries + "\tcapacity=" + capacity +
-					"\thead=" + head.getData() + " tail=" + tail.getData();
-		}
+	public long getEvictionCount() {
+		return evictionCount;
 	}
 
 
 	/**
-	 * Compare two lists by nodes, entries and then size.
+	 * Turns the entry index on or off. While on, the list keeps a hash map from each entry to the positions where
+	 * it occurs, updated by every add and remove, so indexOf, lastIndexOf and contains take expected constant time
+	 * instead of scanning the list. Entries are matched by equals and hashCode. Turning the index on builds it from
+	 * the current entries; turning it off discards it.
 	 *
-	 * @param other The list to compare to
-	 * @return 0 if the linked lists are equal; otherwise, negative if current object is less than the other or
-	 * positive if it is larger than the other
+	 * @param indexed True to maintain the entry index; false to search by scanning the list
 	 */
-	@Override
-	public int compareTo(LinkedFrontBackCappedList<T> other) {
+	public void setIndexed(boolean indexed) {
 		checkInitialization();
 
-		if (this.isEmpty() && other.isEmpty()) {
-			return 0;
-		} else {
-//			// Iterative version
-//			Node current = head;
-//			Node otherCurrent = other.head;
-//			while ((current != null) && (otherCurrent != null)) {
-//				if (current.getData().compareTo(otherCurrent.getData()) != 0) {
-//					return current.getData().compareTo(otherCurrent.getData());
-//				}
-//				current = current.getNextNode();
-//				otherCurrent = otherCurrent.getNextNode();
-//			}
-//
-//			return Integer.compare(this.numberOfEntries, other.numberOfEntries);
-
-			// Recursive version
-			return compareTo(head, other.head);
+		if (!indexed) {
+			entryKeys = null;
+		} else if (entryKeys == null) {
+			entryKeys = new HashMap<>();
+			long key = headKey;
+			for (Node current = head; current != null; current = current.getNextNode()) {
+				entryKeys.computeIfAbsent(current.getData(), entry -> new ArrayDeque<>()).addLast(key++);
+			}
 		}
 	}
 
 
-	/*
-	****************
-	HELPER METHODS:
-	****************
-	 */
-
 	/**
-	 * Initializes the class's data fields to indicate an empty list.
+	 * Determines whether the list maintains an entry index for its searches.
+	 *
+	 * @return True if the entry index is on; otherwise, false.
 	 */
-	private void initializeDataFields() {
-		head = null;
-		tail = null;
-		numberOfEntries = 0;
+	public boolean isIndexed() {
+		return entryKeys != null;
 	}
 
 
 	/**
-	 * Checks if list is properly initialized.
+	 * Turns the position index on or off. While on, the list keeps every node whose key is a multiple of 64 in an
+	 * array, updated in constant time by every add and remove, so getEntry walks at most 32 nodes from the nearest
+	 * one instead of up to half the list. The index holds about one reference per 64 entries. Turning the index on
+	 * builds it from the current nodes; turning it off discards it.
 	 *
-	 * @throws SecurityException if this object is not initialized
+	 * @param positionIndexed True to maintain the position index; false to reach positions by walking from an end
 	 */
-	private void checkInitialization() {
-		if (!initialized) {
-			throw new SecurityException("LinkedFrontBackCappedList object is not initialized properly.");
+	public void setPositionIndexed(boolean positionIndexed) {
+		checkInitialization();
+
+		if (!positionIndexed) {
+			checkpoints = null;
+			numberOfCheckpoints = 0;
+		} else if (checkpoints == null) {
+			buildCheckpoints();
 		}
 	}
 
 
 	/**
-	 * Determines if given position is a valid position within the bounds of the list.
+	 * Determines whether the list maintains a position index for getEntry.
 	 *
-	 * @param position The position in the list
-	 * @return True if the position is valid; otherwise, returns false.
+	 * @return True if the position index is on; otherwise, false.
 	 */
-	private boolean validPosition(int position) {
-		return position >= 0 && position < numberOfEntries;
-
+	public boolean isPositionIndexed() {
+		return checkpoints != null;
 	}
 
 
 	/**
-	 * Casts the list to an array containing the entries in the list.
+	 * Turns the fingerprint on or off. While on, every add and remove updates a hash of the entries in constant time,
+	 * so hashCode takes constant time, and equals compares the fingerprints of two fingerprinted lists before it
+	 * walks them, which rejects almost every unequal pair at once. Turning the fingerprint on computes it from the
+	 * current entries.
 	 *
-	 * @return An array containing all the entries in the list
+	 * @param fingerprinting True to maintain the fingerprint; false to compute hashes by walking the list
 	 */
-	private T[] toArray() {
+	public void setFingerprinting(boolean fingerprinting) {
 		checkInitialization();
 
-		// The cast is safe because the new list contains null entries
-		@SuppressWarnings("unchecked")
-		T[] result = (T[]) new Comparable[numberOfEntries]; // TO DO: change to Object[] for non-extra credit
+		if (fingerprinting && !fingerprinted) {
+			fingerprint = computeFingerprint();
+			fingerprintPower = power(FINGERPRINT_BASE, numberOfEntries);
+		}
+		fingerprinted = fingerprinting;
+	}
 
-		int index = 0;
 
-//		// Iterative version
-//		Node current = head;
-//		while ((index < numberOfEntries) && (current != null)) {
-//			result[index] = current.getData();
-//			current = current.getNextNode();
-//			index++;
-//		}
+	/**
+	 * Determines whether the list maintains a fingerprint of its entries.
+	 *
+	 * @return True if the fingerprint is on; otherwise, false.
+	 */
+	public boolean isFingerprinting() {
+		return fingerprinted;
+	}
 
-		// Recursive version
-		toArray(result, index, head);
 
-		return result;
-	}
+	/**
+	 * Turns node recycling on or off. When on, nodes removed from the list are kept and reused by later adds
+	 * instead of being left for the garbage collector, so a list that repeatedly adds and removes entries stops
+	 * allocating once it has reached its largest size. Since the list never holds more than its capacity, at
+	 * most capacity nodes are ever kept. Turning recycling off releases the kept nodes.
+	 *
+	 * @param recycle True to reuse removed nodes; false to allocate a new node for every added entry
+	 */
+	public void setNodeRecycling(boolean recycle) {
+		checkInitialization();
+		recycleNodes = recycle;
 
-	// Helper method for recursive version of toArray() method
-	private void toArray(T[] array, int index, Node current) {
-		if (current != null) {				// Recursive case
-			array[index] = current.getData();
-			toArray(array, index + 1, current.getNextNode());
+		if (!recycle) {
+			freeNodes = null;
 		}
 	}
 
 
 	/**
-	 * Retrieves a reference to the node at a given position.
-	 *
-	 * Precondition: The list is not empty; 0 <= givenPosition < numberOfEntries.
+	 * Determines whether removed nodes are reused by later adds.
 	 *
-	 * @param givenPosition The position in the list
-	 * @return A reference to the node at the given position
+	 * @return True if node recycling is on; otherwise, false.
 	 */
-	private Node getNodeAt(int givenPosition) {
-		// Assertion: (head != null) && (0 <= givenPosition) && (givenPosition < numberOfEntries)
+	public boolean isNodeRecycling() {
+		return recycleNodes;
+	}
 
-		// Traverse the list to locate the desired node (skipped if givenPosition is 0)
-//		// Iterative version
-//		Node current = head;
-//
-//		for (int counter = 0; counter < givenPosition; counter++) {
-//			current = current.getNextNode();
-//		}
-//
-//		return current;
 
-		// Recursive version
-		return getNodeAt(0, givenPosition, head);
+	/**
+	 * Takes an immutable view of the entries in the list, in constant time. The snapshot shares the list's nodes,
+	 * and later changes to the list never change the snapshot. While a snapshot may hold the list's nodes, removing
+	 * from the back of the list copies its nodes first, which takes linear time, and removed nodes are not recycled.
+	 * Emptying the list, or a removal from the back, ends the sharing.
+	 *
+	 * A snapshot may be read by any thread once it has been safely published, for example through a volatile field.
+	 * Its methods that would change it throw an UnsupportedOperationException.
+	 *
+	 * @return An immutable list holding the entries of this list, in order
+	 */
+	public FrontBackCappedListInterface<T> snapshot() {
+		checkInitialization();
+		shared = true;
+		return new Snapshot(head, tail, numberOfEntries);
 	}
 
-	// Helper method for recursive version of getNodeAt(int givenPosition)
-	private Node getNodeAt(int counter, int givenPosition, Node current) {
-		if (counter == givenPosition) {
-			return current;
-		} else {
-			return getNodeAt(counter + 1, givenPosition, current.getNextNode());
-		}
-	}
 
+	/**
+	 * Turns copy-on-write reads on or off. While on, every change to the list publishes a new snapshot, which
+	 * getPublishedSnapshot returns on any thread, so readers on other threads never lock the list and never wait for
+	 * a writer. The list itself must still be changed by one thread at a time. Since the published snapshot always
+	 * shares the list's nodes, removing from the back takes linear time and node recycling is suspended while on.
+	 *
+	 * @param copyOnWrite True to publish a snapshot after every change; false to stop publishing
+	 */
+	public void setCopyOnWriteReads(boolean copyOnWrite) {
+		checkInitialization();
+		copyOnWriteReads = copyOnWrite;
 
-	// Helper method for recursive version of indexOf(T anEntry) method
-	private int indexOf(T anEntry, int position, int index, Node current) {
-		if (current == null) {
-			return position;
+		if (copyOnWrite) {
+			publish();
 		} else {
-			// Option 1
-			return (current.getData().equals(anEntry) ? index :
-					indexOf(anEntry, position, index + 1, current.getNextNode()));
-
-//			// Option 2
-//			if (current.getData().equals(anEntry)) {
-//				return index;
-//			} else {
-//				return indexOf(anEntry, position, index + 1, current.getNextNode());
-//			}
+			published = null;
 		}
 	}
 
 
-	// Helper method for recursive version of lastIndexOf(T anEntry) method
-	private int lastIndexOf(T anEntry, int position, int index, Node current) {
+	/**
+	 * Determines whether every change to the list publishes a snapshot.
+	 *
+	 * @return True if copy-on-write reads are on; otherwise, false.
+	 */
+	public boolean isCopyOnWriteReads() {
+		return copyOnWriteReads;
+	}
+
+
+	/**
+	 * Retrieves the snapshot published by the latest change to the list. Unlike the other methods, this method may
+	 * be called on any thread while another thread changes the list.
+	 *
+	 * @return An immutable list holding the entries of this list as of its latest change, or null if copy-on-write
+	 * reads are off
+	 */
+	public FrontBackCappedListInterface<T> getPublishedSnapshot() {
+		return published;
+	}
+
+
+	/**
+	 * Retrieves the entry at a certain position in the list, after determining if the position is valid.
+	 *
+	 * @param givenPosition An integer that indicates the position of the desired entry
+	 * @return A reference to the indicated entry or null if the index is out of bounds
+	 */
+	@Override
+	public T getEntry(int givenPosition) {
+		checkInitialization();
+		T result = null;
+
+		if (validPosition(givenPosition)) { 	// Assertion: list is not empty
+			result = getNodeAt(givenPosition).getData();
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the first index
+	 * is returned.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The first position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int indexOf(T anEntry) {
+		checkInitialization();
+		int position = -1;
+
+		if (entryKeys != null) {
+			ArrayDeque<Long> keys = entryKeys.get(anEntry);
+			return (keys == null) ? position : (int) (keys.peekFirst() - headKey);
+		}
+
+		// Iterative version
+		Node current = head;
+		int index = 0;
+
+		while (current != null && position < 0) {
+			if (current.getData().equals(anEntry)) {
+				position = index;
+			}
+			current = current.getNextNode();
+			index++;
+		}
+
+		return position;
+
+//		// Recursive version (one stack frame per node)
+//		return indexOf(anEntry, position, 0, head);
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the last index
+	 * is returned.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The last position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int lastIndexOf(T anEntry) {
+		checkInitialization();
+		int position = -1;
+
+		if (entryKeys != null) {
+			ArrayDeque<Long> keys = entryKeys.get(anEntry);
+			return (keys == null) ? position : (int) (keys.peekLast() - headKey);
+		}
+
+		// Iterative version
+		Node current = tail;
+		int index = numberOfEntries - 1;
+
+		while (current != null && position < 0) {
+			if (current.getData().equals(anEntry)) {
+				position = index;
+			}
+			current = current.getPreviousNode();
+			index--;
+		}
+
+		return position;
+
+//		// Recursive version (one stack frame per node)
+//		position = lastIndexOf(anEntry, position, numberOfEntries - 1, tail);
+//		return position;
+	}
+
+
+	/**
+	 * Determines whether an entry is in the list.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 */
+	@Override
+	public boolean contains(T anEntry) {
+		checkInitialization();
+
+//		// Iterative version
+//		boolean result = false;
+//		Node current = head;
+//
+//		while (current != null && !result) {
+//			if (current.getData().equals(anEntry)) {
+//				result = true;
+//			}
+//			current = current.getNextNode();
+//		}
+//		return result;
+
+//		// Recursive version
+//		return contains(anEntry, head);
+
+
+		// Utilize indexOf(anEntry)
+		return (indexOf(anEntry) >= 0);
+	}
+
+
+	/**
+	 * Retrieves length of the list.
+	 *
+	 * @return Integer number of entries currently in the list.
+	 */
+	@Override
+	public int size() {
+		return numberOfEntries;
+	}
+
+
+	/**
+	 * Determines if the list is empty.
+	 *
+	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return (numberOfEntries == 0);
+	}
+
+
+	/**
+	 * Determines if the list is full.
+	 *
+	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 */
+	@Override
+	public boolean isFull() {
+		return (numberOfEntries >= capacity);
+	}
+
+
+	/**
+	 * Retrieves the capacity of the list, the largest number of entries it can hold.
+	 *
+	 * @return The capacity of the list
+	 */
+	@Override
+	public int getCapacity() {
+		return capacity;
+	}
+
+
+	/**
+	 * Creates an iterator that walks the nodes from the head to the tail. The iterator throws a
+	 * ConcurrentModificationException if the list is structurally modified after the iterator was created.
+	 *
+	 * @return An iterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		checkInitialization();
+		return new NodeIterator(head, true);
+	}
+
+
+	/**
+	 * Creates an iterator that walks the nodes from the tail to the head, following the previous links. The
+	 * iterator throws a ConcurrentModificationException if the list is structurally modified after the iterator
+	 * was created.
+	 *
+	 * @return An iterator over the entries in the list, from back to front
+	 */
+	public Iterator<T> descendingIterator() {
+		checkInitialization();
+		return new NodeIterator(tail, false);
+	}
+
+
+	/**
+	 * Creates a spliterator over the entries in the list that reports its exact size, so streams can divide the
+	 * work evenly. Splitting copies a batch of entries into an array, as walking to the middle of a linked list
+	 * would take as long as processing it.
+	 *
+	 * @return A SIZED and ORDERED spliterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		checkInitialization();
+		return new NodeSpliterator(head, numberOfEntries, modCount);
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, to a new array.
+	 *
+	 * @return An array containing all the entries in the list
+	 */
+	@Override
+	public Object[] toArray() {
+		checkInitialization();
+		Object[] result = new Object[numberOfEntries];
+
+		// Iterative version
+		int index = 0;
+		for (Node current = head; current != null; current = current.getNextNode()) {
+			result[index++] = current.getData();
+		}
+
+//		// Recursive version (one stack frame per node)
+//		toArray(result, 0, head);
+
+		return result;
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, into an array, starting at the given index of the array.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 * @throws IndexOutOfBoundsException if the entries do not fit in the array from the given index
+	 */
+	@Override
+	public void copyInto(T[] dest, int from) {
+		checkInitialization();
+		Objects.checkFromIndexSize(from, numberOfEntries, dest.length);
+
+		int index = from;
+		for (Node current = head; current != null; current = current.getNextNode()) {
+			dest[index++] = current.getData();
+		}
+	}
+
+
+	/**
+	 * Performs an action on each entry, from the head to the tail, without creating an iterator.
+	 *
+	 * @param action The action to perform on each entry
+	 * @throws ConcurrentModificationException if the action structurally modifies the list
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		checkInitialization();
+		Objects.requireNonNull(action);
+		int expectedModCount = modCount;
+
+		for (Node current = head; (current != null) && (modCount == expectedModCount); current = current.getNextNode()) {
+			action.accept(current.getData());
+		}
+
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+
+	/**
+	 * Retrieves the entries in the list, number of entries, and capacity of the list. If the list is not empty, the
+	 * entries in the head and tail nodes are retrieved. The entries are appended to a single builder, sized for
+	 * entries as long as the one in the head node.
+	 *
+	 * @return String representation of the list, with number of elements, capacity of the list, and entries in head
+	 * tail nodes, if applicable
+	 */
+	public String toString() {
+		checkInitialization();
+		return describe(head, tail, numberOfEntries);
+	}
+
+
+	/**
+	 * Compare two lists by nodes, entries and then size. Each pair of entries is compared once, and the walk stops
+	 * at the first pair that differs.
+	 *
+	 * @param other The list to compare to
+	 * @return 0 if the linked lists are equal; otherwise, negative if current object is less than the other or
+	 * positive if it is larger than the other
+	 */
+	@Override
+	public int compareTo(LinkedFrontBackCappedList<T> other) {
+		checkInitialization();
+
+		if (this == other) {
+			return 0;
+		} else {
+			// Iterative version
+			int result = 0;
+			Node current = head;
+			Node otherCurrent = other.head;
+			while ((result == 0) && (current != null) && (otherCurrent != null)) {
+				result = current.getData().compareTo(otherCurrent.getData());
+				current = current.getNextNode();
+				otherCurrent = otherCurrent.getNextNode();
+			}
+
+			return (result != 0) ? result : Integer.compare(this.numberOfEntries, other.numberOfEntries);
+
+//			// Recursive version (one stack frame per node)
+//			return compareTo(head, other.head);
+		}
+	}
+
+
+	/**
+	 * Determines whether another object is a linked list holding equal entries in the same order. Capacities are not
+	 * compared. Lists of different sizes, or fingerprinted lists with different fingerprints, are unequal without
+	 * walking either list.
+	 *
+	 * @param other The object to compare to
+	 * @return True if the other object is a LinkedFrontBackCappedList with equal entries; otherwise, false.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		checkInitialization();
+
+		if (this == other) {
+			return true;
+		} else if (!(other instanceof LinkedFrontBackCappedList)) {
+			return false;
+		}
+
+		LinkedFrontBackCappedList<?> otherList = (LinkedFrontBackCappedList<?>) other;
+		boolean result = (numberOfEntries == otherList.numberOfEntries)
+				&& !(fingerprinted && otherList.fingerprinted && fingerprint != otherList.fingerprint);
+
+		Node current = head;
+		LinkedFrontBackCappedList<?>.Node otherCurrent = otherList.head;
+		while (result && (current != null)) {
+			result = Objects.equals(current.getData(), otherCurrent.getData());
+			current = current.getNextNode();
+			otherCurrent = otherCurrent.getNextNode();
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Retrieves a hash code of the entries in the list, in order, which equal lists share whether or not they are
+	 * fingerprinted. It takes constant time if the list is fingerprinted; otherwise, it walks the list.
+	 *
+	 * @return The hash code of the list
+	 */
+	@Override
+	public int hashCode() {
+		checkInitialization();
+		long result = fingerprinted ? fingerprint : computeFingerprint();
+		return (int) (result ^ (result >>> 32));
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Initializes the class's data fields to indicate an empty list.
+	 */
+	private void initializeDataFields() {
+		head = null;
+		tail = null;
+		numberOfEntries = 0;
+		headKey = 0;
+		cursor = null;
+
+		for (int count = 0; count < numberOfCheckpoints; count++) {
+			checkpoints[(firstCheckpoint + count) % checkpoints.length] = null;
+		}
+		firstCheckpoint = 0;
+		numberOfCheckpoints = 0;
+	}
+
+
+	/**
+	 * Provides a node holding the given entry, reusing a previously removed node if one is available.
+	 *
+	 * @param newEntry The entry the node will hold
+	 * @return A node holding the entry, with no next or previous node
+	 */
+	private Node obtainNode(T newEntry) {
+		Node result;
+
+		if (freeNodes == null) {
+			result = new Node(newEntry);
+		} else {
+			result = freeNodes;
+			freeNodes = result.getNextNode();
+			result.setData(newEntry);
+			result.setNextNode(null);
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Keeps a node that was removed from the list for reuse, if node recycling is on. The node's entry is
+	 * released so the list does not keep removed entries from being garbage collected.
+	 *
+	 * @param removedNode A node that is no longer part of the list
+	 */
+	private void releaseNode(Node removedNode) {
+		if (recycleNodes && !shared) {		// A snapshot may still hold a shared node
+			removedNode.setData(null);
+			removedNode.setPreviousNode(null);
+			removedNode.setNextNode(freeNodes);
+			freeNodes = removedNode;
+		}
+	}
+
+
+	/**
+	 * Ends the sharing once the list is empty and its removed nodes have been released, since no snapshot can hold
+	 * the nodes of later adds. While copy-on-write reads are on, the published snapshot shares every new node, so
+	 * the sharing goes on.
+	 */
+	private void endSharingIfEmpty() {
+		if (numberOfEntries == 0 && !copyOnWriteReads) {
+			shared = false;
+		}
+	}
+
+
+	/**
+	 * Replaces the nodes of the list with copies, so the list can change links that snapshots follow. The snapshots
+	 * keep the original nodes, which the list never changes again.
+	 */
+	private void unshare() {
+		Node original = head;
+		Node last = null;
+
+		for (int count = 0; count < numberOfEntries; count++) {
+			Node copy = obtainNode(original.getData());
+			copy.setPreviousNode(last);
+			if (last == null) {
+				head = copy;
+			} else {
+				last.setNextNode(copy);
+			}
+			last = copy;
+			original = original.getNextNode();
+		}
+
+		tail = last;
+		shared = false;
+		cursor = null;						// The cursor is an original node
+
+		if (checkpoints != null) {
+			buildCheckpoints();				// The checkpoints are original nodes
+		}
+	}
+
+
+	/**
+	 * Publishes a snapshot of the list for readers on other threads, if copy-on-write reads are on. The volatile
+	 * write makes every change to the shared nodes visible to a reader that reads the snapshot.
+	 */
+	private void publish() {
+		if (copyOnWriteReads) {
+			shared = true;
+			published = new Snapshot(head, tail, numberOfEntries);
+		}
+	}
+
+
+	/**
+	 * Determines whether an add to the full list should evict an entry to make room.
+	 *
+	 * @return True if the overflow policy evicts and there is an entry to evict; otherwise, false.
+	 */
+	private boolean canEvict() {
+		return overflowPolicy == OverflowPolicy.EVICT_OPPOSITE_END && capacity > 0;
+	}
+
+
+	/**
+	 * Counts an entry that was evicted to make room for an add and passes it to the eviction listener, if any.
+	 *
+	 * @param evictedEntry The entry that was evicted
+	 */
+	private void evicted(T evictedEntry) {
+		evictionCount++;
+		if (evictionListener != null) {
+			evictionListener.accept(evictedEntry);
+		}
+	}
+
+
+	/**
+	 * Removes the key of an entry that was just removed from one end of the list from the entry index, if the index
+	 * is on. The removed occurrence is the entry's first one if it was removed from the front, or its last one if it
+	 * was removed from the back.
+	 *
+	 * @param removedEntry The entry that was removed
+	 * @param front True if the entry was removed from the front; false if it was removed from the back
+	 */
+	private void unindex(T removedEntry, boolean front) {
+		if (entryKeys != null) {
+			ArrayDeque<Long> keys = entryKeys.get(removedEntry);
+			if (front) {
+				keys.pollFirst();
+			} else {
+				keys.pollLast();
+			}
+			if (keys.isEmpty()) {
+				entryKeys.remove(removedEntry);
+			}
+		}
+	}
+
+
+	/**
+	 * Records a node that was just added to one end of the list as a checkpoint, if the position index is on and
+	 * the node's key is a multiple of the spacing. The array of checkpoints doubles when it is full.
+	 *
+	 * @param newNode The node that was added
+	 * @param key The key of the node
+	 * @param front True if the node was added to the front; false if it was added to the back
+	 */
+	private void addCheckpoint(Node newNode, long key, boolean front) {
+		if (checkpoints != null && Math.floorMod(key, CHECKPOINT_SPACING) == 0) {
+			if (numberOfCheckpoints == checkpoints.length) {
+				Object[] larger = new Object[checkpoints.length * 2];
+				for (int count = 0; count < numberOfCheckpoints; count++) {
+					larger[count] = checkpoints[(firstCheckpoint + count) % checkpoints.length];
+				}
+				checkpoints = larger;
+				firstCheckpoint = 0;
+			}
+
+			if (front) {
+				firstCheckpoint = (firstCheckpoint + checkpoints.length - 1) % checkpoints.length;
+				checkpoints[firstCheckpoint] = newNode;
+			} else {
+				checkpoints[(firstCheckpoint + numberOfCheckpoints) % checkpoints.length] = newNode;
+			}
+			numberOfCheckpoints++;
+		}
+	}
+
+
+	/**
+	 * Drops a node that was just removed from one end of the list from the checkpoints, if it is one. Only the first
+	 * or last checkpoint can be the removed node.
+	 *
+	 * @param removedNode The node that was removed
+	 * @param front True if the node was removed from the front; false if it was removed from the back
+	 */
+	private void removeCheckpoint(Node removedNode, boolean front) {
+		if (numberOfCheckpoints > 0) {
+			if (front && checkpoints[firstCheckpoint] == removedNode) {
+				checkpoints[firstCheckpoint] = null;
+				firstCheckpoint = (firstCheckpoint + 1) % checkpoints.length;
+				numberOfCheckpoints--;
+			} else if (!front) {
+				int lastCheckpoint = (firstCheckpoint + numberOfCheckpoints - 1) % checkpoints.length;
+				if (checkpoints[lastCheckpoint] == removedNode) {
+					checkpoints[lastCheckpoint] = null;
+					numberOfCheckpoints--;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Replaces the checkpoints with the current nodes whose keys are multiples of the spacing.
+	 */
+	private void buildCheckpoints() {
+		checkpoints = new Object[Math.max(16, Integer.highestOneBit(numberOfEntries / CHECKPOINT_SPACING + 1) * 2)];
+		firstCheckpoint = 0;
+		numberOfCheckpoints = 0;
+
+		long key = headKey;
+		for (Node current = head; current != null; current = current.getNextNode()) {
+			addCheckpoint(current, key++, false);
+		}
+	}
+
+
+	/**
+	 * Updates the fingerprint for an entry that was just added to one end of the list, if the fingerprint is on. An
+	 * entry added to the back scales every other term up by the base; one added to the front takes the next power.
+	 *
+	 * @param newEntry The entry that was added
+	 * @param front True if the entry was added to the front; false if it was added to the back
+	 */
+	private void addToFingerprint(T newEntry, boolean front) {
+		if (fingerprinted) {
+			if (front) {
+				fingerprint += mix(newEntry) * fingerprintPower;
+			} else {
+				fingerprint = fingerprint * FINGERPRINT_BASE + mix(newEntry);
+			}
+			fingerprintPower *= FINGERPRINT_BASE;
+		}
+	}
+
+
+	/**
+	 * Updates the fingerprint for an entry that was just removed from one end of the list, if the fingerprint is on.
+	 * This undoes addToFingerprint, multiplying by the inverse of the base where that multiplied by the base.
+	 *
+	 * @param removedEntry The entry that was removed
+	 * @param front True if the entry was removed from the front; false if it was removed from the back
+	 */
+	private void removeFromFingerprint(T removedEntry, boolean front) {
+		if (fingerprinted) {
+			fingerprintPower *= FINGERPRINT_BASE_INVERSE;
+			if (front) {
+				fingerprint -= mix(removedEntry) * fingerprintPower;
+			} else {
+				fingerprint = (fingerprint - mix(removedEntry)) * FINGERPRINT_BASE_INVERSE;
+			}
+		}
+	}
+
+
+	// Computes the fingerprint of the entries by walking the list, as if each had been added to the back in turn
+	private long computeFingerprint() {
+		long result = 0;
+		for (Node current = head; current != null; current = current.getNextNode()) {
+			result = result * FINGERPRINT_BASE + mix(current.getData());
+		}
+		return result;
+	}
+
+
+	/**
+	 * Spreads the bits of an entry's hash code over a long, so entries whose hash codes differ in a few bits give
+	 * unrelated terms of the fingerprint.
+	 *
+	 * @param entry An entry of the list, which may be null
+	 * @return The mixed hash code of the entry
+	 */
+	private static long mix(Object entry) {
+		long hash = Objects.hashCode(entry);
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+
+
+	// The multiplicative inverse of an odd number modulo 2^64, by Newton's iteration; each step doubles the correct bits
+	private static long inverse(long odd) {
+		long result = odd;					// Correct to 3 bits, since odd * odd = 1 modulo 8
+		for (int step = 0; step < 5; step++) {
+			result *= 2 - odd * result;
+		}
+		return result;
+	}
+
+
+	// A number raised to a power, modulo 2^64, by repeated squaring
+	private static long power(long base, int exponent) {
+		long result = 1;
+		for (; exponent > 0; exponent >>= 1) {
+			if ((exponent & 1) != 0) {
+				result *= base;
+			}
+			base *= base;
+		}
+		return result;
+	}
+
+
+	/**
+	 * Checks if list is properly initialized.
+	 *
+	 * @throws SecurityException if this object is not initialized
+	 */
+	private void checkInitialization() {
+		if (!initialized) {
+			throw new SecurityException("LinkedFrontBackCappedList object is not initialized properly.");
+		}
+	}
+
+
+	/**
+	 * Determines if given position is a valid position within the bounds of the list.
+	 *
+	 * @param position The position in the list
+	 * @return True if the position is valid; otherwise, returns false.
+	 */
+	private boolean validPosition(int position) {
+		return position >= 0 && position < numberOfEntries;
+
+	}
+
+
+	/**
+	 * Describes a run of nodes in the format of toString, appending each entry to a single builder.
+	 *
+	 * @param first The first node of the run
+	 * @param last The last node of the run
+	 * @param size The number of nodes in the run, which is followed forwards from the first node
+	 * @return The entries of the run, its size, the capacity of the list, and the first and last entries
+	 */
+	private String describe(Node first, Node last, int size) {
+		int entryLength = (size == 0) ? 0 : String.valueOf(first.getData()).length() + 2;
+		StringBuilder result = new StringBuilder((int) Math.min(64L + (long) entryLength * size,
+				Integer.MAX_VALUE - 8));
+
+		result.append('[');
+		Node current = first;
+		for (int index = 0; index < size; index++) {
+			if (index > 0) {
+				result.append(", ");
+				current = current.getNextNode();		// Counted, so a snapshot's last next link is not followed
+			}
+			result.append(current.getData());
+		}
+		result.append("]\tsize=").append(size).append("\tcapacity=").append(capacity);
+
+		if (size > 0) {
+			result.append("\thead=").append(first.getData()).append(" tail=").append(last.getData());
+		}
+
+		return result.toString();
+	}
+
+
+	// Helper method for recursive version of toArray() method
+	private void toArray(Object[] array, int index, Node current) {
+		if (current != null) {				// Recursive case
+			array[index] = current.getData();
+			toArray(array, index + 1, current.getNextNode());
+		}
+	}
+
+
+	/**
+	 * Retrieves a reference to the node at a given position, and moves the cursor to it. The walk starts from the
+	 * cursor if it is nearer than either end of the list and, with the position index on, no more than half the
+	 * checkpoint spacing away. Otherwise it starts from the nearest checkpoint, or positions in the back half of the
+	 * list are reached by walking backwards from the tail.
+	 *
+	 * Precondition: The list is not empty; 0 <= givenPosition < numberOfEntries.
+	 *
+	 * @param givenPosition The position in the list
+	 * @return A reference to the node at the given position
+	 */
+	private Node getNodeAt(int givenPosition) {
+		// Assertion: (head != null) && (0 <= givenPosition) && (givenPosition < numberOfEntries)
+		long key = headKey + givenPosition;
+		Node current = null;
+
+		if (cursor != null) {
+			long distance = Math.abs(key - cursorKey);
+			if (distance < givenPosition && distance < numberOfEntries - 1 - givenPosition
+					&& (numberOfCheckpoints == 0 || distance <= CHECKPOINT_SPACING / 2)) {
+				current = walk(cursor, cursorKey, key);
+			}
+		}
+		if (current == null && numberOfCheckpoints > 0) {
+			current = getNodeFromCheckpoint(givenPosition);
+		}
+
+		if (current == null) {
+			// Traverse the list to locate the desired node (skipped if givenPosition is 0 or the last position)
+			// Iterative version
+			if (givenPosition > numberOfEntries / 2) {
+				current = tail;
+
+				for (int counter = numberOfEntries - 1; counter > givenPosition; counter--) {
+					current = current.getPreviousNode();
+				}
+			} else {
+				current = head;
+
+				for (int counter = 0; counter < givenPosition; counter++) {
+					current = current.getNextNode();
+				}
+			}
+		}
+
+		cursor = current;
+		cursorKey = key;
+		return current;
+
+//		// Recursive version (one stack frame per node; front half only)
+//		return getNodeAt(0, givenPosition, head);
+	}
+
+
+	/**
+	 * Retrieves a reference to the node at a given position by walking from the nearest checkpoint, unless an end of
+	 * the list is at least as near.
+	 *
+	 * Precondition: The list has at least one checkpoint; 0 <= givenPosition < numberOfEntries.
+	 *
+	 * @param givenPosition The position in the list
+	 * @return A reference to the node at the given position, or null if an end of the list is as near
+	 */
+	private Node getNodeFromCheckpoint(int givenPosition) {
+		Node result = null;
+		long key = headKey + givenPosition;
+		long firstKey = Math.floorDiv(headKey + CHECKPOINT_SPACING - 1, CHECKPOINT_SPACING) * CHECKPOINT_SPACING;
+		long index = Math.floorDiv(key - firstKey + CHECKPOINT_SPACING / 2, CHECKPOINT_SPACING);
+		index = Math.max(0, Math.min(numberOfCheckpoints - 1, index));
+		long checkpointKey = firstKey + index * CHECKPOINT_SPACING;
+		long distance = Math.abs(key - checkpointKey);
+
+		if (distance < givenPosition && distance < numberOfEntries - 1 - givenPosition) {
+			@SuppressWarnings("unchecked")		// The array only holds nodes of this list
+			Node checkpoint = (Node) checkpoints[(int) ((firstCheckpoint + index) % checkpoints.length)];
+			result = walk(checkpoint, checkpointKey, key);
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Walks from a node of the list to the node with a given key, forward or backward.
+	 *
+	 * Precondition: Both keys belong to nodes of the list.
+	 *
+	 * @param start The node to walk from
+	 * @param startKey The key of the node to walk from
+	 * @param key The key of the node to reach
+	 * @return A reference to the node with the given key
+	 */
+	private Node walk(Node start, long startKey, long key) {
+		Node result = start;
+
+		for (long counter = startKey; counter < key; counter++) {
+			result = result.getNextNode();
+		}
+		for (long counter = startKey; counter > key; counter--) {
+			result = result.getPreviousNode();
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Forgets the cursor if its node was just removed from an end of the list. Removed nodes are the ones whose keys
+	 * fall outside the keys of the list, until an add reuses those keys.
+	 */
+	private void forgetRemovedCursor() {
+		if (cursor != null && (cursorKey < headKey || cursorKey >= headKey + numberOfEntries)) {
+			cursor = null;
+		}
+	}
+
+	// Helper method for recursive version of getNodeAt(int givenPosition)
+	private Node getNodeAt(int counter, int givenPosition, Node current) {
+		if (counter == givenPosition) {
+			return current;
+		} else {
+			return getNodeAt(counter + 1, givenPosition, current.getNextNode());
+		}
+	}
+
+
+	// Helper method for recursive version of indexOf(T anEntry) method
+	private int indexOf(T anEntry, int position, int index, Node current) {
+		if (current == null) {
+			return position;
+		} else {
+			// Option 1
+			return (current.getData().equals(anEntry) ? index :
+					indexOf(anEntry, position, index + 1, current.getNextNode()));
+
+//			// Option 2
+//			if (current.getData().equals(anEntry)) {
+//				return index;
+//			} else {
+//				return indexOf(anEntry, position, index + 1, current.getNextNode());
+//			}
+		}
+	}
+
+
+	// Helper method for recursive version of lastIndexOf(T anEntry) method
+	private int lastIndexOf(T anEntry, int position, int index, Node current) {
 		if (current == null) {
 			return position;
 		} else if (current.getData().equals(anEntry)) {
@@ -495,13 +1662,13 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 		} else {
 			// Option 1
 			return (index == 0 ? position : lastIndexOf(anEntry, position, index - 1,
-					getNodeAt(index - 1)));
+					current.getPreviousNode()));
 
 //			// Option 2
 //			if (index == 0) {
 //				return position;
 //			} else {
-//				return lastIndexOf(anEntry, position, index - 1, getNodeAt(index - 1));
+//				return lastIndexOf(anEntry, position, index - 1, current.getPreviousNode());
 //			}
 		}
 	}
@@ -525,14 +1692,324 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 			return -1;
 		} else if (other == null) {
 			return 1;
-		} else if (current.getData().compareTo(other.getData()) != 0) {
-			return current.getData().compareTo(other.getData());
 		} else {
-			return compareTo(current.getNextNode(), other.getNextNode());
+			int result = current.getData().compareTo(other.getData());
+			return (result != 0) ? result : compareTo(current.getNextNode(), other.getNextNode());
 		}
 	}
 
 
+	/*
+	****************
+	ITERATOR CLASSES:
+	****************
+	 */
+
+	private class NodeIterator implements Iterator<T> {
+		private Node nextNode;
+		private final boolean forward;			// True to follow next links, false to follow previous links
+		private final int expectedModCount;
+
+		private NodeIterator(Node firstNode, boolean forward) {
+			nextNode = firstNode;
+			this.forward = forward;
+			expectedModCount = modCount;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextNode != null;
+		}
+
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (nextNode == null) {
+				throw new NoSuchElementException("Illegal call to next(); iterator is after end of list.");
+			}
+
+			T result = nextNode.getData();
+			nextNode = forward ? nextNode.getNextNode() : nextNode.getPreviousNode();
+			return result;
+		}
+	} // end NodeIterator
+
+
+	private class NodeSpliterator implements Spliterator<T> {
+		private static final int BATCH_UNIT = 1 << 10;		// Size increment of the batches split off
+		private static final int MAX_BATCH = 1 << 25;		// Largest batch copied into an array
+
+		private Node current;
+		private int remaining;
+		private int batch;
+		private final int expectedModCount;
+
+		private NodeSpliterator(Node firstNode, int size, int expectedModCount) {
+			current = firstNode;
+			remaining = size;
+			this.expectedModCount = expectedModCount;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			boolean result = false;
+
+			if (remaining > 0) {
+				T data = current.getData();
+				current = current.getNextNode();
+				remaining--;
+				action.accept(data);
+				checkForComodification();
+				result = true;
+			}
+
+			return result;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+
+			while (remaining > 0) {
+				action.accept(current.getData());
+				current = current.getNextNode();
+				remaining--;
+			}
+
+			checkForComodification();
+		}
+
+		/*
+		 * Copies the next batch of entries into an array and hands them off as a separate spliterator. Each split
+		 * is larger than the last, so a parallel stream quickly reaches batches that are worth a task each.
+		 */
+		@Override
+		public Spliterator<T> trySplit() {
+			Spliterator<T> result = null;
+
+			if (remaining > 1) {
+				int size = Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), remaining);
+				Object[] array = new Object[size];
+
+				for (int index = 0; index < size; index++) {
+					array[index] = current.getData();
+					current = current.getNextNode();
+				}
+
+				remaining -= size;
+				batch = size;
+				checkForComodification();
+				result = Spliterators.spliterator(array, 0, size, characteristics());
+			}
+
+			return result;
+		}
+
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	} // end NodeSpliterator
+
+
+	private class SnapshotIterator implements Iterator<T> {
+		private Node nextNode;
+		private int remaining;				// Counted, since the last node's next link belongs to the list
+
+		private SnapshotIterator(Node firstNode, int size) {
+			nextNode = firstNode;
+			remaining = size;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public T next() {
+			if (remaining == 0) {
+				throw new NoSuchElementException("Illegal call to next(); iterator is after end of list.");
+			}
+
+			T result = nextNode.getData();
+			remaining--;
+			if (remaining > 0) {
+				nextNode = nextNode.getNextNode();
+			}
+			return result;
+		}
+	} // end SnapshotIterator
+
+
+	/*
+	****************
+	SNAPSHOT CLASS:
+	****************
+	 */
+
+	/**
+	 * An immutable view of the list's entries at one moment. It walks a fixed number of nodes forwards from the
+	 * head it was given and never follows a previous link or the next link of its last node, which are the only
+	 * links the list changes while it shares its nodes.
+	 */
+	private class Snapshot implements FrontBackCappedListInterface<T> {
+		private final Node first, last;
+		private final int size;
+
+		private Snapshot(Node first, Node last, int size) {
+			this.first = first;
+			this.last = last;
+			this.size = size;
+		}
+
+		@Override
+		public boolean addFront(T newEntry) {
+			throw new UnsupportedOperationException("A snapshot cannot be changed.");
+		}
+
+		@Override
+		public boolean addBack(T newEntry) {
+			throw new UnsupportedOperationException("A snapshot cannot be changed.");
+		}
+
+		@Override
+		public T removeFront() {
+			throw new UnsupportedOperationException("A snapshot cannot be changed.");
+		}
+
+		@Override
+		public T removeBack() {
+			throw new UnsupportedOperationException("A snapshot cannot be changed.");
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException("A snapshot cannot be changed.");
+		}
+
+		@Override
+		public int addAllBack(Collection<? extends T> newEntries) {
+			throw new UnsupportedOperationException("A snapshot cannot be changed.");
+		}
+
+		@Override
+		public int addAllFront(Collection<? extends T> newEntries) {
+			throw new UnsupportedOperationException("A snapshot cannot be changed.");
+		}
+
+		@Override
+		public int drainFront(int maxEntries, Consumer<? super T> sink) {
+			throw new UnsupportedOperationException("A snapshot cannot be changed.");
+		}
+
+		@Override
+		public int drainBack(int maxEntries, Consumer<? super T> sink) {
+			throw new UnsupportedOperationException("A snapshot cannot be changed.");
+		}
+
+		@Override
+		public T getEntry(int givenPosition) {
+			T result = null;
+
+			if (givenPosition >= 0 && givenPosition < size) {
+				Node current = first;
+				for (int counter = 0; counter < givenPosition; counter++) {
+					current = current.getNextNode();
+				}
+				result = current.getData();
+			}
+
+			return result;
+		}
+
+		@Override
+		public int indexOf(T anEntry) {
+			int position = -1;
+			Node current = first;
+
+			for (int index = 0; (index < size) && (position < 0); index++) {
+				if (current.getData().equals(anEntry)) {
+					position = index;
+				}
+				current = current.getNextNode();
+			}
+
+			return position;
+		}
+
+		// Scans forwards, as the previous links of shared nodes may have changed
+		@Override
+		public int lastIndexOf(T anEntry) {
+			int position = -1;
+			Node current = first;
+
+			for (int index = 0; index < size; index++) {
+				if (current.getData().equals(anEntry)) {
+					position = index;
+				}
+				current = current.getNextNode();
+			}
+
+			return position;
+		}
+
+		@Override
+		public boolean contains(T anEntry) {
+			return (indexOf(anEntry) >= 0);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return (size == 0);
+		}
+
+		@Override
+		public boolean isFull() {
+			return (size >= capacity);
+		}
+
+		@Override
+		public int getCapacity() {
+			return capacity;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return new SnapshotIterator(first, size);
+		}
+
+		@Override
+		public Spliterator<T> spliterator() {
+			return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+		}
+
+		// The same format as the list's toString
+		public String toString() {
+			return describe(first, last, size);
+		}
+	} // end Snapshot
+
+
 	/*
 	****************
 	NODE CLASS:
@@ -542,15 +2019,18 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 	public class Node {
 		public T data; 
 		public Node next; 
+		public Node prev;
 
 		private Node(T dataPortion) {
 			data = dataPortion;
 			next = null;
+			prev = null;
 		}
 
 		private Node(T dataPortion, Node nextNode) {
 			data = dataPortion;
 			next = nextNode;
+			prev = null;
 		}
 
 		private T getData() {
@@ -568,5 +2048,13 @@ public class LinkedFrontBackCappedList<T extends Comparable<? super T>> implemen
 		private void setNextNode(Node nextNode) {
 			next = nextNode;
 		} 
+
+		private Node getPreviousNode() {
+			return prev;
+		}
+
+		private void setPreviousNode(Node previousNode) {
+			prev = previousNode;
+		}
 	} // end Node
 } // end LinkedFrontBackCappedList
@@ -0,0 +1,228 @@
+/**
+ * A class that implements the ADT list with front or back entry or removal and capped to a given capacity,
+ * using a circular array of fixed-width records in a memory-mapped file, so the list outlives the program.
+ *
+ * The file starts with a 64-byte header that holds a magic number, a format version, the capacity, the entry
+ * width, and the list's state: the slot of the first entry and the number of entries, packed in one 8-byte word.
+ * The slot of the last entry follows from these two. The encoded entries follow the header. Opening an existing
+ * file reads the header and maps the entries where they are, so it takes the same time however long the list is.
+ *
+ * Every change is made in two steps. An added entry is first encoded in a slot outside the list, and then the state
+ * word is replaced in a single aligned write. A crash before that write leaves the list as it was, and a crash after
+ * it leaves the list as changed, so reopening the file never finds a partial change. When that holds depends on the
+ * force policy:
+ *
+ * ON_DEMAND: Writes go to the operating system's page cache, which survives a crash of the program but not of the
+ * machine. Nothing is forced to the storage device except by force(), and the operating system may write pages in
+ * any order, so after a power failure the file may hold any mix of the changes made since the last force().
+ *
+ * EVERY_OPERATION: Before the state word refers to a new entry, the entry's slot is forced to the device, and the
+ * state word is forced before the method returns. Every change is then durable and ordered, at the cost of one or
+ * two device writes per change.
+ *
+ * Only one list should have a file open at a time.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedFileFrontBackCappedList<T> extends OffHeapFrontBackCappedList<T> {
+
+	/**
+	 * When changes to the list are forced from memory to the storage device.
+	 */
+	public enum ForcePolicy {
+		ON_DEMAND, EVERY_OPERATION
+	}
+
+	private static final int MAGIC = 0x4346424C;			// "CFBL"
+	private static final int VERSION = 1;
+	private static final int MAGIC_OFFSET = 0;
+	private static final int VERSION_OFFSET = 4;
+	private static final int CAPACITY_OFFSET = 8;
+	private static final int WIDTH_OFFSET = 12;
+	private static final int STATE_OFFSET = 16;			// Aligned, so the state word is written at once
+	private static final int HEADER_SIZE = 64;
+
+	private final MappedByteBuffer file;					// The header followed by the encoded entries
+	private final ForcePolicy forcePolicy;
+	private final int capacity;
+	private final int width;
+	private long state;										// The state word last written to the header
+
+
+	/**
+	 * Opens the list stored in a file, or creates an empty list in the file if the file is new or empty.
+	 *
+	 * Precondition: Capacity is not negative.
+	 *
+	 * @param path The file that holds the list
+	 * @param capacity Maximum size of list, which must match the capacity of a list already in the file
+	 * @param codec The codec that stores each entry in a fixed number of bytes
+	 * @param forcePolicy When changes are forced to the storage device
+	 * @throws IOException if the file cannot be opened or holds something other than a list of the given capacity
+	 * and entry width
+	 */
+	public MappedFileFrontBackCappedList(Path path, int capacity, FixedWidthCodec<T> codec, ForcePolicy forcePolicy)
+			throws IOException {
+		this(map(path, capacity, codec), codec, forcePolicy);
+	}
+
+
+	/**
+	 * Creates a list over a mapped file whose header has been validated.
+	 *
+	 * @param file The mapped file
+	 * @param codec The codec that stores each entry in a fixed number of bytes
+	 * @param forcePolicy When changes are forced to the storage device
+	 */
+	private MappedFileFrontBackCappedList(MappedByteBuffer file, FixedWidthCodec<T> codec, ForcePolicy forcePolicy) {
+		super(entries(file), codec, file.getInt(CAPACITY_OFFSET), frontIndex(file.getLong(STATE_OFFSET)),
+				numberOfEntries(file.getLong(STATE_OFFSET)));
+		this.file = file;
+		this.forcePolicy = forcePolicy;
+		capacity = file.getInt(CAPACITY_OFFSET);
+		width = codec.width();
+		state = file.getLong(STATE_OFFSET);
+	}
+
+
+	/**
+	 * Forces every change made to the list to the storage device.
+	 */
+	public void force() {
+		file.force();
+	}
+
+
+	/**
+	 * Retrieves the policy for forcing changes to the storage device.
+	 *
+	 * @return The force policy of this list
+	 */
+	public ForcePolicy getForcePolicy() {
+		return forcePolicy;
+	}
+
+
+	/**
+	 * Records a change in the header of the file before it takes effect. Under the EVERY_OPERATION policy, an added
+	 * entry is forced before the header refers to it, and the header is forced after it is written.
+	 *
+	 * @param newFrontIndex The new slot of the first entry
+	 * @param newNumberOfEntries The new number of entries
+	 */
+	@Override
+	protected void commit(int newFrontIndex, int newNumberOfEntries) {
+		if (forcePolicy == ForcePolicy.EVERY_OPERATION) {
+			int oldNumberOfEntries = numberOfEntries(state);
+			if (newNumberOfEntries > oldNumberOfEntries) {
+				int oldFrontIndex = frontIndex(state);
+				int addedSlot = (newFrontIndex != oldFrontIndex) ? newFrontIndex
+						: (int) (((long) oldFrontIndex + oldNumberOfEntries) % capacity);
+				file.force(HEADER_SIZE + addedSlot * width, width);
+			}
+		}
+
+		state = ((long) newFrontIndex << 32) | newNumberOfEntries;
+		VarHandle.storeStoreFence();		// Keeps the compiler from moving the entry's write after the state word's
+		file.putLong(STATE_OFFSET, state);
+
+		if (forcePolicy == ForcePolicy.EVERY_OPERATION) {
+			file.force(0, HEADER_SIZE);
+		}
+
+		super.commit(newFrontIndex, newNumberOfEntries);
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Maps a file that holds a list, writing the header of an empty list if the file is new or empty, and checks
+	 * that the header matches the given capacity and codec.
+	 *
+	 * @param path The file that holds the list
+	 * @param capacity Maximum size of list
+	 * @param codec The codec that stores each entry in a fixed number of bytes
+	 * @return The whole file, mapped for reading and writing
+	 * @throws IOException if the file cannot be opened or does not hold a list of the given capacity and width
+	 */
+	private static MappedByteBuffer map(Path path, int capacity, FixedWidthCodec<?> codec) throws IOException {
+		int entriesSize = checkedSize(capacity, codec);
+		if (entriesSize > Integer.MAX_VALUE - HEADER_SIZE) {
+			throw new IllegalArgumentException("Capacity times entry width is too large to map.");
+		}
+
+		int fileSize = HEADER_SIZE + entriesSize;
+		MappedByteBuffer file;
+
+		// The mapping stays valid after the channel is closed
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			if (channel.size() != 0 && channel.size() != fileSize) {
+				throw new IOException(path + " has " + channel.size() + " bytes, but a list of capacity " + capacity
+						+ " and entry width " + codec.width() + " has " + fileSize + " bytes.");
+			}
+			file = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+		}
+		file.order(ByteOrder.LITTLE_ENDIAN);
+
+		if (file.getInt(MAGIC_OFFSET) == 0) {
+			// A new file, or one whose creation was interrupted: the magic number is written last
+			file.putInt(VERSION_OFFSET, VERSION);
+			file.putInt(CAPACITY_OFFSET, capacity);
+			file.putInt(WIDTH_OFFSET, codec.width());
+			file.putLong(STATE_OFFSET, 0);
+			file.force();
+			file.putInt(MAGIC_OFFSET, MAGIC);
+			file.force();
+		}
+
+		long state = file.getLong(STATE_OFFSET);
+		if (file.getInt(MAGIC_OFFSET) != MAGIC || file.getInt(VERSION_OFFSET) != VERSION) {
+			throw new IOException(path + " does not hold a list of a known version.");
+		}
+		if (file.getInt(CAPACITY_OFFSET) != capacity || file.getInt(WIDTH_OFFSET) != codec.width()) {
+			throw new IOException(path + " holds a list of capacity " + file.getInt(CAPACITY_OFFSET) + " and entry width "
+					+ file.getInt(WIDTH_OFFSET) + ", not " + capacity + " and " + codec.width() + ".");
+		}
+		if (numberOfEntries(state) < 0 || numberOfEntries(state) > capacity
+				|| frontIndex(state) < 0 || (frontIndex(state) >= capacity && capacity > 0)) {
+			throw new IOException(path + " holds a list whose header is corrupt.");
+		}
+
+		return file;
+	}
+
+
+	// The part of a mapped file that holds the encoded entries
+	private static ByteBuffer entries(MappedByteBuffer file) {
+		return file.slice(HEADER_SIZE, file.capacity() - HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+
+	// The slot of the first entry, from a state word
+	private static int frontIndex(long state) {
+		return (int) (state >>> 32);
+	}
+
+
+	// The number of entries, from a state word
+	private static int numberOfEntries(long state) {
+		return (int) state;
+	}
+} // end MappedFileFrontBackCappedList
@@ -0,0 +1,593 @@
+/**
+ * A class that implements the ADT list with front or back entry or removal and capped to a given capacity,
+ * using a circular array of fixed-width records in a direct byte buffer.
+ *
+ * The buffer is allocated outside the Java heap once, at construction, and each entry is encoded into its slot by a
+ * codec. Since the list holds no references to its entries, the garbage collector never traces or copies the
+ * stored entries, and clearing the list only resets its indexes. Entries are decoded into new objects when they are
+ * retrieved, so retrieving the same entry twice may give two equal but distinct objects. Null entries cannot be
+ * stored.
+ *
+ * Every change to the front index or the number of entries is made through commit(int, int), after any entry it
+ * adds has been encoded. Subclasses that keep the list in other memory, such as a mapped file, override it to record
+ * each change before it takes effect.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.function.Consumer;
+
+public class OffHeapFrontBackCappedList<T> implements FrontBackCappedListInterface<T> {
+
+	private final ByteBuffer buffer;		// Circular array of encoded list entries
+	private final FixedWidthCodec<T> codec;
+	private final int width;				// Number of bytes in each slot of the buffer
+	private int frontIndex;					// Slot of the first entry
+	private int numberOfEntries;
+	private final int capacity;
+	private boolean initialized = false;
+	private int modCount = 0;				// Number of structural modifications, checked by iterators
+
+
+	/**
+	 * Creates and initializes an empty list.
+	 *
+	 * Precondition: Capacity is not negative, and capacity times the codec's width fits in an int.
+	 *
+	 * @param capacity Maximum size of list
+	 * @param codec The codec that stores each entry in a fixed number of bytes
+	 */
+	public OffHeapFrontBackCappedList(int capacity, FixedWidthCodec<T> codec) {
+		this(ByteBuffer.allocateDirect(checkedSize(capacity, codec)).order(ByteOrder.nativeOrder()), codec, capacity, 0, 0);
+	}
+
+
+	/**
+	 * Creates a list over a buffer that already holds its entries, for subclasses that provide their own memory.
+	 *
+	 * Precondition: The buffer holds capacity slots of the codec's width, starting at index 0, and the given front
+	 * index and number of entries describe a valid list.
+	 *
+	 * @param buffer The buffer that holds the encoded entries
+	 * @param codec The codec that stores each entry in a fixed number of bytes
+	 * @param capacity Maximum size of list
+	 * @param frontIndex The slot of the first entry
+	 * @param numberOfEntries The number of entries in the buffer
+	 */
+	protected OffHeapFrontBackCappedList(ByteBuffer buffer, FixedWidthCodec<T> codec, int capacity, int frontIndex,
+			int numberOfEntries) {
+		this.buffer = buffer;
+		this.codec = codec;
+		width = codec.width();
+		this.capacity = capacity;
+		this.frontIndex = frontIndex;
+		this.numberOfEntries = numberOfEntries;
+		initialized = true;
+	}
+
+
+	/**
+	 * Adds an entry to the beginning of the list if it is not full. If the entry is successfully added, entries
+	 * currently in the list are shifted back, and the list size is increased by 1.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 * @throws NullPointerException if the entry is null
+	 */
+	@Override
+	public boolean addFront(T newEntry) {
+		checkInitialization();
+		Objects.requireNonNull(newEntry);
+		boolean result = true;
+
+		if (isFull()) {
+			result = false;
+		} else {
+			int newFrontIndex = decrement(frontIndex);
+			codec.write(buffer, newFrontIndex * width, newEntry);		// May throw, so the list is changed after
+			commit(newFrontIndex, numberOfEntries + 1);
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Adds an entry to the end of the list if it is not full. If the entry is successfully added, entries
+	 * currently in the list are unaffected, and the list size is increased by 1.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 * @throws NullPointerException if the entry is null
+	 */
+	@Override
+	public boolean addBack(T newEntry) {
+		checkInitialization();
+		Objects.requireNonNull(newEntry);
+		boolean result = true;
+
+		if (isFull()) {
+			result = false;
+		} else {
+			codec.write(buffer, offset(numberOfEntries), newEntry);
+			commit(frontIndex, numberOfEntries + 1);
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the beginning of the list if the list is not empty. The remaining entries
+	 * are shifted forwards, and the list size is decreased by 1.
+	 *
+	 * @return The removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeFront() {
+		checkInitialization();
+		T result = null;
+
+		if (!(isEmpty())) {
+			result = codec.read(buffer, frontIndex * width);
+			commit(increment(frontIndex), numberOfEntries - 1);
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the end of the list if the list is not empty. The rest of the list is not
+	 * impacted, and the list is decreased by 1.
+	 *
+	 * @return The removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeBack() {
+		checkInitialization();
+		T result = null;
+
+		if (!(isEmpty())) {
+			result = codec.read(buffer, offset(numberOfEntries - 1));
+			commit(frontIndex, numberOfEntries - 1);
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Clears the list to an empty list. The encoded entries are left in the buffer, since they hold no references,
+	 * so clearing takes the same time however many entries the list holds.
+	 */
+	@Override
+	public void clear() {
+		checkInitialization();
+		commit(0, 0);
+		modCount++;
+	}
+
+
+	/**
+	 * Retrieves the entry at a certain position in the list, after determining if the position is valid.
+	 *
+	 * @param givenPosition An integer that indicates the position of the desired entry
+	 * @return The indicated entry or null if the index is out of bounds
+	 */
+	@Override
+	public T getEntry(int givenPosition) {
+		checkInitialization();
+		T result = null;
+
+		if (validPosition(givenPosition)) {
+			result = codec.read(buffer, offset(givenPosition));
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the first index
+	 * is returned.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The first position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int indexOf(T anEntry) {
+		checkInitialization();
+		int position = -1;
+
+		for (int index = 0; (index < numberOfEntries) && (position < 0); index++) {
+			if (codec.matches(buffer, offset(index), anEntry)) {
+				position = index;
+			}
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the last index
+	 * is returned.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The last position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int lastIndexOf(T anEntry) {
+		checkInitialization();
+		int position = -1;
+
+		for (int index = numberOfEntries - 1; (index >= 0) && (position < 0); index--) {
+			if (codec.matches(buffer, offset(index), anEntry)) {
+				position = index;
+			}
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines whether an entry is in the list.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 */
+	@Override
+	public boolean contains(T anEntry) {
+		checkInitialization();
+		return (indexOf(anEntry) >= 0);
+	}
+
+
+	/**
+	 * Retrieves length of the list.
+	 *
+	 * @return Integer number of entries currently in the list.
+	 */
+	@Override
+	public int size() {
+		return numberOfEntries;
+	}
+
+
+	/**
+	 * Determines if the list is empty.
+	 *
+	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return (numberOfEntries == 0);
+	}
+
+
+	/**
+	 * Determines if the list is full.
+	 *
+	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 */
+	@Override
+	public boolean isFull() {
+		return (numberOfEntries >= capacity);
+	}
+
+
+	/**
+	 * Retrieves the capacity of the list, the largest number of entries it can hold.
+	 *
+	 * @return The capacity of the list
+	 */
+	@Override
+	public int getCapacity() {
+		return capacity;
+	}
+
+
+	/**
+	 * Creates an iterator over the entries from the front to the back of the list. The iterator throws a
+	 * ConcurrentModificationException if the list is structurally modified after the iterator was created.
+	 *
+	 * @return An iterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		checkInitialization();
+		return new BufferSpliterator(0, numberOfEntries, modCount);
+	}
+
+
+	/**
+	 * Creates a spliterator over the entries in the list. Since any position can be reached in constant time, the
+	 * spliterator splits its range of positions exactly in half.
+	 *
+	 * @return A SIZED and ORDERED spliterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		checkInitialization();
+		return new BufferSpliterator(0, numberOfEntries, modCount);
+	}
+
+
+	/**
+	 * Decodes the entries in the list, in order, into a new array.
+	 *
+	 * @return An array containing all the entries in the list
+	 */
+	@Override
+	public Object[] toArray() {
+		checkInitialization();
+		Object[] result = new Object[numberOfEntries];
+
+		for (int index = 0; index < numberOfEntries; index++) {
+			result[index] = codec.read(buffer, offset(index));
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Decodes the entries in the list, in order, into an array, starting at the given index of the array.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 * @throws IndexOutOfBoundsException if the entries do not fit in the array from the given index
+	 */
+	@Override
+	public void copyInto(T[] dest, int from) {
+		checkInitialization();
+		Objects.checkFromIndexSize(from, numberOfEntries, dest.length);
+
+		for (int index = 0; index < numberOfEntries; index++) {
+			dest[from + index] = codec.read(buffer, offset(index));
+		}
+	}
+
+
+	/**
+	 * Decodes each entry and performs an action on it, from the front to the back of the list, without creating an
+	 * iterator.
+	 *
+	 * @param action The action to perform on each entry
+	 * @throws ConcurrentModificationException if the action structurally modifies the list
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		checkInitialization();
+		Objects.requireNonNull(action);
+		int expectedModCount = modCount;
+
+		for (int index = 0; (index < numberOfEntries) && (modCount == expectedModCount); index++) {
+			action.accept(codec.read(buffer, offset(index)));
+		}
+
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+
+	/**
+	 * Retrieves the entries in the list, number of entries, and capacity of the list. If the list is not empty, the
+	 * entries at the front and back of the list are retrieved. The entries are decoded straight into a single
+	 * builder, sized for entries as long as the first one.
+	 *
+	 * @return String representation of the list, with number of elements, capacity of the list, and entries at the
+	 * head and tail, if applicable
+	 */
+	public String toString() {
+		checkInitialization();
+		int entryLength = isEmpty() ? 0 : String.valueOf(getEntry(0)).length() + 2;
+		StringBuilder result = new StringBuilder((int) Math.min(64L + (long) entryLength * numberOfEntries,
+				Integer.MAX_VALUE - 8));
+
+		result.append('[');
+		for (int index = 0; index < numberOfEntries; index++) {
+			if (index > 0) {
+				result.append(", ");
+			}
+			result.append(codec.read(buffer, offset(index)));
+		}
+		result.append("]\tsize=").append(numberOfEntries).append("\tcapacity=").append(capacity);
+
+		if (!isEmpty()) {
+			result.append("\thead=").append(getEntry(0)).append(" tail=").append(getEntry(numberOfEntries - 1));
+		}
+
+		return result.toString();
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Computes the number of bytes needed to store a list, after determining if the capacity is valid.
+	 *
+	 * @param capacity Maximum size of list
+	 * @param codec The codec that stores each entry in a fixed number of bytes
+	 * @return The number of bytes in capacity slots of the codec's width
+	 * @throws IllegalArgumentException if the capacity is negative or the slots would not fit in a buffer
+	 */
+	protected static int checkedSize(int capacity, FixedWidthCodec<?> codec) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative.");
+		}
+		if ((long) capacity * codec.width() > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Capacity times entry width cannot exceed " + Integer.MAX_VALUE + " bytes.");
+		}
+
+		return capacity * codec.width();
+	}
+
+
+	/**
+	 * Changes the slot of the first entry and the number of entries. Any entry the change adds has already been
+	 * encoded in its slot, and any entry it removes has already been decoded.
+	 *
+	 * @param newFrontIndex The new slot of the first entry
+	 * @param newNumberOfEntries The new number of entries
+	 */
+	protected void commit(int newFrontIndex, int newNumberOfEntries) {
+		frontIndex = newFrontIndex;
+		numberOfEntries = newNumberOfEntries;
+	}
+
+
+	/**
+	 * Checks if list is properly initialized.
+	 *
+	 * @throws SecurityException if this object is not initialized
+	 */
+	private void checkInitialization() {
+		if (!initialized) {
+			throw new SecurityException("OffHeapFrontBackCappedList object is not initialized properly.");
+		}
+	}
+
+
+	/**
+	 * Determines if given position is a valid position within the bounds of the list.
+	 *
+	 * @param position The position in the list
+	 * @return True if the position is valid; otherwise, returns false.
+	 */
+	private boolean validPosition(int position) {
+		return position >= 0 && position < numberOfEntries;
+	}
+
+
+	/**
+	 * Translates a position in the list to the offset in the buffer of its slot.
+	 *
+	 * Precondition: 0 <= position <= numberOfEntries < capacity or 0 <= position < numberOfEntries.
+	 *
+	 * @param position The position in the list
+	 * @return The index in the buffer of the first byte of the entry at the given position
+	 */
+	private int offset(int position) {
+		int index = frontIndex + position;		// Cannot overflow: both operands are below capacity
+		return ((index >= capacity) ? index - capacity : index) * width;
+	}
+
+
+	// Advances a slot index by one, wrapping around at the end of the buffer
+	private int increment(int index) {
+		return (index + 1 == capacity) ? 0 : index + 1;
+	}
+
+
+	// Moves a slot index back by one, wrapping around at the beginning of the buffer
+	private int decrement(int index) {
+		return (index == 0) ? capacity - 1 : index - 1;
+	}
+
+
+	/*
+	****************
+	ITERATOR CLASS:
+	****************
+	 */
+
+	/*
+	 * Traverses a range of positions in the list. Serves as both the iterator and the spliterator of the list.
+	 */
+	private class BufferSpliterator implements Iterator<T>, Spliterator<T> {
+		private int position;					// Position of the next entry to traverse
+		private final int fence;				// One past the last position to traverse
+		private final int expectedModCount;
+
+		private BufferSpliterator(int origin, int fence, int expectedModCount) {
+			position = origin;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return position < fence;
+		}
+
+		@Override
+		public T next() {
+			checkForComodification();
+			if (position >= fence) {
+				throw new NoSuchElementException("Illegal call to next(); iterator is after end of list.");
+			}
+
+			return codec.read(buffer, offset(position++));
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			boolean result = false;
+
+			if (position < fence) {
+				action.accept(codec.read(buffer, offset(position++)));
+				checkForComodification();
+				result = true;
+			}
+
+			return result;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+
+			while (position < fence) {
+				action.accept(codec.read(buffer, offset(position++)));
+			}
+
+			checkForComodification();
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			Spliterator<T> result = null;
+			int middle = (position + fence) >>> 1;
+
+			if (position < middle) {
+				result = new BufferSpliterator(position, middle, expectedModCount);
+				position = middle;
+			}
+
+			return result;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - position;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	} // end BufferSpliterator
+} // end OffHeapFrontBackCappedList
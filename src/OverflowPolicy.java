@@ -0,0 +1,26 @@
+/**
+ * What a capped list does when an entry is added while the list is full.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+public enum OverflowPolicy {
+
+	/**
+	 * The add does nothing and returns false, so the list keeps its oldest entries.
+	 */
+	REJECT,
+
+	/**
+	 * The entry at the opposite end of the list is evicted to make room: addBack evicts the first entry, and
+	 * addFront evicts the last entry. The add returns true, so the list keeps its newest entries, like a sliding
+	 * window. A list with capacity 0 has nothing to evict and rejects the add.
+	 */
+	EVICT_OPPOSITE_END,
+
+	/**
+	 * The add waits until another thread removes an entry. Only lists that are shared between threads support it.
+	 */
+	BLOCK
+}
@@ -0,0 +1,1224 @@
+/**
+ * Measures the operations of FrontBackCappedListInterface implementations and writes the results as JSON, so runs
+ * of different implementations or revisions can be compared for regressions.
+ *
+ * Each benchmark is warmed up until the JIT has compiled it, then timed in batches large enough that the cost of
+ * reading the clock is negligible. Results are reported in nanoseconds per operation, and also in megabytes per
+ * second for operations that write or read a stream.
+ *
+ * Usage: java -Xmx4g ProjectCBenchmark [suites=operations,contention,handoff,readers,search,codec] [capacities=10,1000,100000,10000000]
+ *            [threads=1,2,4,8] [json=results.json]
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.*;
+
+public class ProjectCBenchmark {
+
+	private static final long WARMUP_NANOS = 200_000_000L;
+	private static final long MEASURE_NANOS = 500_000_000L;
+	private static final int MEASURE_ITERATIONS = 5;
+	private static final int DISTINCT_VALUES = 1 << 16;	// Payloads are reused so large lists fit in memory
+	private static final int BULK_SIZE = 64;				// Entries added and drained by each bulk call
+
+	private static volatile int sink;						// Consumes results so the JIT cannot discard work
+
+	private final List<Result> results = new ArrayList<>();
+
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Map<String, String> options = parseOptions(args);
+		int[] capacities = parseInts(options.getOrDefault("capacities", "10,1000,100000,10000000"));
+		int[] threadCounts = parseInts(options.getOrDefault("threads", "1,2,4,8"));
+		ProjectCBenchmark benchmark = new ProjectCBenchmark();
+
+		for (String suite : options.getOrDefault("suites", "operations").split(",")) {
+			switch (suite) {
+				case "operations":
+					benchmark.benchmarkOperations(capacities, Payload.INTEGER);
+					benchmark.benchmarkOperations(capacities, Payload.STRING);
+					break;
+				case "contention":
+					benchmark.benchmarkContention(threadCounts);
+					break;
+				case "handoff":
+					benchmark.benchmarkHandoff(100_000);
+					break;
+				case "readers":
+					benchmark.benchmarkReaders(threadCounts);
+					break;
+				case "search":
+					benchmark.benchmarkSearch(threadCounts);
+					break;
+				case "codec":
+					benchmark.benchmarkCodec(capacities);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown benchmark suite: " + suite);
+			}
+		}
+
+		String json = benchmark.toJson();
+		if (options.containsKey("json")) {
+			try (Writer writer = new FileWriter(options.get("json"))) {
+				writer.write(json);
+			}
+		} else {
+			System.out.println(json);
+		}
+	}
+
+
+	/*
+	****************
+	BENCHMARK SUITES:
+	****************
+	 */
+
+	/**
+	 * Benchmarks every operation of the interface on each implementation and on an ArrayDeque baseline. Adds and
+	 * removes are timed in pairs on a half-full list, so the list's size stays constant however long the benchmark
+	 * runs. Searches look for an entry that is not in the list, which is the worst case.
+	 *
+	 * @param capacities The capacities of the lists to benchmark
+	 * @param payload The kind of entries the lists hold
+	 */
+	private <T extends Comparable<? super T>> void benchmarkOperations(int[] capacities, Payload<T> payload) {
+		Map<String, IntFunction<FrontBackCappedListInterface<T>>> implementations = new LinkedHashMap<>();
+		implementations.put("LinkedFrontBackCappedList", LinkedFrontBackCappedList::new);
+		implementations.put("ArrayFrontBackCappedList", ArrayFrontBackCappedList::new);
+		implementations.put("OffHeapFrontBackCappedList", size -> new OffHeapFrontBackCappedList<>(size, payload.codec));
+		implementations.put("UnrolledFrontBackCappedList", UnrolledFrontBackCappedList::new);
+		// The overhead of instrumentation is the difference from the array list it decorates
+		implementations.put("InstrumentedFrontBackCappedList", size -> new InstrumentedFrontBackCappedList<>(
+				new ArrayFrontBackCappedList<>(size)));
+		implementations.put("InstrumentedFrontBackCappedList with histograms", size -> {
+			InstrumentedFrontBackCappedList<T> instrumented = new InstrumentedFrontBackCappedList<>(
+					new ArrayFrontBackCappedList<>(size));
+			instrumented.setLatencyHistograms(true);
+			return instrumented;
+		});
+		implementations.put("ArrayDeque", ArrayDequeBaseline::new);
+
+		// The cast is safe because the array only holds payload values
+		@SuppressWarnings("unchecked")
+		T[] bulk = (T[]) new Comparable[BULK_SIZE];
+		for (int index = 0; index < BULK_SIZE; index++) {
+			bulk[index] = payload.value(index);
+		}
+
+		for (int capacity : capacities) {
+			T value = payload.value(0);
+			T missing = payload.missing();
+
+			for (Map.Entry<String, IntFunction<FrontBackCappedListInterface<T>>> implementation : implementations.entrySet()) {
+				FrontBackCappedListInterface<T> list = implementation.getValue().apply(capacity);
+				fill(list, payload, capacity / 2);
+				int middle = list.size() / 2;
+				String name = implementation.getKey();
+
+				record(name, payload, capacity, "addFront+removeFront", () -> {
+					list.addFront(value);
+					return list.removeFront().hashCode();
+				});
+				record(name, payload, capacity, "addBack+removeBack", () -> {
+					list.addBack(value);
+					return list.removeBack().hashCode();
+				});
+				record(name, payload, capacity, "addFront+removeBack", () -> {
+					list.addFront(value);
+					return list.removeBack().hashCode();
+				});
+				record(name, payload, capacity, "addBack+removeFront", () -> {
+					list.addBack(value);
+					return list.removeFront().hashCode();
+				});
+				record(name, payload, capacity, "addAllBack+drainFront x" + BULK_SIZE, () -> {
+					int added = list.addAllBack(bulk);
+					return list.drainFront(added, entry -> { });
+				});
+				record(name, payload, capacity, "addAllFront+drainBack x" + BULK_SIZE, () -> {
+					int added = list.addAllFront(bulk);
+					return list.drainBack(added, entry -> { });
+				});
+				if (!list.isEmpty()) {
+					// Positions spread over the list, so no list answers every call from the node it reached last
+					int size = list.size();
+					int[] position = {middle};
+					record(name, payload, capacity, "getEntry", () -> {
+						position[0] = (position[0] + 7919) % size;
+						return list.getEntry(position[0]).hashCode();
+					});
+				}
+				record(name, payload, capacity, "indexOf", () -> list.indexOf(missing));
+				record(name, payload, capacity, "lastIndexOf", () -> list.lastIndexOf(missing));
+				record(name, payload, capacity, "contains", () -> list.contains(missing) ? 1 : 0);
+				benchmarkExports(name, payload, capacity, list);
+			}
+
+			// The export paths of java.util.ArrayList, as a baseline for the lists' exports
+			List<T> arrayList = new ArrayList<>(capacity);
+			for (int index = 0; index < capacity / 2; index++) {
+				arrayList.add(payload.value(index));
+			}
+			// The cast is safe because the array only holds payload values
+			@SuppressWarnings("unchecked")
+			T[] arrayListExport = (T[]) new Comparable[arrayList.size()];
+			record("ArrayList", payload, capacity, "toArray", () -> arrayList.toArray().length);
+			record("ArrayList", payload, capacity, "toArray(T[])", () -> arrayList.toArray(arrayListExport).length);
+			record("ArrayList", payload, capacity, "forEach", () -> {
+				int[] hash = {0};
+				arrayList.forEach(entry -> hash[0] += entry.hashCode());
+				return hash[0];
+			});
+			record("ArrayList", payload, capacity, "toString", () -> arrayList.toString().length());
+
+			LinkedFrontBackCappedList<T> listA = new LinkedFrontBackCappedList<>(capacity);
+			LinkedFrontBackCappedList<T> listB = new LinkedFrontBackCappedList<>(capacity);
+			fill(listA, payload, capacity);
+			fill(listB, payload, capacity);
+			record("LinkedFrontBackCappedList", payload, capacity, "compareTo", () -> listA.compareTo(listB));
+			record("LinkedFrontBackCappedList", payload, capacity, "equals", () -> listA.equals(listB) ? 1 : 0);
+			record("LinkedFrontBackCappedList", payload, capacity, "hashCode", () -> listA.hashCode());
+
+			// The same lists with fingerprints, with the last entry of one replaced so equals has to decide
+			LinkedFrontBackCappedList<T> fingerprintedA = new LinkedFrontBackCappedList<>(capacity);
+			LinkedFrontBackCappedList<T> fingerprintedB = new LinkedFrontBackCappedList<>(capacity);
+			fill(fingerprintedA, payload, capacity);
+			fill(fingerprintedB, payload, capacity);
+			fingerprintedA.setFingerprinting(true);
+			fingerprintedB.setFingerprinting(true);
+			if (capacity > 0) {
+				fingerprintedB.removeBack();
+				fingerprintedB.addBack(missing);
+			}
+			record("LinkedFrontBackCappedList fingerprinted", payload, capacity, "compareTo",
+					() -> fingerprintedA.compareTo(fingerprintedB));
+			record("LinkedFrontBackCappedList fingerprinted", payload, capacity, "equals",
+					() -> fingerprintedA.equals(fingerprintedB) ? 1 : 0);
+			record("LinkedFrontBackCappedList fingerprinted", payload, capacity, "hashCode",
+					() -> fingerprintedA.hashCode());
+			record("LinkedFrontBackCappedList fingerprinted", payload, capacity, "addBack+removeFront", () -> {
+				fingerprintedA.removeFront();
+				return fingerprintedA.addBack(value) ? 1 : 0;
+			});
+
+			// Positions spread over the whole list, reached by walking from an end or from the nearest checkpoint
+			if (capacity > 0) {
+				LinkedFrontBackCappedList<T> walked = new LinkedFrontBackCappedList<>(capacity);
+				LinkedFrontBackCappedList<T> positionIndexed = new LinkedFrontBackCappedList<>(capacity);
+				fill(walked, payload, capacity);
+				fill(positionIndexed, payload, capacity);
+				positionIndexed.setPositionIndexed(true);
+				int[] position = {0};
+				record("LinkedFrontBackCappedList", payload, capacity, "getEntry spread", () -> {
+					position[0] = (position[0] + 7919) % capacity;
+					return walked.getEntry(position[0]).hashCode();
+				});
+				record("LinkedFrontBackCappedList position-indexed", payload, capacity, "getEntry spread", () -> {
+					position[0] = (position[0] + 7919) % capacity;
+					return positionIndexed.getEntry(position[0]).hashCode();
+				});
+
+				// Loops over the positions in order, and steps of up to 8 positions either way around a moving position
+				int[] next = {0};
+				record("LinkedFrontBackCappedList", payload, capacity, "getEntry sequential", () -> {
+					next[0] = (next[0] + 1) % capacity;
+					return walked.getEntry(next[0]).hashCode();
+				});
+				record("LinkedFrontBackCappedList position-indexed", payload, capacity, "getEntry sequential", () -> {
+					next[0] = (next[0] + 1) % capacity;
+					return positionIndexed.getEntry(next[0]).hashCode();
+				});
+				Random steps = new Random(1);
+				record("LinkedFrontBackCappedList", payload, capacity, "getEntry nearby", () -> {
+					next[0] = Math.floorMod(next[0] + steps.nextInt(17) - 7, capacity);
+					return walked.getEntry(next[0]).hashCode();
+				});
+				record("LinkedFrontBackCappedList position-indexed", payload, capacity, "addBack+removeFront", () -> {
+					positionIndexed.removeFront();
+					return positionIndexed.addBack(value) ? 1 : 0;
+				});
+			}
+
+			LinkedFrontBackCappedList<T> window = new LinkedFrontBackCappedList<>(capacity);
+			window.setOverflowPolicy(OverflowPolicy.EVICT_OPPOSITE_END);
+			window.setNodeRecycling(true);
+			fill(window, payload, capacity);
+			record("LinkedFrontBackCappedList", payload, capacity, "addBack evicting", () -> window.addBack(value) ? 1 : 0);
+
+			if (payload == Payload.INTEGER) {
+				benchmarkIntOperations(capacity);
+				benchmarkAggregates(capacity);
+			}
+			benchmarkTopK(payload, capacity);
+		}
+	}
+
+
+	/**
+	 * Benchmarks the ways of reading a whole list at once: copying it to a new array or into an existing one,
+	 * passing each entry to an action, and describing it as a string.
+	 *
+	 * @param name The name of the implementation being measured
+	 * @param payload The kind of entries the list holds
+	 * @param capacity The capacity of the list
+	 * @param list The list to export, whose size is unchanged by the exports
+	 */
+	private <T extends Comparable<? super T>> void benchmarkExports(String name, Payload<T> payload, int capacity,
+			FrontBackCappedListInterface<T> list) {
+		// The cast is safe because the array only holds payload values
+		@SuppressWarnings("unchecked")
+		T[] export = (T[]) new Comparable[list.size()];
+
+		record(name, payload, capacity, "toArray", () -> list.toArray().length);
+		record(name, payload, capacity, "toArray(T[])", () -> list.toArray(export).length);
+		record(name, payload, capacity, "copyInto", () -> {
+			list.copyInto(export, 0);
+			return export.length;
+		});
+		record(name, payload, capacity, "forEach", () -> {
+			int[] hash = {0};
+			list.forEach(entry -> hash[0] += entry.hashCode());
+			return hash[0];
+		});
+		record(name, payload, capacity, "toString", () -> list.toString().length());
+	}
+
+
+	/**
+	 * Benchmarks the same operations on a list of unboxed ints, for comparison with the lists of Integers.
+	 *
+	 * @param capacity The capacity of the list to benchmark
+	 */
+	private void benchmarkIntOperations(int capacity) {
+		IntFrontBackCappedList list = new IntFrontBackCappedList(capacity);
+		for (int index = 0; index < capacity / 2; index++) {
+			list.addBack(index % DISTINCT_VALUES);
+		}
+		int size = list.size();
+		String name = "IntFrontBackCappedList";
+
+		record(name, Payload.INTEGER, capacity, "addFront+removeFront", () -> {
+			list.addFront(0);
+			return list.removeFront();
+		});
+		record(name, Payload.INTEGER, capacity, "addBack+removeBack", () -> {
+			list.addBack(0);
+			return list.removeBack();
+		});
+		record(name, Payload.INTEGER, capacity, "addFront+removeBack", () -> {
+			list.addFront(0);
+			return list.removeBack();
+		});
+		record(name, Payload.INTEGER, capacity, "addBack+removeFront", () -> {
+			list.addBack(0);
+			return list.removeFront();
+		});
+		if (!list.isEmpty()) {
+			int[] position = {size / 2};		// The same positions as the lists of Integers read
+			record(name, Payload.INTEGER, capacity, "getEntry", () -> {
+				position[0] = (position[0] + 7919) % size;
+				return list.getEntry(position[0]);
+			});
+		}
+		record(name, Payload.INTEGER, capacity, "indexOf", () -> list.indexOf(-1));
+		record(name, Payload.INTEGER, capacity, "lastIndexOf", () -> list.lastIndexOf(-1));
+		record(name, Payload.INTEGER, capacity, "contains", () -> list.contains(-1) ? 1 : 0);
+	}
+
+
+	/**
+	 * Benchmarks lists shared by several threads. Half of the threads add to the back and remove from the front,
+	 * the other half add to the front and remove from the back, so the threads contend at both ends. The thread-safe
+	 * list is compared with an array list whose every method is synchronized on the list.
+	 *
+	 * @param threadCounts The numbers of threads to run
+	 */
+	private void benchmarkContention(int[] threadCounts) throws InterruptedException {
+		int capacity = 1024;
+		Map<String, IntFunction<FrontBackCappedListInterface<Integer>>> implementations = new LinkedHashMap<>();
+		implementations.put("ConcurrentFrontBackCappedList", ConcurrentFrontBackCappedList::new);
+		implementations.put("synchronized ArrayFrontBackCappedList",
+				size -> new SynchronizedList<>(new ArrayFrontBackCappedList<>(size)));
+
+		for (int threads : threadCounts) {
+			for (Map.Entry<String, IntFunction<FrontBackCappedListInterface<Integer>>> implementation : implementations.entrySet()) {
+				FrontBackCappedListInterface<Integer> list = implementation.getValue().apply(capacity);
+				fill(list, Payload.INTEGER, capacity / 2);
+				Integer value = Payload.INTEGER.value(0);
+
+				IntFunction<Runnable> worker = id -> () -> {
+					if ((id & 1) == 0) {
+						if (list.addBack(value)) {
+							list.removeFront();
+						}
+					} else {
+						if (list.addFront(value)) {
+							list.removeBack();
+						}
+					}
+				};
+
+				runThreads(threads, worker, WARMUP_NANOS);
+				double nanosPerPair = runThreads(threads, worker, MEASURE_NANOS);
+				results.add(new Result(implementation.getKey(), Payload.INTEGER.name, capacity,
+						"add+remove under contention", threads, nanosPerPair));
+				System.err.println(results.get(results.size() - 1));
+			}
+		}
+	}
+
+
+	/**
+	 * Measures the latency of handing an entry from a producer thread to a consumer thread, from the moment the
+	 * producer adds it to the moment the consumer has removed it. The producer pauses between entries so the
+	 * consumer usually finds the list empty and has to wait. A consumer that parks in takeFront is compared with one
+	 * that spins on removeFront.
+	 *
+	 * @param handoffs The number of entries to hand off; the first tenth are discarded as warmup
+	 */
+	private void benchmarkHandoff(int handoffs) throws InterruptedException {
+		int capacity = 1024;
+
+		for (boolean blocking : new boolean[] {true, false}) {
+			ConcurrentFrontBackCappedList<Long> list = new ConcurrentFrontBackCappedList<>(capacity);
+			long[] latencies = new long[handoffs];
+
+			Thread consumer = new Thread(() -> {
+				try {
+					for (int index = 0; index < handoffs; index++) {
+						Long sent;
+						if (blocking) {
+							sent = list.takeFront();
+						} else {
+							while ((sent = list.removeFront()) == null) {
+								Thread.onSpinWait();
+							}
+						}
+						latencies[index] = System.nanoTime() - sent;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			consumer.start();
+
+			for (int index = 0; index < handoffs; index++) {
+				list.putBack(System.nanoTime());
+				long pauseEnd = System.nanoTime() + 20_000;		// Let the consumer run out of entries
+				while (System.nanoTime() < pauseEnd) {
+					Thread.onSpinWait();
+				}
+			}
+			consumer.join();
+
+			long[] measured = Arrays.copyOfRange(latencies, handoffs / 10, handoffs);
+			Arrays.sort(measured);
+			String implementation = "ConcurrentFrontBackCappedList " + (blocking ? "takeFront" : "spinning removeFront");
+			String[] labels = {"p50", "p90", "p99", "p99.9", "max"};
+			double[] percentiles = {50, 90, 99, 99.9, 100};
+			for (int label = 0; label < labels.length; label++) {
+				int index = (int) Math.ceil(percentiles[label] / 100 * measured.length) - 1;
+				results.add(new Result(implementation, "Long", capacity, "handoff latency " + labels[label], 2,
+						measured[Math.max(0, index)]));
+				System.err.println(results.get(results.size() - 1));
+			}
+		}
+	}
+
+
+	/**
+	 * Measures how reads scale with the number of reader threads while one writer thread slides a half-full list
+	 * forwards, adding to the back and removing from the front. Readers of the copy-on-write list read the snapshot
+	 * published by the writer's latest change and never wait for the writer; readers of the synchronized list take
+	 * the list's lock, which the writer also takes. The reported time is the elapsed time per read of all readers.
+	 *
+	 * @param threadCounts The numbers of reader threads to run
+	 */
+	private void benchmarkReaders(int[] threadCounts) throws InterruptedException {
+		int capacity = 1024;
+		Integer value = Payload.INTEGER.value(0);
+
+		for (int threads : threadCounts) {
+			for (boolean copyOnWrite : new boolean[] {true, false}) {
+				LinkedFrontBackCappedList<Integer> linkedList = new LinkedFrontBackCappedList<>(capacity);
+				FrontBackCappedListInterface<Integer> list = copyOnWrite ? linkedList : new SynchronizedList<>(linkedList);
+				fill(list, Payload.INTEGER, capacity / 2);
+				linkedList.setCopyOnWriteReads(copyOnWrite);
+				int middle = capacity / 4;
+
+				AtomicBoolean writing = new AtomicBoolean(true);
+				Thread writer = new Thread(() -> {
+					while (writing.get()) {
+						list.addBack(value);
+						list.removeFront();
+					}
+				});
+				writer.start();
+
+				// A read that finds no entry would mean a torn list, and checking the result keeps the read
+				IntFunction<Runnable> reader = id -> () -> {
+					FrontBackCappedListInterface<Integer> view = copyOnWrite ? linkedList.getPublishedSnapshot() : list;
+					if (view.getEntry(middle) == null) {
+						throw new IllegalStateException("Read a list with no middle entry.");
+					}
+				};
+
+				runThreads(threads, reader, WARMUP_NANOS);
+				double nanosPerRead = runThreads(threads, reader, MEASURE_NANOS);
+				writing.set(false);
+				writer.join();
+
+				String implementation = copyOnWrite ? "LinkedFrontBackCappedList copy-on-write snapshot"
+						: "synchronized LinkedFrontBackCappedList";
+				results.add(new Result(implementation, Payload.INTEGER.name, capacity, "getEntry with one writer",
+						threads, nanosPerRead));
+				System.err.println(results.get(results.size() - 1));
+			}
+		}
+	}
+
+
+	/**
+	 * Benchmarks one tick of a sliding window of Integers: an entry is added to the back of a full list that evicts
+	 * its first entry, and then the window's sum, smallest and largest entries are read. The aggregating list keeps
+	 * them up to date; the baseline finds them by scanning the list with getEntry, so it stops at 100000 entries.
+	 *
+	 * @param capacity The capacity of the window
+	 */
+	private void benchmarkAggregates(int capacity) {
+		if (capacity > 0) {
+			int[] next = {0};
+			LinkedFrontBackCappedList<Integer> window = new LinkedFrontBackCappedList<>(capacity);
+			window.setOverflowPolicy(OverflowPolicy.EVICT_OPPOSITE_END);
+			window.setNodeRecycling(true);
+			AggregatingFrontBackCappedList<Integer> aggregating = new AggregatingFrontBackCappedList<>(window);
+			fill(aggregating, Payload.INTEGER, capacity);
+			record("AggregatingFrontBackCappedList", Payload.INTEGER, capacity, "addBack evicting+aggregates", () -> {
+				aggregating.addBack(Payload.INTEGER.value(next[0]++));
+				return (int) aggregating.getSum() + aggregating.getMin() + aggregating.getMax();
+			});
+		}
+
+		if (capacity > 0 && capacity <= 100_000) {
+			int[] next = {0};
+			ArrayFrontBackCappedList<Integer> window = new ArrayFrontBackCappedList<>(capacity);
+			fill(window, Payload.INTEGER, capacity);
+			record("ArrayFrontBackCappedList", Payload.INTEGER, capacity, "addBack evicting+scan", () -> {
+				window.removeFront();
+				window.addBack(Payload.INTEGER.value(next[0]++));
+				long sum = 0;
+				int min = Integer.MAX_VALUE;
+				int max = Integer.MIN_VALUE;
+				for (int position = 0; position < window.size(); position++) {
+					int entry = window.getEntry(position);
+					sum += entry;
+					min = Math.min(min, entry);
+					max = Math.max(max, entry);
+				}
+				return (int) sum + min + max;
+			});
+		}
+	}
+
+
+	/**
+	 * Benchmarks keeping the largest entries of a stream of random entries in a full sorted list that replaces its
+	 * smallest entry, against an ArrayList sorted again after every entry, and the sorted list's removals at either
+	 * end. Sorting a large ArrayList after every entry takes too long, so that baseline stops at 100000 entries.
+	 *
+	 * @param payload The type of entries to store
+	 * @param capacity The number of largest entries to keep
+	 */
+	private <T extends Comparable<? super T>> void benchmarkTopK(Payload<T> payload, int capacity) {
+		int[] stream = new Random(933).ints(DISTINCT_VALUES, 0, DISTINCT_VALUES).toArray();
+		int[] next = {0};
+
+		SortedCappedList<T> topK = new SortedCappedList<>(capacity);
+		topK.setReplacingMin(true);
+		for (int index = 0; index < capacity; index++) {
+			topK.add(payload.value(stream[index & (DISTINCT_VALUES - 1)]));
+		}
+		record("SortedCappedList replacing min", payload, capacity, "add to full list",
+				() -> topK.add(payload.value(stream[next[0]++ & (DISTINCT_VALUES - 1)])) ? 1 : 0);
+		if (capacity > 0) {
+			record("SortedCappedList", payload, capacity, "removeMin+add", () -> {
+				T removed = topK.removeMin();
+				return topK.add(removed) ? 1 : 0;
+			});
+			record("SortedCappedList", payload, capacity, "removeMax+add", () -> {
+				T removed = topK.removeMax();
+				return topK.add(removed) ? 1 : 0;
+			});
+		}
+
+		if (capacity > 0 && capacity <= 100_000) {
+			List<T> sorted = new ArrayList<>(capacity);
+			for (int index = 0; index < capacity; index++) {
+				sorted.add(payload.value(stream[index & (DISTINCT_VALUES - 1)]));
+			}
+			Collections.sort(sorted);
+			record("ArrayList sorted after every entry", payload, capacity, "add to full list", () -> {
+				T value = payload.value(stream[next[0]++ & (DISTINCT_VALUES - 1)]);
+				boolean added = value.compareTo(sorted.get(0)) > 0;
+				if (added) {
+					sorted.set(0, value);
+					Collections.sort(sorted);
+				}
+				return added ? 1 : 0;
+			});
+		}
+	}
+
+
+	/**
+	 * Measures how searches of a long array list scale with the number of threads searching it. Each search looks
+	 * for an entry that is not in the list, so every entry is compared. The sequential search is the baseline;
+	 * each parallel search runs in a ForkJoinPool with the given number of threads.
+	 *
+	 * @param threadCounts The numbers of threads to search with
+	 */
+	private void benchmarkSearch(int[] threadCounts) {
+		int capacity = 1 << 22;
+
+		for (Payload<?> payload : Arrays.asList(Payload.INTEGER, Payload.STRING)) {
+			benchmarkSearch(payload, capacity, threadCounts);
+		}
+	}
+
+
+	// Measures sequential and parallel searches of an array list holding the given payload
+	private <T extends Comparable<? super T>> void benchmarkSearch(Payload<T> payload, int capacity,
+			int[] threadCounts) {
+		ArrayFrontBackCappedList<T> list = new ArrayFrontBackCappedList<>(capacity);
+		fill(list, payload, capacity);
+		T missing = payload.missing();
+
+		record("ArrayFrontBackCappedList", payload, capacity, "indexOf", () -> list.indexOf(missing));
+		for (int threads : threadCounts) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			Result result = new Result("ArrayFrontBackCappedList", payload.name, capacity, "indexOfParallel", threads,
+					measure(() -> pool.invoke(ForkJoinTask.adapt(() -> list.indexOfParallel(missing)))));
+			results.add(result);
+			System.err.println(result);
+			pool.shutdown();
+		}
+	}
+
+
+	/**
+	 * Measures the throughput of writing full array lists to a stream and reading them back with BinaryListCodec, with
+	 * fixed-width entries and with variable-width strings. The stream is kept in memory, so only the encoding and
+	 * the list are measured. Describing the list with toString is the baseline.
+	 *
+	 * @param capacities The capacities of the lists to write and read
+	 */
+	private void benchmarkCodec(int[] capacities) throws IOException {
+		for (int capacity : capacities) {
+			benchmarkCodec("BinaryListCodec fixed-width", Payload.INTEGER, capacity,
+					new BinaryListCodec<>(Payload.INTEGER.codec));
+			benchmarkCodec("BinaryListCodec fixed-width", Payload.STRING, capacity,
+					new BinaryListCodec<>(Payload.STRING.codec));
+			benchmarkCodec("BinaryListCodec variable-width", Payload.STRING, capacity,
+					new BinaryListCodec<>(VariableWidthCodec.STRING));
+		}
+	}
+
+
+	// Measures writing and reading back a full array list of the given payload with a codec
+	private <T extends Comparable<? super T>> void benchmarkCodec(String name, Payload<T> payload, int capacity,
+			BinaryListCodec<T> codec) throws IOException {
+		ArrayFrontBackCappedList<T> list = new ArrayFrontBackCappedList<>(capacity);
+		ArrayFrontBackCappedList<T> target = new ArrayFrontBackCappedList<>(capacity);
+		fill(list, payload, capacity);
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		long bytes = codec.write(list, Channels.newChannel(stream));
+		ByteBuffer written = ByteBuffer.wrap(stream.toByteArray());
+		WritableByteChannel discard = new DiscardingChannel();
+
+		recordThroughput(name, payload, capacity, "write", bytes, () -> {
+			try {
+				return (int) codec.write(list, discard);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		recordThroughput(name, payload, capacity, "readAllBack", bytes, () -> {
+			target.clear();
+			try {
+				return codec.readAllBack(new BufferChannel(written.duplicate()), target);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		if (name.endsWith("variable-width")) {
+			recordThroughput("ArrayFrontBackCappedList", payload, capacity, "toString", list.toString().length(),
+					() -> list.toString().length());
+		}
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Runs an operation on several threads at once for a given time.
+	 *
+	 * @param threads The number of threads
+	 * @param worker Creates the operation each thread repeats, given the thread's number
+	 * @param durationNanos How long the threads run
+	 * @return The elapsed time divided by the total number of operations completed by all threads, in nanoseconds
+	 */
+	private static double runThreads(int threads, IntFunction<Runnable> worker, long durationNanos)
+			throws InterruptedException {
+		AtomicBoolean running = new AtomicBoolean(true);
+		LongAdder operations = new LongAdder();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> workers = new ArrayList<>();
+
+		for (int id = 0; id < threads; id++) {
+			Runnable operation = worker.apply(id);
+			Thread thread = new Thread(() -> {
+				long count = 0;
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				while (running.get()) {
+					operation.run();
+					count++;
+				}
+				operations.add(count);
+			});
+			workers.add(thread);
+			thread.start();
+		}
+
+		long startTime = System.nanoTime();
+		start.countDown();
+		Thread.sleep(durationNanos / 1_000_000);
+		running.set(false);
+		for (Thread thread : workers) {
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - startTime;
+
+		return (double) elapsed / Math.max(1, operations.sum());
+	}
+
+
+	// Adds the given number of distinct payload values to the back of the list
+	private static <T extends Comparable<? super T>> void fill(FrontBackCappedListInterface<T> list, Payload<T> payload,
+			int count) {
+		for (int index = 0; index < count; index++) {
+			list.addBack(payload.value(index));
+		}
+	}
+
+
+	/**
+	 * Measures an operation and records the result.
+	 *
+	 * @param implementation The name of the implementation being measured
+	 * @param payload The kind of entries the list holds
+	 * @param capacity The capacity of the list
+	 * @param operation The name of the operation being measured
+	 * @param benchmark The operation; its result is consumed so it cannot be optimized away
+	 */
+	private void record(String implementation, Payload<?> payload, int capacity, String operation, IntSupplier benchmark) {
+		Result result = new Result(implementation, payload.name, capacity, operation, 1, measure(benchmark));
+		results.add(result);
+		System.err.println(result);
+	}
+
+
+	/**
+	 * Measures an operation that moves a known number of bytes and records the result with its throughput.
+	 *
+	 * @param implementation The name of the implementation being measured
+	 * @param payload The kind of entries the list holds
+	 * @param capacity The capacity of the list
+	 * @param operation The name of the operation being measured
+	 * @param bytes The number of bytes each run of the operation writes or reads
+	 * @param benchmark The operation; its result is consumed so it cannot be optimized away
+	 */
+	private void recordThroughput(String implementation, Payload<?> payload, int capacity, String operation, long bytes,
+			IntSupplier benchmark) {
+		Result result = new Result(implementation, payload.name, capacity, operation, 1, measure(benchmark), bytes);
+		results.add(result);
+		System.err.println(result);
+	}
+
+
+	/**
+	 * Runs an operation until it is warmed up, then times it over several iterations.
+	 *
+	 * @param benchmark The operation to measure
+	 * @return The mean time of one operation in nanoseconds, over all measured iterations
+	 */
+	private static double measure(IntSupplier benchmark) {
+		// Warm up, doubling the batch size until a batch takes a measurable time
+		long batch = 1;
+		long warmupStart = System.nanoTime();
+		long batchTime;
+		do {
+			batchTime = runBatch(benchmark, batch);
+			if (batchTime < MEASURE_NANOS / MEASURE_ITERATIONS / 4) {
+				batch *= 2;
+			}
+		} while (System.nanoTime() - warmupStart < WARMUP_NANOS);
+
+		long totalTime = 0;
+		long totalOperations = 0;
+		for (int iteration = 0; iteration < MEASURE_ITERATIONS; iteration++) {
+			totalTime += runBatch(benchmark, batch);
+			totalOperations += batch;
+		}
+
+		return (double) totalTime / totalOperations;
+	}
+
+
+	// Runs the operation the given number of times and returns the elapsed time in nanoseconds
+	private static long runBatch(IntSupplier benchmark, long batch) {
+		int consumed = 0;
+		long start = System.nanoTime();
+		for (long count = 0; count < batch; count++) {
+			consumed += benchmark.getAsInt();
+		}
+		long elapsed = System.nanoTime() - start;
+		sink = consumed;
+		return elapsed;
+	}
+
+
+	// Parses a comma-separated list of integers
+	private static int[] parseInts(String values) {
+		return Arrays.stream(values.split(",")).mapToInt(Integer::parseInt).toArray();
+	}
+
+
+	// Parses arguments of the form key=value
+	private static Map<String, String> parseOptions(String[] args) {
+		Map<String, String> options = new HashMap<>();
+
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator < 0) {
+				throw new IllegalArgumentException("Expected an argument of the form key=value: " + arg);
+			}
+			options.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+
+		return options;
+	}
+
+
+	// Formats all recorded results as a JSON array
+	private String toJson() {
+		StringBuilder json = new StringBuilder("[\n");
+
+		for (int index = 0; index < results.size(); index++) {
+			json.append("  ").append(results.get(index).toJson());
+			json.append(index < results.size() - 1 ? ",\n" : "\n");
+		}
+
+		return json.append("]").toString();
+	}
+
+
+	/*
+	****************
+	HELPER CLASSES:
+	****************
+	 */
+
+	/*
+	 * A kind of entry to store in the benchmarked lists.
+	 */
+	private static class Payload<T extends Comparable<? super T>> {
+		static final Payload<Integer> INTEGER = new Payload<>("Integer", Integer::valueOf, Integer.valueOf(-1),
+				FixedWidthCodec.INTEGER);
+		static final Payload<String> STRING = new Payload<>("String", index -> "value-" + index, "missing",
+				FixedWidthCodec.string(16));
+
+		private final String name;
+		private final Object[] values = new Object[DISTINCT_VALUES];
+		private final T missing;
+		private final FixedWidthCodec<T> codec;		// Stores the values in the off-heap list
+
+		private Payload(String name, IntFunction<T> factory, T missing, FixedWidthCodec<T> codec) {
+			this.name = name;
+			this.missing = missing;
+			this.codec = codec;
+			for (int index = 0; index < DISTINCT_VALUES; index++) {
+				values[index] = factory.apply(index);
+			}
+		}
+
+		// The value for the given index; indexes beyond the distinct values reuse earlier ones
+		@SuppressWarnings("unchecked")
+		T value(int index) {
+			return (T) values[index & (DISTINCT_VALUES - 1)];
+		}
+
+		// A value that is never returned by value(int)
+		T missing() {
+			return missing;
+		}
+	} // end Payload
+
+
+	/*
+	 * One measurement.
+	 */
+	private static class Result {
+		private final String implementation;
+		private final String payload;
+		private final int capacity;
+		private final String operation;
+		private final int threads;
+		private final double nanosPerOperation;
+		private final long bytesPerOperation;		// 0 if the operation does not move a stream of bytes
+
+		private Result(String implementation, String payload, int capacity, String operation, int threads,
+				double nanosPerOperation) {
+			this(implementation, payload, capacity, operation, threads, nanosPerOperation, 0);
+		}
+
+		private Result(String implementation, String payload, int capacity, String operation, int threads,
+				double nanosPerOperation, long bytesPerOperation) {
+			this.implementation = implementation;
+			this.payload = payload;
+			this.capacity = capacity;
+			this.operation = operation;
+			this.threads = threads;
+			this.nanosPerOperation = nanosPerOperation;
+			this.bytesPerOperation = bytesPerOperation;
+		}
+
+		// Megabytes (10^6 bytes) per second
+		private double megabytesPerSecond() {
+			return bytesPerOperation * 1000 / nanosPerOperation;
+		}
+
+		private String toJson() {
+			return String.format(Locale.ROOT,
+					"{\"implementation\": \"%s\", \"payload\": \"%s\", \"capacity\": %d, \"operation\": \"%s\", " +
+					"\"threads\": %d, \"nsPerOp\": %.3f%s}",
+					implementation, payload, capacity, operation, threads, nanosPerOperation,
+					bytesPerOperation > 0 ? String.format(Locale.ROOT, ", \"mbPerSecond\": %.1f", megabytesPerSecond()) : "");
+		}
+
+		public String toString() {
+			return String.format(Locale.ROOT, "%-38s %-8s capacity=%-10d %-28s threads=%-3d %14.3f ns/op%s",
+					implementation, payload, capacity, operation, threads, nanosPerOperation,
+					bytesPerOperation > 0 ? String.format(Locale.ROOT, " %10.1f MB/s", megabytesPerSecond()) : "");
+		}
+	} // end Result
+
+
+	/*
+	 * Adapts java.util.ArrayDeque to the interface as a baseline. ArrayDeque has no positional access, so getEntry
+	 * walks an iterator.
+	 */
+	private static class ArrayDequeBaseline<T> implements FrontBackCappedListInterface<T> {
+		private final ArrayDeque<T> deque;
+		private final int capacity;
+
+		private ArrayDequeBaseline(int capacity) {
+			deque = new ArrayDeque<>(capacity);
+			this.capacity = capacity;
+		}
+
+		@Override
+		public boolean addFront(T newEntry) {
+			return !isFull() && deque.offerFirst(newEntry);
+		}
+
+		@Override
+		public boolean addBack(T newEntry) {
+			return !isFull() && deque.offerLast(newEntry);
+		}
+
+		@Override
+		public T removeFront() {
+			return deque.pollFirst();
+		}
+
+		@Override
+		public T removeBack() {
+			return deque.pollLast();
+		}
+
+		@Override
+		public void clear() {
+			deque.clear();
+		}
+
+		@Override
+		public T getEntry(int givenPosition) {
+			T result = null;
+
+			if (givenPosition >= 0 && givenPosition < deque.size()) {
+				Iterator<T> iterator = deque.iterator();
+				for (int position = 0; position <= givenPosition; position++) {
+					result = iterator.next();
+				}
+			}
+
+			return result;
+		}
+
+		@Override
+		public int indexOf(T anEntry) {
+			int position = 0;
+			for (T entry : deque) {
+				if (entry.equals(anEntry)) {
+					return position;
+				}
+				position++;
+			}
+			return -1;
+		}
+
+		@Override
+		public int lastIndexOf(T anEntry) {
+			int position = deque.size() - 1;
+			for (Iterator<T> iterator = deque.descendingIterator(); iterator.hasNext(); position--) {
+				if (iterator.next().equals(anEntry)) {
+					return position;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public boolean contains(T anEntry) {
+			return deque.contains(anEntry);
+		}
+
+		@Override
+		public int size() {
+			return deque.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return deque.isEmpty();
+		}
+
+		@Override
+		public boolean isFull() {
+			return deque.size() >= capacity;
+		}
+
+		@Override
+		public int getCapacity() {
+			return capacity;
+		}
+
+		@Override
+		public Object[] toArray() {
+			return deque.toArray();
+		}
+
+		@Override
+		public T[] toArray(T[] array) {
+			return deque.toArray(array);
+		}
+
+		@Override
+		public void forEach(Consumer<? super T> action) {
+			deque.forEach(action);
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return deque.iterator();
+		}
+
+		public String toString() {
+			return deque.toString();
+		}
+	} // end ArrayDequeBaseline
+
+
+	/*
+	 * A channel that accepts and drops every byte written to it.
+	 */
+	private static class DiscardingChannel implements WritableByteChannel {
+		@Override
+		public int write(ByteBuffer source) {
+			int count = source.remaining();
+			source.position(source.limit());
+			return count;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	} // end DiscardingChannel
+
+
+	/*
+	 * A channel that reads the bytes remaining in a buffer.
+	 */
+	private static class BufferChannel implements ReadableByteChannel {
+		private final ByteBuffer source;
+
+		private BufferChannel(ByteBuffer source) {
+			this.source = source;
+		}
+
+		@Override
+		public int read(ByteBuffer destination) {
+			if (!source.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(source.remaining(), destination.remaining());
+			destination.put(destination.position(), source, source.position(), count);
+			destination.position(destination.position() + count);
+			source.position(source.position() + count);
+			return count;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	} // end BufferChannel
+
+
+	/*
+	 * Makes every method of a list synchronized on the wrapper, as callers sharing a list between threads would.
+	 */
+	private static class SynchronizedList<T> implements FrontBackCappedListInterface<T> {
+		private final FrontBackCappedListInterface<T> list;
+
+		private SynchronizedList(FrontBackCappedListInterface<T> list) {
+			this.list = list;
+		}
+
+		@Override
+		public synchronized boolean addFront(T newEntry) {
+			return list.addFront(newEntry);
+		}
+
+		@Override
+		public synchronized boolean addBack(T newEntry) {
+			return list.addBack(newEntry);
+		}
+
+		@Override
+		public synchronized T removeFront() {
+			return list.removeFront();
+		}
+
+		@Override
+		public synchronized T removeBack() {
+			return list.removeBack();
+		}
+
+		@Override
+		public synchronized void clear() {
+			list.clear();
+		}
+
+		@Override
+		public synchronized T getEntry(int givenPosition) {
+			return list.getEntry(givenPosition);
+		}
+
+		@Override
+		public synchronized int indexOf(T anEntry) {
+			return list.indexOf(anEntry);
+		}
+
+		@Override
+		public synchronized int lastIndexOf(T anEntry) {
+			return list.lastIndexOf(anEntry);
+		}
+
+		@Override
+		public synchronized boolean contains(T anEntry) {
+			return list.contains(anEntry);
+		}
+
+		@Override
+		public synchronized int size() {
+			return list.size();
+		}
+
+		@Override
+		public synchronized boolean isEmpty() {
+			return list.isEmpty();
+		}
+
+		@Override
+		public synchronized boolean isFull() {
+			return list.isFull();
+		}
+
+		@Override
+		public int getCapacity() {
+			return list.getCapacity();
+		}
+
+		@Override
+		public synchronized Object[] toArray() {
+			return list.toArray();
+		}
+
+		@Override
+		public synchronized T[] toArray(T[] array) {
+			return list.toArray(array);
+		}
+
+		@Override
+		public synchronized void copyInto(T[] dest, int from) {
+			list.copyInto(dest, from);
+		}
+
+		@Override
+		public synchronized void forEach(Consumer<? super T> action) {
+			list.forEach(action);
+		}
+
+		public synchronized String toString() {
+			return list.toString();
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return list.iterator();
+		}
+	} // end SynchronizedList
+} // end ProjectCBenchmark
@@ -1,10 +1,235 @@
-import java.util.Arrays;
+import com.sun.management.ThreadMXBean;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 public class ProjectCDriver {
 
 	public static void main(String[] args) {
-		FrontBackCappedListInterface<Integer> list = new LinkedFrontBackCappedList<Integer>(10);
-		
+		System.out.println("=============================TESTING LINKED LIST=============================");
+		testList(new LinkedFrontBackCappedList<Integer>(10), new LinkedFrontBackCappedList<String>(20));
+
+		System.out.println("\n=============================TESTING ARRAY LIST=============================");
+		testList(new ArrayFrontBackCappedList<Integer>(10), new ArrayFrontBackCappedList<String>(20));
+
+		System.out.println("\n=============================TESTING INDEXED LINKED LIST=============================");
+		LinkedFrontBackCappedList<Integer> indexedList = new LinkedFrontBackCappedList<>(10);
+		LinkedFrontBackCappedList<String> indexedWordList = new LinkedFrontBackCappedList<>(20);
+		indexedList.setIndexed(true);
+		indexedWordList.setIndexed(true);
+		testList(indexedList, indexedWordList);
+
+		System.out.println("\n=============================TESTING CONCURRENT LIST=============================");
+		testList(new ConcurrentFrontBackCappedList<Integer>(10), new ConcurrentFrontBackCappedList<String>(20));
+
+		System.out.println("\n=============================TESTING OFF-HEAP LIST=============================");
+		testList(new OffHeapFrontBackCappedList<Integer>(10, FixedWidthCodec.INTEGER),
+				new OffHeapFrontBackCappedList<String>(20, FixedWidthCodec.string(16)));
+
+		System.out.println("\n=============================TESTING UNROLLED LINKED LIST=============================");
+		testList(new UnrolledFrontBackCappedList<Integer>(10), new UnrolledFrontBackCappedList<String>(20));
+
+		System.out.println("\n=============================TESTING MAPPED FILE LIST=============================");
+		testMappedFileList();
+
+		/**/
+		// UNCOMMENT IF COMPLETING THE EXTRA CREDIT
+		System.out.println("\n*****************************TESTING EXTRA CREDIT*****************************");
+		testCompareTo(new Integer[] {}, 10, new Integer[] {}, 10, PosNegZero.ZERO, "both empty lists");
+		testCompareTo(new Integer[] {}, 5, new Integer[] {}, 10, PosNegZero.ZERO, "both empty lists with different capacity");
+		testCompareTo(new Integer[] {1}, 10, new Integer[] {}, 10, PosNegZero.POSITIVE, "no mismatched elements, listA [1] is longer than listB [] ");
+		testCompareTo(new Integer[] {1}, 10, new Integer[] {1, 2}, 10, PosNegZero.NEGATIVE, "no mismatched elements, listA [1] is shorter than listB [1, 2]");
+		testCompareTo(new Integer[] {1, 2}, 10, new Integer[] {1, 2}, 10, PosNegZero.ZERO, "no mismatched elements found [1, 2], equal length");
+		testCompareTo(new Integer[] {3, 4}, 10, new Integer[] {3, 4}, 5, PosNegZero.ZERO, "no mismatched elements found [1, 2], equal length, different capacity");
+		testCompareTo(new Integer[] {1, 2, 3}, 10, new Integer[] {1, 2, 4}, 10, PosNegZero.NEGATIVE, "for first mismatched element, the listA element [1, 2, 3] is smaller than the listB element [1, 2, 4]");
+		testCompareTo(new Integer[] {1, 2, 6}, 10, new Integer[] {1, 2, 4}, 10, PosNegZero.POSITIVE, "for first mismatched element, the listA element [1, 2, 6] is larger than the listB element [1, 2, 4]");
+		testCompareTo(new Integer[] {1, 2, 3, 4, 7}, 10, new Integer[] {7}, 10, PosNegZero.NEGATIVE, "for first mismatched element, the listA element [1, 2, 3, 4, 7] is smaller than the listB element [7]");
+		testCompareTo(new Integer[] {3}, 10, new Integer[] {2, 1, 4, 3, 7}, 10, PosNegZero.POSITIVE, "for first mismatched element, the listA element [1, 2, 3, 4, 7] is smaller than the listB element [7]");
+		testCompareTo(new Integer[] {1, 2, 3}, 10, new Integer[] {4, 2, 3}, 10, PosNegZero.NEGATIVE, "for first mismatched element, the listA element [1, 2, 3] is smaller than the listB element [4, 2, 3]");
+		testCompareTo(new String[] {"a","b","c"}, 10, new String[] {"a","b", new String("c")}, 10, PosNegZero.ZERO, "no mismatched elements found [1, 2], equal length");
+		testCompareTo(new String[] {"a","b","c"}, 10, new String[] {"a","b", new String("c")}, 20, PosNegZero.ZERO, "no mismatched elements found [1, 2], equal length, different capacity");
+
+		System.out.println("\n*****************************TESTING EQUALS AND HASHCODE*****************************");
+		// parameter 1: the capacity of the lists, which start empty
+		// parameter 2: the number of random adds, removes, bulk operations and clears to perform
+		testFingerprint(20, 200_000);
+
+		System.out.println("\n*****************************TESTING LARGE LISTS*****************************");
+		// parameter 1: an empty list with the given capacity
+		// parameter 2: the capacity; the list is filled to it, queried, and then drained
+		testLargeList(new LinkedFrontBackCappedList<Integer>(LARGE_CAPACITY), LARGE_CAPACITY);
+		testLargeList(new ArrayFrontBackCappedList<Integer>(LARGE_CAPACITY), LARGE_CAPACITY);
+		testLargeList(new OffHeapFrontBackCappedList<Integer>(LARGE_CAPACITY, FixedWidthCodec.INTEGER), LARGE_CAPACITY);
+		testLargeList(new UnrolledFrontBackCappedList<Integer>(LARGE_CAPACITY), LARGE_CAPACITY);
+		testLargeCompareTo(LARGE_CAPACITY);
+
+		System.out.println("\n*****************************TESTING NODE RECYCLING*****************************");
+		// parameter 1: the capacity of the list, which is filled before adds and removes are repeated
+		// parameter 2: the number of times each add and remove is repeated while allocation is measured
+		testNodeRecycling(1_000, 1_000_000);
+		testRecyclingAfterSnapshot(1_000, 1_000_000);
+
+		System.out.println("\n*****************************TESTING PRIMITIVE LISTS*****************************");
+		// parameter 1: the capacity of the lists, which start empty
+		// parameter 2: the number of random adds, removes and clears to perform
+		testIntList(50, 200_000);
+		testLongList();
+		// parameter 1: the capacity of the list, which is filled before adds and removes are repeated
+		// parameter 2: the number of times each add and remove is repeated while allocation is measured
+		testPrimitiveAllocation(1_000, 1_000_000);
+
+		System.out.println("\n*****************************TESTING AGAINST REFERENCE LIST*****************************");
+		// parameter 1: the list to test, which starts empty
+		// parameter 2: an empty array list with the same capacity, whose results are taken as correct
+		// parameter 3: the number of random adds, removes and clears to perform
+		LinkedFrontBackCappedList<Integer> randomIndexedList = new LinkedFrontBackCappedList<>(50);
+		randomIndexedList.setIndexed(true);
+		randomIndexedList.setNodeRecycling(true);
+		testAgainstReference(randomIndexedList, new ArrayFrontBackCappedList<>(50), 200_000);
+		testAgainstReference(new OffHeapFrontBackCappedList<>(50, FixedWidthCodec.INTEGER), new ArrayFrontBackCappedList<>(50), 200_000);
+		testAgainstReference(new ArrayFrontBackCappedList<>(50), new ArrayFrontBackCappedList<>(50), 200_000);
+		// A capacity of several chunks, so entries cross chunk boundaries from both ends
+		testAgainstReference(new UnrolledFrontBackCappedList<>(300), new ArrayFrontBackCappedList<>(300), 200_000);
+		// A capacity of several checkpoints, so getEntry walks from checkpoints at both ends of the list
+		LinkedFrontBackCappedList<Integer> positionIndexedList = new LinkedFrontBackCappedList<>(300);
+		positionIndexedList.setPositionIndexed(true);
+		positionIndexedList.setNodeRecycling(true);
+		testAgainstReference(positionIndexedList, new ArrayFrontBackCappedList<>(300), 200_000);
+
+		System.out.println("\n*****************************TESTING SPARE CHUNK*****************************");
+		// parameter 1: the capacity of the unrolled list, several chunks long
+		testSpareChunk(500);
+
+		System.out.println("\n*****************************TESTING EMPTY STRING ENTRIES*****************************");
+		testEmptyStringEntries();
+
+		System.out.println("\n*****************************TESTING POSITION INDEX*****************************");
+		// parameter 1: the capacity of the list, which is filled from both ends
+		testPositionIndex(100_000);
+
+		System.out.println("\n*****************************TESTING CURSOR*****************************");
+		// parameter 1: the capacity of the list, which is read in order from front to back
+		// parameter 2: the number of random operations, each followed by a getEntry near the previous one
+		testCursor(100_000, 200_000);
+
+		System.out.println("\n*****************************TESTING PARALLEL SEARCH*****************************");
+		// parameter 1: the capacity of the list, which is filled from both ends
+		testParallelSearch(1_000_000);
+
+		System.out.println("\n*****************************TESTING SORTED LIST*****************************");
+		testSortedList();
+		// parameter 1: the capacity of the lists, which start empty
+		// parameter 2: the number of random adds, removes and clears to perform
+		testSortedAgainstReference(50, 200_000);
+		// parameter 1: the number of largest entries to keep
+		// parameter 2: the number of random entries in the stream
+		testTopK(100, 1_000_000);
+
+		System.out.println("\n*****************************TESTING AGGREGATES*****************************");
+		testAggregates();
+		// parameter 1: an empty list whose aggregates are kept, checked against a scan of the list
+		// parameter 2: a description of the decorated list
+		// parameter 3: the number of random adds, removes, bulk operations and clears to perform
+		LinkedFrontBackCappedList<Integer> window = new LinkedFrontBackCappedList<>(50);
+		window.setOverflowPolicy(OverflowPolicy.EVICT_OPPOSITE_END);
+		testAggregatesAgainstScan(new AggregatingFrontBackCappedList<>(window), "evicting LinkedFrontBackCappedList", 200_000);
+		testAggregatesAgainstScan(new AggregatingFrontBackCappedList<>(new ArrayFrontBackCappedList<Integer>(50)),
+				"ArrayFrontBackCappedList", 200_000);
+
+		System.out.println("\n*****************************TESTING INSTRUMENTATION*****************************");
+		testInstrumentation();
+		// parameter 1: the number of threads counting besides the thread that owns the decorator
+		// parameter 2: the number of adds and removes each of those threads makes
+		testInstrumentationThreads(4, 100_000);
+		// parameter 1: the size the owner fills the list to before emptying it again
+		// parameter 2: the number of resets made on another thread while the owner counts
+		testResetWhileCounting(100, 2_000);
+		testLatencyHistogram();
+
+		System.out.println("\n*****************************TESTING OVERFLOW POLICIES*****************************");
+		LinkedFrontBackCappedList<Integer> evictingList = new LinkedFrontBackCappedList<>(3);
+		List<Integer> evictedFromLinked = new ArrayList<>();
+		evictingList.setOverflowPolicy(OverflowPolicy.EVICT_OPPOSITE_END);
+		evictingList.setIndexed(true);
+		evictingList.setEvictionListener(evictedFromLinked::add);
+		// parameter 1: an empty list with capacity 3 that evicts entries when full
+		// parameter 2: the list its eviction listener adds evicted entries to
+		// parameter 3: the list's eviction count
+		testEviction(evictingList, evictedFromLinked, evictingList::getEvictionCount);
+
+		ConcurrentFrontBackCappedList<Integer> evictingConcurrentList = new ConcurrentFrontBackCappedList<>(3);
+		List<Integer> evictedFromConcurrent = new ArrayList<>();
+		evictingConcurrentList.setOverflowPolicy(OverflowPolicy.EVICT_OPPOSITE_END);
+		evictingConcurrentList.setEvictionListener(evictedFromConcurrent::add);
+		testEviction(evictingConcurrentList, evictedFromConcurrent, evictingConcurrentList::getEvictionCount);
+
+		testOverflowEdgeCases();
+
+		// parameter 1: the capacity of the sliding window, which is filled before more entries are added
+		// parameter 2: the number of entries added while allocation is measured
+		testSlidingWindow(1_000, 1_000_000);
+
+		// parameter 1: the capacity of the shared list
+		// parameter 2: the number of producer threads
+		// parameter 3: the number of entries each producer adds
+		testConcurrentEviction(64, 4, 200_000);
+		testBlockingAdd(4, 100_000);
+		// parameter 1: the capacity of the list, which is filled before the putters start
+		// parameter 2: the number of threads that put an entry, which must not exceed the capacity
+		testClearWakesPutters(4, 3);
+
+		System.out.println("\n*****************************TESTING SNAPSHOTS*****************************");
+		testSnapshots();
+		// parameter 1: the capacity of the list, which is kept full of consecutive entries
+		// parameter 2: the number of reader threads
+		// parameter 3: the number of entries the writer slides through the list
+		testCopyOnWriteReads(64, 4, 200_000);
+
+		System.out.println("\n*****************************TESTING PERSISTENCE*****************************");
+		// parameter 1: the capacity of the list stored in the file
+		testPersistence(5);
+
+		System.out.println("\n*****************************TESTING BINARY CODEC*****************************");
+		// parameter 1: the capacity of the large lists, which are read back through a channel that trickles bytes
+		testBinaryCodec(100_000);
+
+		System.out.println("\n*****************************TESTING CONCURRENT ACCESS*****************************");
+		// parameter 1: the capacity of the shared list
+		// parameter 2: the number of producer threads and the number of consumer threads
+		// parameter 3: the number of entries each producer adds
+		testConcurrentQueue(64, 4, 200_000);
+		testConcurrentDeque(64, 4, 200_000);
+
+		System.out.println("\n*****************************TESTING BLOCKING ADDS AND REMOVES*****************************");
+		// parameter 1: the capacity of the shared list
+		// parameter 2: the number of entries handed from the producer to the consumer
+		testBlockingHandoff(4, 100_000);
+		testTimedAddRemove();
+	}
+
+	// Large enough that one stack frame per entry would overflow the default thread stack
+	private static final int LARGE_CAPACITY = 5_000_000;
+
+	/*
+	 * Runs the scenarios on an empty list of integers with capacity 10 and an empty list of strings with
+	 * capacity 20, so every implementation of the interface is held to the same expected output.
+	 */
+	public static void testList(FrontBackCappedListInterface<Integer> list, FrontBackCappedListInterface<String> wordList) {
 		System.out.println("*****************************TESTING ISEMPTY AND EMPTY DISPLAY*****************************");
 		// parameter 1: the list
 		// parameter 2: the expected result for if the list is empty
@@ -210,31 +435,80 @@ public class ProjectCDriver {
 		testGetEntry(list, 7,  "empty (invalid) index");
 
 
+		System.out.println("\n*****************************TESTING ITERATOR*****************************");
+		clearAndRefillTheList(list, new Integer[] {4, 3, 2, 3, 8});
+
+		// parameter 1: the list
+		// parameter 2: the entries the iterator and streams are expected to produce, in order
+		testIterator(list, new Integer[] {4, 3, 2, 3, 8});
+		list.clear();
+		testIterator(list, new Integer[] {});
+
+
+		System.out.println("\n*****************************TESTING BULK ADDS AND DRAINS*****************************");
+		list.clear();
+		// parameter 1: the list
+		// parameter 2: indicates if we are adding to the front or back
+		// parameter 3: the values to add in one call, as an array or a collection; like repeated adds, values added
+		//			    to the front end up in reverse order
+		// parameter 4: expected number of values added
+		// parameter 5: a description of the test
+		testAddAll(list, AddRemovePosition.BACK, new Integer[] {1, 2, 3}, 3, "addAllBack to empty list");
+		testAddAll(list, AddRemovePosition.FRONT, new Integer[] {4, 5}, 2, "addAllFront to non-empty list");
+		testDisplayMatch(list, "[5, 4, 1, 2, 3]\tsize=5\tcapacity=10\thead=5 tail=3");
+		testIndexOf(list, IndexPosition.FIRST, 4, 1, "indexOf after bulk adds");
+		testAddAll(list, AddRemovePosition.BACK, new Integer[] {6, 7, 8, 9, 10, 11, 12}, 5, "addAllBack past the capacity");
+		testDisplayMatch(list, "[5, 4, 1, 2, 3, 6, 7, 8, 9, 10]\tsize=10\tcapacity=10\thead=5 tail=10");
+		testAddAll(list, AddRemovePosition.FRONT, new Integer[] {13}, 0, "addAllFront to full list");
+
+		// parameter 1: the list
+		// parameter 2: indicates if we are draining the front or back
+		// parameter 3: the largest number of values to drain
+		// parameter 4: the values expected to be drained, in the order they are removed
+		// parameter 5: a description of the test
+		testDrain(list, AddRemovePosition.FRONT, 3, new Integer[] {5, 4, 1}, "drainFront part of the list");
+		testDrain(list, AddRemovePosition.BACK, 2, new Integer[] {10, 9}, "drainBack part of the list");
+		testDisplayMatch(list, "[2, 3, 6, 7, 8]\tsize=5\tcapacity=10\thead=2 tail=8");
+		testIndexOf(list, IndexPosition.LAST, 8, 4, "lastIndexOf after drains");
+		testAddAll(list, AddRemovePosition.FRONT, Arrays.asList(20, 21), 2, "addAllFront collection");
+		testAddAll(list, AddRemovePosition.BACK, Arrays.asList(22), 1, "addAllBack collection");
+		testDisplayMatch(list, "[21, 20, 2, 3, 6, 7, 8, 22]\tsize=8\tcapacity=10\thead=21 tail=22");
+		testDrain(list, AddRemovePosition.BACK, 0, new Integer[] {}, "drain no values");
+		testDrain(list, AddRemovePosition.FRONT, 20, new Integer[] {21, 20, 2, 3, 6, 7, 8, 22}, "drainFront more than the list holds");
+		testIsEmptyFull(list, true, false);
+		testAddAll(list, AddRemovePosition.FRONT, new Integer[] {1, 2, 3}, 3, "addAllFront to empty list");
+		testDisplayMatch(list, "[3, 2, 1]\tsize=3\tcapacity=10\thead=3 tail=1");
+		testIndexOf(list, IndexPosition.FIRST, 1, 2, "indexOf after addAllFront to empty list");
+		testDrain(list, AddRemovePosition.BACK, 3, new Integer[] {1, 2, 3}, "drainBack the whole list");
+		testIsEmptyFull(list, true, false);
+		testAddAll(list, AddRemovePosition.FRONT, new Integer[] {1, 2}, 2, "addAllFront to move the front");
+		list.clear();
+		testAddAll(list, AddRemovePosition.BACK, new Integer[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, 10, "addAllBack to fill a cleared list");
+		testDisplayMatch(list, "[1, 2, 3, 4, 5, 6, 7, 8, 9, 10]\tsize=10\tcapacity=10\thead=1 tail=10");
+		testIsEmptyFull(list, false, true);
+		list.clear();
+
+
+		System.out.println("\n*****************************TESTING EXPORTS*****************************");
+		// parameter 1: the list
+		// parameter 2: the values expected in the list, in order
+		// parameter 3: a description of the test
+		testExport(list, new Integer[] {}, "export empty list");
+		list.addAllBack(new Integer[] {4, 5, 6});
+		list.addAllFront(new Integer[] {3, 2});
+		testExport(list, new Integer[] {2, 3, 4, 5, 6}, "export after adds at both ends");
+		list.drainFront(1, value -> { });
+		testExport(list, new Integer[] {3, 4, 5, 6}, "export after removing the first value");
+		list.clear();
+
+
 		System.out.println("\n*****************************TESTING WITH STRINGS*****************************");
-		FrontBackCappedListInterface<String> wordList = new LinkedFrontBackCappedList<String>(20);
 		testAdd(wordList, AddRemovePosition.FRONT, new String[] {"job!", "Nice", "it!", "did", "You"}, true, "test with Strings");
 		testAdd(wordList, AddRemovePosition.BACK, new String[] {"You", "rock!"}, true, "test with Strings");
 		testDisplayMatch(wordList, "[You, did, it!, Nice, job!, You, rock!]\tsize=7\tcapacity=20\thead=You tail=rock!");
 		testContains(wordList, new String("it!"), true, "test with Strings");
 		testIndexOf(wordList, IndexPosition.FIRST, new String("You"), 0, "test with Strings");
 		testIndexOf(wordList, IndexPosition.LAST, new String("You"), 5, "test with Strings");
-
-		/**/
-		// UNCOMMENT IF COMPLETING THE EXTRA CREDIT
-		System.out.println("\n*****************************TESTING EXTRA CREDIT*****************************");
-		testCompareTo(new Integer[] {}, 10, new Integer[] {}, 10, PosNegZero.ZERO, "both empty lists");
-		testCompareTo(new Integer[] {}, 5, new Integer[] {}, 10, PosNegZero.ZERO, "both empty lists with different capacity");
-		testCompareTo(new Integer[] {1}, 10, new Integer[] {}, 10, PosNegZero.POSITIVE, "no mismatched elements, listA [1] is longer than listB [] ");
-		testCompareTo(new Integer[] {1}, 10, new Integer[] {1, 2}, 10, PosNegZero.NEGATIVE, "no mismatched elements, listA [1] is shorter than listB [1, 2]");
-		testCompareTo(new Integer[] {1, 2}, 10, new Integer[] {1, 2}, 10, PosNegZero.ZERO, "no mismatched elements found [1, 2], equal length");
-		testCompareTo(new Integer[] {3, 4}, 10, new Integer[] {3, 4}, 5, PosNegZero.ZERO, "no mismatched elements found [1, 2], equal length, different capacity");
-		testCompareTo(new Integer[] {1, 2, 3}, 10, new Integer[] {1, 2, 4}, 10, PosNegZero.NEGATIVE, "for first mismatched element, the listA element [1, 2, 3] is smaller than the listB element [1, 2, 4]");
-		testCompareTo(new Integer[] {1, 2, 6}, 10, new Integer[] {1, 2, 4}, 10, PosNegZero.POSITIVE, "for first mismatched element, the listA element [1, 2, 6] is larger than the listB element [1, 2, 4]");
-		testCompareTo(new Integer[] {1, 2, 3, 4, 7}, 10, new Integer[] {7}, 10, PosNegZero.NEGATIVE, "for first mismatched element, the listA element [1, 2, 3, 4, 7] is smaller than the listB element [7]");
-		testCompareTo(new Integer[] {3}, 10, new Integer[] {2, 1, 4, 3, 7}, 10, PosNegZero.POSITIVE, "for first mismatched element, the listA element [1, 2, 3, 4, 7] is smaller than the listB element [7]");
-		testCompareTo(new Integer[] {1, 2, 3}, 10, new Integer[] {4, 2, 3}, 10, PosNegZero.NEGATIVE, "for first mismatched element, the listA element [1, 2, 3] is smaller than the listB element [4, 2, 3]");
-		testCompareTo(new String[] {"a","b","c"}, 10, new String[] {"a","b", new String("c")}, 10, PosNegZero.ZERO, "no mismatched elements found [1, 2], equal length");
-		testCompareTo(new String[] {"a","b","c"}, 10, new String[] {"a","b", new String("c")}, 20, PosNegZero.ZERO, "no mismatched elements found [1, 2], equal length, different capacity");
 	}
 
 	/*
@@ -356,6 +630,119 @@ public class ProjectCDriver {
 		}
 	}
 
+	public static <T> void testIterator(FrontBackCappedListInterface<T> list, T[] expectedResult) {
+		List<T> iterated = new ArrayList<>();
+		for(T value : list) {
+			iterated.add(value);
+		}
+		List<T> streamed = list.stream().collect(Collectors.toList());
+		List<T> parallelStreamed = list.parallelStream().collect(Collectors.toList());
+
+		System.out.println("\nIterating over List: " + list);
+		System.out.println("Expected entries=          " + Arrays.toString(expectedResult));
+		System.out.println("Actual iterated entries=   " + iterated);
+		System.out.println("Actual streamed entries=   " + streamed);
+		if(!iterated.equals(Arrays.asList(expectedResult)) || !streamed.equals(iterated) || !parallelStreamed.equals(iterated)) {
+			System.out.println("*****Test failed when iterating over list: " + list);
+		}
+
+		// An iterator must either fail fast or keep traversing the entries the list held when it was created
+		Iterator<T> iterator = list.iterator();
+		list.clear();
+		boolean consistent;
+		try {
+			T first = iterator.next();
+			consistent = expectedResult.length > 0 && expectedResult[0].equals(first);
+		} catch(ConcurrentModificationException e) {
+			consistent = true;
+		} catch(NoSuchElementException e) {
+			consistent = expectedResult.length == 0;
+		}
+		System.out.println("Iterator fails fast or is unaffected after clear: expected=true actual=" + consistent);
+		if(!consistent) {
+			System.out.println("*****Test failed when modifying list during iteration");
+		}
+
+		for(T value : expectedResult) {
+			list.addBack(value);
+		}
+	}
+
+	public static <T> void testAddAll(FrontBackCappedListInterface<T> list, AddRemovePosition positionToAdd, T[] valuesToAdd, int expectedResult, String testDescription) {
+		int beforeSize = list.size();
+		int actualResult = (positionToAdd==AddRemovePosition.FRONT) ? list.addAllFront(valuesToAdd) : list.addAllBack(valuesToAdd);
+		checkAddAll(list, positionToAdd, Arrays.toString(valuesToAdd), beforeSize, expectedResult, actualResult, testDescription);
+	}
+
+	public static <T> void testAddAll(FrontBackCappedListInterface<T> list, AddRemovePosition positionToAdd, Collection<T> valuesToAdd, int expectedResult, String testDescription) {
+		int beforeSize = list.size();
+		int actualResult = (positionToAdd==AddRemovePosition.FRONT) ? list.addAllFront(valuesToAdd) : list.addAllBack(valuesToAdd);
+		checkAddAll(list, positionToAdd, "collection " + valuesToAdd, beforeSize, expectedResult, actualResult, testDescription);
+	}
+
+	private static void checkAddAll(FrontBackCappedListInterface<?> list, AddRemovePosition positionToAdd, String valuesToAdd, int beforeSize, int expectedResult, int actualResult, String testDescription) {
+		System.out.println("\nAdding " + valuesToAdd + " to the " + positionToAdd + " at once: expected added=" + expectedResult + " actual added=" + actualResult);
+		if(actualResult != expectedResult || list.size() != beforeSize + expectedResult) {
+			System.out.println("*****Test failed when adding all to " + positionToAdd + "; test:" + testDescription);
+			System.out.println("     Expected after size=" + (beforeSize + expectedResult) + "\tActual after size=" + list.size());
+		}
+	}
+
+	public static <T> void testDrain(FrontBackCappedListInterface<T> list, AddRemovePosition positionToDrain, int maxEntries, T[] expectedResult, String testDescription) {
+		List<T> drained = new ArrayList<>();
+		int actualResult = (positionToDrain==AddRemovePosition.FRONT) ? list.drainFront(maxEntries, drained::add) : list.drainBack(maxEntries, drained::add);
+
+		System.out.println("\nDraining up to " + maxEntries + " from the " + positionToDrain + ": expected=" + Arrays.toString(expectedResult) + " actual=" + drained);
+		if(actualResult != expectedResult.length || !drained.equals(Arrays.asList(expectedResult))) {
+			System.out.println("*****Test failed when draining the " + positionToDrain + "; test:" + testDescription);
+		}
+	}
+
+	public static <T> void testExport(FrontBackCappedListInterface<T> list, T[] expectedResult, String testDescription) {
+		int length = expectedResult.length;
+		List<String> failures = new ArrayList<>();
+		List<T> visited = new ArrayList<>();
+		list.forEach(visited::add);
+		System.out.println("\nExporting the list: expected=" + Arrays.toString(expectedResult) + " actual=" + Arrays.toString(list.toArray()));
+
+		if(!Arrays.equals(list.toArray(), expectedResult)) {
+			failures.add("toArray()");
+		}
+		T[] exact = Arrays.copyOf(expectedResult, length);
+		Arrays.fill(exact, null);
+		if(list.toArray(exact) != exact || !Arrays.equals(exact, expectedResult)) {
+			failures.add("toArray(T[]) into an array of the list's size");
+		}
+		T[] grown = list.toArray(Arrays.copyOf(expectedResult, 0));
+		if(grown.getClass() != expectedResult.getClass() || !Arrays.equals(grown, expectedResult)) {
+			failures.add("toArray(T[]) into an empty array");
+		}
+		T[] longer = Arrays.copyOf(expectedResult, length + 2);
+		Arrays.fill(longer, length, length + 2, expectedResult.length > 0 ? expectedResult[0] : null);
+		if(list.toArray(longer) != longer || !Arrays.equals(longer, 0, length, expectedResult, 0, length) || longer[length] != null) {
+			failures.add("toArray(T[]) into a longer array");
+		}
+		T[] offset = Arrays.copyOf(expectedResult, length + 1);
+		Arrays.fill(offset, null);
+		list.copyInto(offset, 1);
+		if(offset[0] != null || !Arrays.equals(offset, 1, length + 1, expectedResult, 0, length)) {
+			failures.add("copyInto from index 1");
+		}
+		try {
+			list.copyInto(Arrays.copyOf(expectedResult, length), 1);
+			failures.add("copyInto past the end of the array");
+		} catch(IndexOutOfBoundsException e) {
+			// Expected: the entries do not fit
+		}
+		if(!visited.equals(Arrays.asList(expectedResult))) {
+			failures.add("forEach");
+		}
+
+		if(!failures.isEmpty()) {
+			System.out.println("*****Test failed when exporting " + failures + "; test:" + testDescription);
+		}
+	}
+
 	public static <T> void testRemove(FrontBackCappedListInterface<T> list, AddRemovePosition positionToRemove, String testDescription) {
 		testRemove(list, positionToRemove, null, testDescription);
 	}
@@ -418,6 +805,1850 @@ public class ProjectCDriver {
 		if(resultRange!=expectedResult) {
 			System.out.println("*****Test failed for: " + testDescription);
 		}
+
+		// Equal lists must compare as 0 and share a hash code, whether or not they keep a fingerprint
+		listB.setFingerprinting(true);
+		boolean equal = listA.equals(listB);
+		if(equal != (expectedResult == PosNegZero.ZERO) || equal != listB.equals(listA) || (equal && listA.hashCode() != listB.hashCode())) {
+			System.out.println("*****Test failed for equals and hashCode: " + testDescription);
+		}
+	}
+
+	/*
+	 * Adds, peeks at and removes entries of a small sorted list, with and without replacing the smallest entry
+	 * when the list is full.
+	 */
+	public static void testSortedList() {
+		SortedCappedList<Integer> list = new SortedCappedList<>(5);
+		System.out.println("\nAdding 5, 3, 8, 1, 9 and 7 to a sorted list of capacity 5");
+		for(Integer value : new Integer[] {5, 3, 8, 1, 9}) {
+			list.add(value);
+		}
+		testLargeResult("add to full list", false, list.add(7));
+		testLargeResult("toString", "[1, 3, 5, 8, 9]\tsize=5\tcapacity=5\tmin=1 max=9", list.toString());
+		testLargeResult("getMin", 1, list.getMin());
+		testLargeResult("getMax", 9, list.getMax());
+		testLargeResult("removeMax", 9, list.removeMax());
+		testLargeResult("removeMin", 1, list.removeMin());
+		testLargeResult("contains 5", true, list.contains(5));
+		testLargeResult("contains 9", false, list.contains(9));
+
+		list.setReplacingMin(true);
+		list.add(6);
+		list.add(4);
+		testLargeResult("add smaller than the smallest to full list", false, list.add(2));
+		testLargeResult("add larger than the smallest to full list", true, list.add(10));
+		testLargeResult("toString after replacing", "[4, 5, 6, 8, 10]\tsize=5\tcapacity=5\tmin=4 max=10", list.toString());
+
+		list.clear();
+		testLargeResult("getMin of empty list", null, list.getMin());
+		testLargeResult("removeMax of empty list", null, list.removeMax());
+		testLargeResult("toString of empty list", "[]\tsize=0\tcapacity=5", list.toString());
+		SortedCappedList<Integer> emptyList = new SortedCappedList<>(0);
+		emptyList.setReplacingMin(true);
+		testLargeResult("add to list of capacity 0", false, emptyList.add(1));
+	}
+
+	/*
+	 * Performs the same random adds, removes and clears on a sorted list and on a sorted java.util.ArrayList,
+	 * checking the results and the smallest and largest entries after each one.
+	 */
+	public static void testSortedAgainstReference(int capacity, int operations) {
+		SortedCappedList<Integer> list = new SortedCappedList<>(capacity);
+		List<Integer> reference = new ArrayList<>();
+		Random random = new Random(933);
+		int mismatches = 0;
+
+		for(int operation = 0; operation < operations; operation++) {
+			Integer value = random.nextInt(100);
+			int choice = random.nextInt(100);
+			Object actualResult, expectedResult;
+
+			if(choice < 50) {
+				actualResult = list.add(value);
+				expectedResult = reference.size() < capacity;
+				if(reference.size() < capacity) {
+					reference.add(value);
+				} else if(list.isReplacingMin() && value > reference.get(0)) {
+					reference.set(0, value);
+					expectedResult = true;
+				}
+				Collections.sort(reference);
+			} else if(choice < 70) {
+				actualResult = list.removeMin();
+				expectedResult = reference.isEmpty() ? null : reference.remove(0);
+			} else if(choice < 90) {
+				actualResult = list.removeMax();
+				expectedResult = reference.isEmpty() ? null : reference.remove(reference.size() - 1);
+			} else if(choice < 99) {
+				list.setReplacingMin(!list.isReplacingMin());
+				actualResult = expectedResult = null;
+			} else {
+				list.clear();
+				reference.clear();
+				actualResult = expectedResult = null;
+			}
+
+			if(!Objects.equals(actualResult, expectedResult)
+					|| list.size() != reference.size()
+					|| !Objects.equals(list.getMin(), reference.isEmpty() ? null : reference.get(0))
+					|| !Objects.equals(list.getMax(), reference.isEmpty() ? null : reference.get(reference.size() - 1))
+					|| list.contains(value) != reference.contains(value)) {
+				mismatches++;
+			}
+		}
+
+		System.out.println("\n" + operations + " random operations on SortedCappedList");
+		testLargeResult("operations that disagreed with the reference list", 0, mismatches);
+		testLargeResult("final contents match the reference list", reference, Arrays.asList(list.toArray()));
+	}
+
+	/*
+	 * Streams random entries through a sorted list that replaces its smallest entry when full, and checks that it
+	 * ends up holding the largest entries of the stream, as found by sorting the whole stream.
+	 */
+	public static void testTopK(int k, int streamLength) {
+		SortedCappedList<Integer> list = new SortedCappedList<>(k);
+		list.setReplacingMin(true);
+		Random random = new Random(933);
+		int[] stream = new int[streamLength];
+
+		for(int index = 0; index < streamLength; index++) {
+			stream[index] = random.nextInt();
+			list.add(stream[index]);
+		}
+		Arrays.sort(stream);
+
+		System.out.println("\nKeeping the largest " + k + " of " + streamLength + " random entries");
+		testLargeResult("largest entries", Arrays.toString(Arrays.copyOfRange(stream, streamLength - k, streamLength)),
+				Arrays.toString(list.toArray()));
+		testLargeResult("getMax", stream[streamLength - 1], list.getMax());
+		testLargeResult("getMin", stream[streamLength - k], list.getMin());
+	}
+
+	/*
+	 * Keeps the aggregates of a small list through adds and removes at both ends, a clear, and a list that already
+	 * held entries when it was decorated.
+	 */
+	public static void testAggregates() {
+		AggregatingFrontBackCappedList<Integer> list = new AggregatingFrontBackCappedList<>(new ArrayFrontBackCappedList<Integer>(5));
+		System.out.println("\nAdding 4 and 7 to the back and 2 and 9 to the front of an aggregating list of capacity 5");
+		list.addBack(4);
+		list.addBack(7);
+		list.addFront(2);
+		list.addFront(9);
+		testLargeResult("toString", "[9, 2, 4, 7]\tsize=4\tcapacity=5\thead=9 tail=7\tsum=22.0 mean=5.5 min=2 max=9",
+				list.toString());
+		testLargeResult("removeFront", 9, list.removeFront());
+		testLargeResult("getMax after removing the largest", 7, list.getMax());
+		testLargeResult("removeBack", 7, list.removeBack());
+		testLargeResult("removeBack", 4, list.removeBack());
+		testLargeResult("getMin and getMax of one entry", "2 2", list.getMin() + " " + list.getMax());
+		testLargeResult("getSum of one entry", 2.0, list.getSum());
+		list.clear();
+		testLargeResult("getSum of empty list", 0.0, list.getSum());
+		testLargeResult("getMean of empty list", Double.NaN, list.getMean());
+		testLargeResult("getMin of empty list", null, list.getMin());
+
+		ArrayFrontBackCappedList<Integer> filled = new ArrayFrontBackCappedList<>(5);
+		filled.addAllBack(new Integer[] {3, 1, 8});
+		AggregatingFrontBackCappedList<Integer> decorated = new AggregatingFrontBackCappedList<>(filled);
+		testLargeResult("aggregates of a list decorated with entries", "12.0 1 8",
+				decorated.getSum() + " " + decorated.getMin() + " " + decorated.getMax());
+	}
+
+	/*
+	 * Performs random adds, removes, bulk operations and clears on an aggregating list, checking after each one
+	 * that its sum, mean, smallest and largest entries match those found by scanning the list.
+	 */
+	public static void testAggregatesAgainstScan(AggregatingFrontBackCappedList<Integer> list, String description,
+			int operations) {
+		Random random = new Random(933);
+		int mismatches = 0;
+
+		for(int operation = 0; operation < operations; operation++) {
+			Integer value = random.nextInt(1000) - 500;
+			int choice = random.nextInt(110);
+
+			if(choice < 30) {
+				list.addFront(value);
+			} else if(choice < 60) {
+				list.addBack(value);
+			} else if(choice < 79) {
+				list.removeFront();
+			} else if(choice < 99) {
+				list.removeBack();
+			} else if(choice < 102) {
+				list.addAllBack(new Integer[] {value, value + 1, value - 1});
+			} else if(choice < 105) {
+				list.addAllFront(Arrays.asList(value, value + 1, value - 1));
+			} else if(choice < 107) {
+				list.drainFront(random.nextInt(8), entry -> { });
+			} else if(choice < 109) {
+				list.drainBack(random.nextInt(8), entry -> { });
+			} else {
+				list.clear();
+			}
+
+			long sum = 0;
+			Integer min = null, max = null;
+			for(Integer entry : list) {
+				sum += entry;
+				min = (min == null || entry < min) ? entry : min;
+				max = (max == null || entry > max) ? entry : max;
+			}
+			if(list.getSum() != sum || !Objects.equals(list.getMin(), min) || !Objects.equals(list.getMax(), max)
+					|| Double.compare(list.getMean(), list.isEmpty() ? Double.NaN : (double) sum / list.size()) != 0) {
+				mismatches++;
+			}
+		}
+
+		System.out.println("\n" + operations + " random operations on an aggregating " + description);
+		testLargeResult("operations whose aggregates disagreed with a scan", 0, mismatches);
+	}
+
+	/*
+	 * Runs a few operations on an instrumented list of capacity 3, including an add to the full list and a remove
+	 * from the empty list, and checks the counters, the high-water mark and the exported metrics.
+	 */
+	public static void testInstrumentation() {
+		InstrumentedFrontBackCappedList<Integer> list = new InstrumentedFrontBackCappedList<>(new ArrayFrontBackCappedList<>(3));
+		System.out.println("\nCounting operations on an instrumented list of capacity 3");
+		list.addBack(1);
+		list.addBack(2);
+		list.addFront(3);
+		list.addFront(4);
+		list.indexOf(2);
+		list.contains(5);
+		list.getEntry(1);
+		list.removeFront();
+		list.removeFront();
+		list.removeBack();
+		list.removeBack();
+		list.clear();
+
+		InstrumentedFrontBackCappedList.Metrics metrics = list.snapshot();
+		testLargeResult("addBack count", 2L, metrics.getCount(InstrumentedFrontBackCappedList.Operation.ADD_BACK));
+		testLargeResult("addFront count", 2L, metrics.getCount(InstrumentedFrontBackCappedList.Operation.ADD_FRONT));
+		testLargeResult("removeBack count", 2L, metrics.getCount(InstrumentedFrontBackCappedList.Operation.REMOVE_BACK));
+		testLargeResult("rejected adds", 1L, metrics.getRejectedAdds());
+		testLargeResult("removes from an empty list", 1L, metrics.getEmptyRemoves());
+		testLargeResult("high-water mark", 3, metrics.getHighWaterMark());
+		testLargeResult("latency without histograms", -1L,
+				metrics.getLatencyAtPercentile(InstrumentedFrontBackCappedList.Operation.INDEX_OF, 50));
+		testLargeResult("exported metrics", "{\"counts\": {\"ADD_FRONT\": 2, \"ADD_BACK\": 2, \"REMOVE_FRONT\": 2, "
+				+ "\"REMOVE_BACK\": 2, \"CLEAR\": 1, \"GET_ENTRY\": 1, \"INDEX_OF\": 1, \"LAST_INDEX_OF\": 0, "
+				+ "\"CONTAINS\": 1}, \"rejectedAdds\": 1, \"emptyRemoves\": 1, \"highWaterMark\": 3, \"latencyNanos\": {}}",
+				metrics.toJson());
+
+		list.setLatencyHistograms(true);
+		for(int count = 0; count < 1000; count++) {
+			list.addBack(count);
+			list.indexOf(-1);
+			list.removeFront();
+		}
+		metrics = list.snapshot();
+		long median = metrics.getLatencyAtPercentile(InstrumentedFrontBackCappedList.Operation.INDEX_OF, 50);
+		long slowest = metrics.getLatencyAtPercentile(InstrumentedFrontBackCappedList.Operation.INDEX_OF, 100);
+		testLargeResult("indexOf latencies are recorded in order", true, 0 <= median && median <= slowest);
+		testLargeResult("indexOf count after timing", 1001L, metrics.getCount(InstrumentedFrontBackCappedList.Operation.INDEX_OF));
+		testLargeResult("exported metrics include indexOf latencies", true, metrics.toJson().contains("\"INDEX_OF\": {\"p50\": "));
+
+		list.reset();
+		list.addAllBack(new Integer[] {1, 2, 3, 4, 5});
+		list.drainFront(2, entry -> { });
+		metrics = list.snapshot();
+		testLargeResult("addBack count after a bulk add past capacity", 4L,
+				metrics.getCount(InstrumentedFrontBackCappedList.Operation.ADD_BACK));
+		testLargeResult("rejected adds after a bulk add past capacity", 1L, metrics.getRejectedAdds());
+		testLargeResult("removeFront count after a drain", 2L,
+				metrics.getCount(InstrumentedFrontBackCappedList.Operation.REMOVE_FRONT));
+		testLargeResult("high-water mark after a bulk add", 3, metrics.getHighWaterMark());
+
+		list.clear();
+		list.reset();
+		testLargeResult("addBack count after reset", 0L, list.snapshot().getCount(InstrumentedFrontBackCappedList.Operation.ADD_BACK));
+	}
+
+	/*
+	 * Counts adds and removes made by the thread that owns an instrumented list, in its own counts, and by several
+	 * other threads at once, in the shared counters, and checks that the totals add up.
+	 */
+	public static void testInstrumentationThreads(int threads, int operationsPerThread) {
+		InstrumentedFrontBackCappedList<Integer> list =
+				new InstrumentedFrontBackCappedList<>(new ConcurrentFrontBackCappedList<>(64));
+		list.addBack(0);						// The main thread becomes the owner
+		List<Thread> workers = new ArrayList<>();
+		for(int thread = 0; thread < threads; thread++) {
+			workers.add(new Thread(() -> {
+				for(int count = 0; count < operationsPerThread; count++) {
+					list.addBack(count);
+					list.removeFront();
+				}
+			}));
+		}
+		for(Thread worker : workers) {
+			worker.start();
+		}
+		for(int count = 0; count < operationsPerThread; count++) {
+			list.addFront(count);
+			list.removeBack();
+		}
+		try {
+			for(Thread worker : workers) {
+				worker.join();
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		InstrumentedFrontBackCappedList.Metrics metrics = list.snapshot();
+		long expected = (long) threads * operationsPerThread;
+		System.out.println("\nCounting on an instrumented list from its owner and " + threads + " other threads");
+		testLargeResult("addBack count", expected + 1, metrics.getCount(InstrumentedFrontBackCappedList.Operation.ADD_BACK));
+		testLargeResult("addFront count", (long) operationsPerThread,
+				metrics.getCount(InstrumentedFrontBackCappedList.Operation.ADD_FRONT));
+		testLargeResult("removeFront and removeBack count", expected + operationsPerThread,
+				metrics.getCount(InstrumentedFrontBackCappedList.Operation.REMOVE_FRONT)
+				+ metrics.getCount(InstrumentedFrontBackCappedList.Operation.REMOVE_BACK));
+		testLargeResult("high-water mark within capacity", true,
+				metrics.getHighWaterMark() >= 1 && metrics.getHighWaterMark() <= 64);
+	}
+
+	/*
+	 * The thread that owns an instrumented list fills and empties it over and over, while the main thread resets
+	 * the metrics. After each reset, the counts must hold only adds made since it, and once the owner has filled the
+	 * list again the high-water mark must have risen to the full size.
+	 */
+	public static void testResetWhileCounting(int fill, int resets) {
+		InstrumentedFrontBackCappedList<Integer> list =
+				new InstrumentedFrontBackCappedList<>(new ConcurrentFrontBackCappedList<>(fill));
+		AtomicInteger cycles = new AtomicInteger();
+		AtomicBoolean stop = new AtomicBoolean();
+		Thread owner = new Thread(() -> {
+			while(!stop.get()) {
+				for(int count = 0; count < fill; count++) {
+					list.addBack(count);
+				}
+				for(int count = 0; count < fill; count++) {
+					list.removeFront();
+				}
+				cycles.incrementAndGet();
+			}
+		});
+		owner.start();
+
+		int staleCounts = 0;
+		int staleMarks = 0;
+		for(int reset = 0; reset < resets; reset++) {
+			int before = cycles.get();
+			list.reset();
+			while(cycles.get() < before + 2 && owner.isAlive()) {
+				Thread.yield();			// Wait for a whole cycle that started after the reset
+			}
+			InstrumentedFrontBackCappedList.Metrics metrics = list.snapshot();
+			long addsSinceReset = (long) (cycles.get() - before + 1) * fill;
+			if(metrics.getCount(InstrumentedFrontBackCappedList.Operation.ADD_BACK) > addsSinceReset) {
+				staleCounts++;
+			}
+			if(metrics.getHighWaterMark() != fill) {
+				staleMarks++;
+			}
+		}
+		stop.set(true);
+		try {
+			owner.join();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		System.out.println("\nResetting an instrumented list " + resets + " times while its owner fills it to " + fill);
+		testLargeResult("resets that kept counts from before them", 0, staleCounts);
+		testLargeResult("resets after which the high-water mark stopped rising", 0, staleMarks);
+	}
+
+	/*
+	 * Records the latencies 1 to 1000000 nanoseconds and checks that percentiles read back from the histogram are
+	 * no smaller than the exact ones and at most 12.5% larger.
+	 */
+	public static void testLatencyHistogram() {
+		InstrumentedFrontBackCappedList.LatencyHistogram histogram = new InstrumentedFrontBackCappedList.LatencyHistogram();
+		int values = 1_000_000;
+		for(int value = 1; value <= values; value++) {
+			histogram.record(value);
+		}
+
+		System.out.println("\nRecording the latencies 1 to " + values + " nanoseconds in a histogram");
+		testLargeResult("total count", (long) values, histogram.getTotalCount());
+		int outOfBounds = 0;
+		for(double percentile : new double[] {0.001, 1, 10, 50, 90, 99, 99.9, 100}) {
+			long exact = (long) Math.ceil(percentile / 100 * values);
+			long read = histogram.getValueAtPercentile(percentile);
+			if(read < exact || read > exact * 1.125) {
+				outOfBounds++;
+			}
+		}
+		testLargeResult("percentiles outside 12.5% of the exact ones", 0, outOfBounds);
+		testLargeResult("percentile of an empty histogram", 0L,
+				new InstrumentedFrontBackCappedList.LatencyHistogram().getValueAtPercentile(50));
+	}
+
+	/*
+	 * Fills an unrolled list of several chunks and clears it, then checks that an entry in a later chunk can be
+	 * garbage collected although the list keeps its first chunk for reuse.
+	 */
+	public static void testSpareChunk(int capacity) {
+		UnrolledFrontBackCappedList<String> list = new UnrolledFrontBackCappedList<>(capacity);
+		for(int index = 0; index < capacity; index++) {
+			list.addBack("entry " + index);
+		}
+		WeakReference<String> entry = new WeakReference<>(list.getEntry(capacity * 4 / 5));
+		list.clear();
+		for(int attempt = 0; attempt < 10 && entry.get() != null; attempt++) {
+			System.gc();
+		}
+
+		System.out.println("\nClearing an unrolled list of " + capacity + " entries");
+		testLargeResult("entry at position " + (capacity * 4 / 5) + " collected", true, entry.get() == null);
+		list.addFront("front");
+		list.addBack("back");
+		testLargeResult("list after reusing the spare chunk", "[front, back]", list.toString().split("\t")[0]);
+	}
+
+	/*
+	 * Checks that every implementation separates entries that print as empty strings, as in "[, a]".
+	 */
+	public static void testEmptyStringEntries() {
+		List<FrontBackCappedListInterface<String>> lists = Arrays.asList(new ArrayFrontBackCappedList<>(4),
+				new LinkedFrontBackCappedList<>(4), new UnrolledFrontBackCappedList<>(4),
+				new OffHeapFrontBackCappedList<>(4, FixedWidthCodec.string(8)));
+
+		System.out.println("\nLists holding \"\", \"\" and \"a\"");
+		for(FrontBackCappedListInterface<String> list : lists) {
+			list.addBack("");
+			list.addBack("");
+			list.addBack("a");
+			testLargeResult(list.getClass().getSimpleName(), "[, , a]", list.toString().split("\t")[0]);
+		}
+	}
+
+	/*
+	 * Fills a position-indexed list from both ends and checks getEntry at every position against an array list,
+	 * after filling it, after a snapshot forces a removal from the back to copy the nodes, after the index is
+	 * rebuilt, and after half the list is drained from the front.
+	 */
+	public static void testPositionIndex(int capacity) {
+		LinkedFrontBackCappedList<Integer> list = new LinkedFrontBackCappedList<>(capacity);
+		ArrayFrontBackCappedList<Integer> reference = new ArrayFrontBackCappedList<>(capacity);
+		list.setPositionIndexed(true);
+		for(int value = 0; !list.isFull(); value++) {
+			if(value % 3 == 0) {
+				list.addFront(value);
+				reference.addFront(value);
+			} else {
+				list.addBack(value);
+				reference.addBack(value);
+			}
+		}
+
+		System.out.println("\nChecking getEntry at every position of a position-indexed list of " + capacity + " entries");
+		testLargeResult("isPositionIndexed", true, list.isPositionIndexed());
+		testLargeResult("positions that disagree after filling", 0, countPositionMismatches(list, reference));
+
+		FrontBackCappedListInterface<Integer> snapshot = list.snapshot();
+		list.removeBack();
+		reference.removeBack();
+		testLargeResult("positions that disagree after copying shared nodes", 0, countPositionMismatches(list, reference));
+		testLargeResult("snapshot keeps its last entry", reference.size(), snapshot.size() - 1);
+
+		list.setPositionIndexed(false);
+		testLargeResult("positions that disagree without the index", 0, countPositionMismatches(list, reference));
+		list.setPositionIndexed(true);
+		testLargeResult("positions that disagree after rebuilding", 0, countPositionMismatches(list, reference));
+
+		list.drainFront(capacity / 2, entry -> { });
+		reference.drainFront(capacity / 2, entry -> { });
+		testLargeResult("positions that disagree after draining", 0, countPositionMismatches(list, reference));
+	}
+
+	/*
+	 * Reads every position of a full list in order, which walks one node from the cursor each time, and checks the
+	 * entries against an array list. Then performs random adds, removes, bulk operations and clears on a small list
+	 * that recycles its nodes, each followed by a getEntry within a few positions of the previous one, so a cursor
+	 * left on a removed node would soon be read after the node was reused.
+	 */
+	public static void testCursor(int capacity, int operations) {
+		LinkedFrontBackCappedList<Integer> list = new LinkedFrontBackCappedList<>(capacity);
+		ArrayFrontBackCappedList<Integer> reference = new ArrayFrontBackCappedList<>(capacity);
+		for(int value = 0; !list.isFull(); value++) {
+			list.addBack(value);
+			reference.addBack(value);
+		}
+
+		System.out.println("\nReading every position of a list of " + capacity + " entries in order");
+		testLargeResult("positions that disagree", 0, countPositionMismatches(list, reference));
+		list.removeFront();
+		reference.removeFront();
+		list.addFront(-1);
+		reference.addFront(-1);
+		testLargeResult("positions that disagree after changing the front", 0, countPositionMismatches(list, reference));
+
+		LinkedFrontBackCappedList<Integer> small = new LinkedFrontBackCappedList<>(40);
+		ArrayFrontBackCappedList<Integer> smallReference = new ArrayFrontBackCappedList<>(40);
+		small.setNodeRecycling(true);
+		Random random = new Random(933);
+		int position = 0;
+		int mismatches = 0;
+		for(int operation = 0; operation < operations; operation++) {
+			int value = random.nextInt(1000);
+			int choice = random.nextInt(100);
+			if(choice < 30) {
+				small.addFront(value);
+				smallReference.addFront(value);
+			} else if(choice < 60) {
+				small.addBack(value);
+				smallReference.addBack(value);
+			} else if(choice < 75) {
+				small.removeFront();
+				smallReference.removeFront();
+			} else if(choice < 90) {
+				small.removeBack();
+				smallReference.removeBack();
+			} else if(choice < 93) {
+				int count = random.nextInt(4);
+				small.drainFront(count, entry -> { });
+				smallReference.drainFront(count, entry -> { });
+			} else if(choice < 96) {
+				int count = random.nextInt(4);
+				small.drainBack(count, entry -> { });
+				smallReference.drainBack(count, entry -> { });
+			} else if(choice < 98) {
+				small.addAllFront(new Integer[] {value, value + 1});
+				smallReference.addAllFront(new Integer[] {value, value + 1});
+			} else {
+				small.clear();
+				smallReference.clear();
+			}
+
+			position = Math.max(-1, Math.min(smallReference.size(), position + random.nextInt(7) - 3));
+			if(small.size() != smallReference.size()
+					|| !Objects.equals(small.getEntry(position), smallReference.getEntry(position))) {
+				mismatches++;
+			}
+		}
+
+		System.out.println("\n" + operations + " random operations, each followed by a getEntry near the last one");
+		testLargeResult("reads that disagreed with the reference list", 0, mismatches);
+	}
+
+	/*
+	 * Fills an array list from both ends, so it wraps around its array, with entries that repeat every 1000
+	 * positions, and checks that parallel searches find the same positions as sequential ones, for entries near
+	 * either end, in the middle, repeated in every task's range, and not in the list.
+	 */
+	public static void testParallelSearch(int capacity) {
+		ArrayFrontBackCappedList<Integer> list = new ArrayFrontBackCappedList<>(capacity);
+		for(int position = 0; !list.isFull(); position++) {
+			if(position % 4 == 0) {
+				list.addFront(position % 1000);
+			} else {
+				list.addBack(position % 1000);
+			}
+		}
+		list.removeBack();
+		list.addFront(-1);
+		list.removeBack();
+		list.addFront(-2);
+		list.removeBack();
+		list.addBack(-3);
+
+		System.out.println("\nComparing parallel and sequential searches of an array list of " + capacity + " entries");
+		int mismatches = 0;
+		for(Integer value : new Integer[] {-1, -2, -3, 0, 1, 500, 999, capacity}) {
+			int first = list.indexOf(value);
+			int last = list.lastIndexOf(value);
+			list.setParallelSearchThreshold(0);
+			if(list.indexOf(value) != first || list.lastIndexOf(value) != last
+					|| list.indexOfParallel(value) != first || list.lastIndexOfParallel(value) != last
+					|| list.contains(value) != (first >= 0)) {
+				mismatches++;
+			}
+			list.setParallelSearchThreshold(Integer.MAX_VALUE);
+		}
+		testLargeResult("entries whose parallel and sequential positions differ", 0, mismatches);
+		testLargeResult("indexOfParallel of the last entry", capacity - 1, list.indexOfParallel(-3));
+		testLargeResult("lastIndexOfParallel of the first entry", 0, list.lastIndexOfParallel(-2));
+		testLargeResult("indexOfParallel of an entry not in the list", -1, list.indexOfParallel(capacity));
+		testLargeResult("indexOfParallel of an empty list", -1, new ArrayFrontBackCappedList<Integer>(10).indexOfParallel(1));
+	}
+
+	// Counts the positions, including the invalid ones just outside the list, where two lists' entries differ
+	private static int countPositionMismatches(FrontBackCappedListInterface<Integer> list,
+			FrontBackCappedListInterface<Integer> reference) {
+		int mismatches = 0;
+		for(int position = -1; position <= reference.size(); position++) {
+			if(!Objects.equals(list.getEntry(position), reference.getEntry(position))) {
+				mismatches++;
+			}
+		}
+		return mismatches;
+	}
+
+	/*
+	 * Performs the same random operations on two lists, only one of which keeps a fingerprint, checking after each
+	 * one that the lists are equal and share a hash code. A third list, changed the same way but with its first
+	 * entry replaced, must never equal the others unless it is empty.
+	 */
+	public static void testFingerprint(int capacity, int operations) {
+		LinkedFrontBackCappedList<Integer> list = new LinkedFrontBackCappedList<>(capacity);
+		LinkedFrontBackCappedList<Integer> reference = new LinkedFrontBackCappedList<>(capacity * 2);
+		list.setFingerprinting(true);
+		LinkedFrontBackCappedList<Integer> other = new LinkedFrontBackCappedList<>(capacity);
+		other.setFingerprinting(true);
+		Random random = new Random(933);
+		int mismatches = 0;
+		int collisions = 0;
+
+		for(int operation = 0; operation < operations; operation++) {
+			Integer value = random.nextInt(10);
+			int choice = random.nextInt(100);
+
+			// The reference list is larger, so it is only added to when the list accepts the entries
+			if(choice < 25) {
+				if(list.addFront(value)) {
+					reference.addFront(value);
+				}
+			} else if(choice < 50) {
+				if(list.addBack(value)) {
+					reference.addBack(value);
+				}
+			} else if(choice < 65) {
+				list.removeFront();
+				reference.removeFront();
+			} else if(choice < 80) {
+				list.removeBack();
+				reference.removeBack();
+			} else if(choice < 85) {
+				Integer[] values = {value, value + 1, value + 2};
+				reference.addAllFront(Arrays.copyOf(values, list.addAllFront(values)));
+			} else if(choice < 90) {
+				Integer[] values = {value, value + 1, value + 2};
+				reference.addAllBack(Arrays.copyOf(values, list.addAllBack(values)));
+			} else if(choice < 94) {
+				reference.drainFront(list.drainFront(value, entry -> { }), entry -> { });
+			} else if(choice < 98) {
+				reference.drainBack(list.drainBack(value, entry -> { }), entry -> { });
+			} else if(choice < 99) {
+				list.setFingerprinting(false);
+				list.setFingerprinting(true);
+			} else {
+				list.clear();
+				reference.clear();
+			}
+
+			if(!list.equals(reference) || !reference.equals(list) || list.hashCode() != reference.hashCode()) {
+				mismatches++;
+			}
+
+			// A list that differs only in its first entry
+			other.clear();
+			other.addAllBack(Arrays.asList(list.toArray(new Integer[0])));
+			if(other.removeFront() != null) {
+				other.addFront(-1);
+				if(other.equals(list) || other.hashCode() == list.hashCode()) {
+					collisions++;
+				}
+			}
+		}
+
+		System.out.println("\n" + operations + " random operations on a fingerprinted LinkedFrontBackCappedList");
+		testLargeResult("operations after which the lists were unequal or hashed differently", 0, mismatches);
+		testLargeResult("lists differing in one entry that were equal or hashed the same", 0, collisions);
+	}
+
+	public static void testLargeList(FrontBackCappedListInterface<Integer> list, int capacity) {
+		System.out.println("\nFilling " + list.getClass().getSimpleName() + " with capacity=" + capacity);
+
+		// Fill the back half with 0, 1, 2, ... and the front half with -1, -2, -3, ...
+		int backCount = capacity / 2;
+		int frontCount = capacity - backCount;
+		for(int value = 0; value < backCount; value++) {
+			list.addBack(value);
+		}
+		for(int value = 1; value <= frontCount; value++) {
+			list.addFront(-value);
+		}
+
+		testLargeResult("isFull", true, list.isFull());
+		testLargeResult("addBack to full list", false, list.addBack(capacity));
+		testLargeResult("size", capacity, list.size());
+		testLargeResult("getEntry first", -frontCount, list.getEntry(0));
+		testLargeResult("getEntry middle", 0, list.getEntry(frontCount));
+		testLargeResult("getEntry last", backCount - 1, list.getEntry(capacity - 1));
+		testLargeResult("indexOf last element", capacity - 1, list.indexOf(backCount - 1));
+		testLargeResult("lastIndexOf first element", 0, list.lastIndexOf(-frontCount));
+		testLargeResult("indexOf element not in list", -1, list.indexOf(capacity));
+		testLargeResult("lastIndexOf element not in list", -1, list.lastIndexOf(capacity));
+		testLargeResult("contains last element", true, list.contains(backCount - 1));
+		testLargeResult("contains element not in list", false, list.contains(capacity));
+		testLargeResult("toString ends with tail", true, list.toString().endsWith("tail=" + (backCount - 1)));
+		testLargeResult("parallelStream sum", (long) backCount * (backCount - 1) / 2 - (long) frontCount * (frontCount + 1) / 2,
+				list.parallelStream().mapToLong(Integer::longValue).sum());
+
+		int removed = 0;
+		while(list.removeBack() != null) {
+			removed++;
+			if(removed == backCount) {
+				testLargeResult("removeFront after draining the back", -frontCount, list.removeFront());
+				removed++;
+			}
+		}
+		testLargeResult("entries removed", capacity, removed);
+		testLargeResult("isEmpty after draining", true, list.isEmpty());
+	}
+
+	public static void testLargeCompareTo(int capacity) {
+		LinkedFrontBackCappedList<Integer> listA = new LinkedFrontBackCappedList<>(capacity);
+		LinkedFrontBackCappedList<Integer> listB = new LinkedFrontBackCappedList<>(capacity);
+		for(int value = 0; value < capacity; value++) {
+			listA.addBack(value);
+			listB.addBack(value);
+		}
+		System.out.println("\nComparing two lists with size=" + capacity);
+		testLargeResult("compareTo equal lists", 0, Integer.signum(listA.compareTo(listB)));
+		listA.setFingerprinting(true);
+		testLargeResult("equals equal lists", true, listA.equals(listB));
+		testLargeResult("hashCode of equal lists", listB.hashCode(), listA.hashCode());
+		listB.removeBack();
+		testLargeResult("compareTo longer list", 1, Integer.signum(listA.compareTo(listB)));
+		listB.addBack(-1);
+		listB.setFingerprinting(true);
+		testLargeResult("equals list differing in last entry", false, listA.equals(listB));
+	}
+
+	public static void testNodeRecycling(int capacity, int repetitions) {
+		LinkedFrontBackCappedList<Integer> list = new LinkedFrontBackCappedList<>(capacity);
+		list.setNodeRecycling(true);
+		Integer value = capacity;			// Boxed once, so the loops below box nothing
+		for(int count = 0; count < capacity; count++) {
+			list.addBack(value);
+		}
+
+		ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if(!threadBean.isThreadAllocatedMemorySupported()) {
+			System.out.println("\nAllocation measurement is not supported by this JVM; test skipped.");
+			return;
+		}
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		churn(list, value, repetitions);	// Warm up so the measured loop runs compiled code
+		long before = threadBean.getCurrentThreadAllocatedBytes();
+		churn(list, value, repetitions);
+		long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+
+		System.out.println("\nBytes allocated by " + repetitions + " repetitions of adds and removes on a full list: expected=0 actual=" + allocated);
+		if(allocated != 0) {
+			System.out.println("*****Test failed for node recycling: adds and removes allocated memory");
+		}
+		testLargeResult("size after repetitions", capacity, list.size());
+	}
+
+	/*
+	 * A snapshot suspends recycling only until the list it was taken from becomes empty: once every entry has been
+	 * removed, by single removes or by a drain, adds and removes on the refilled list must allocate nothing again.
+	 * Only the front is removed from, since a removal from the back would end the sharing on its own.
+	 */
+	public static void testRecyclingAfterSnapshot(int capacity, int repetitions) {
+		LinkedFrontBackCappedList<Integer> list = new LinkedFrontBackCappedList<>(capacity);
+		list.setNodeRecycling(true);
+		Integer value = capacity;			// Boxed once, so the loops below box nothing
+
+		ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if(!threadBean.isThreadAllocatedMemorySupported()) {
+			System.out.println("\nAllocation measurement is not supported by this JVM; test skipped.");
+			return;
+		}
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		for(String emptiedBy : new String[] {"removeFront", "drainBack"}) {
+			for(int count = 0; count < capacity; count++) {
+				list.addBack(count);
+			}
+			FrontBackCappedListInterface<Integer> snapshot = list.snapshot();
+			String expected = snapshot.toString();
+			if(emptiedBy.equals("removeFront")) {
+				while(list.removeFront() != null) {
+				}
+			} else {
+				list.drainBack(capacity, entry -> { });
+			}
+			for(int count = 0; count < capacity; count++) {
+				list.addBack(value);
+			}
+
+			rotate(list, repetitions);			// Warm up so the measured loop runs compiled code
+			long before = threadBean.getCurrentThreadAllocatedBytes();
+			rotate(list, repetitions);
+			long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+
+			System.out.println("\nBytes allocated by " + repetitions + " repetitions of removeFront and addBack after " + emptiedBy + " emptied a snapshotted list: expected=0 actual=" + allocated);
+			if(allocated != 0) {
+				System.out.println("*****Test failed for node recycling: the list stayed shared after " + emptiedBy + " emptied it");
+			}
+			testLargeResult("snapshot unchanged after " + emptiedBy, true, expected.equals(snapshot.toString()));
+			testLargeResult("size after repetitions", capacity, list.size());
+			list.clear();
+		}
+	}
+
+	private static void rotate(LinkedFrontBackCappedList<Integer> list, int repetitions) {
+		for(int count = 0; count < repetitions; count++) {
+			list.addBack(list.removeFront());
+		}
+	}
+
+	private static void churn(LinkedFrontBackCappedList<Integer> list, Integer value, int repetitions) {
+		for(int count = 0; count < repetitions; count++) {
+			list.addBack(value);			// Rejected: the list is full
+			list.removeFront();
+			list.addBack(value);
+			list.removeBack();
+			list.addFront(value);
+		}
+	}
+
+	/*
+	 * Producers add to the back and consumers remove from the front. In a linearizable list, the entries a single
+	 * producer added must reach a single consumer in the order they were added.
+	 */
+	public static void testConcurrentQueue(int capacity, int threads, int entriesPerProducer) {
+		ConcurrentFrontBackCappedList<Integer> list = new ConcurrentFrontBackCappedList<>(capacity);
+		int total = threads * entriesPerProducer;
+		AtomicInteger consumed = new AtomicInteger();
+		AtomicInteger outOfOrder = new AtomicInteger();
+		AtomicIntegerArray timesRemoved = new AtomicIntegerArray(total);
+		List<Thread> workers = new ArrayList<>();
+
+		for(int producer = 0; producer < threads; producer++) {
+			int first = producer * entriesPerProducer;
+			workers.add(new Thread(() -> {
+				for(int value = first; value < first + entriesPerProducer; value++) {
+					while(!list.addBack(value)) {
+						Thread.yield();
+					}
+				}
+			}));
+		}
+		for(int consumer = 0; consumer < threads; consumer++) {
+			workers.add(new Thread(() -> {
+				int[] lastSeen = new int[threads];
+				Arrays.fill(lastSeen, -1);
+				while(consumed.get() < total) {
+					Integer value = list.removeFront();
+					if(value == null) {
+						Thread.yield();
+					} else {
+						consumed.incrementAndGet();
+						timesRemoved.incrementAndGet(value);
+						int producer = value / entriesPerProducer;
+						if(value < lastSeen[producer]) {
+							outOfOrder.incrementAndGet();
+						}
+						lastSeen[producer] = value;
+					}
+				}
+			}));
+		}
+
+		int maximumSize = runWorkers(workers, list);
+		System.out.println("\nQueue with " + threads + " producers and " + threads + " consumers, capacity=" + capacity);
+		testLargeResult("entries removed exactly once", total, countOnes(timesRemoved));
+		testLargeResult("entries from one producer removed out of order", 0, outOfOrder.get());
+		testLargeResult("size never exceeded capacity", true, maximumSize <= capacity);
+		testLargeResult("isEmpty after draining", true, list.isEmpty());
+	}
+
+	/*
+	 * Producers add to both ends and consumers remove from both ends, racing for the last entry and the last free
+	 * slot. Every entry must be removed exactly once and the list must never hold more than its capacity.
+	 */
+	public static void testConcurrentDeque(int capacity, int threads, int entriesPerProducer) {
+		ConcurrentFrontBackCappedList<Integer> list = new ConcurrentFrontBackCappedList<>(capacity);
+		int total = threads * entriesPerProducer;
+		AtomicInteger consumed = new AtomicInteger();
+		AtomicIntegerArray timesRemoved = new AtomicIntegerArray(total);
+		List<Thread> workers = new ArrayList<>();
+
+		for(int producer = 0; producer < threads; producer++) {
+			int first = producer * entriesPerProducer;
+			workers.add(new Thread(() -> {
+				for(int value = first; value < first + entriesPerProducer; value++) {
+					boolean front = (value & 1) == 0;
+					while(!(front ? list.addFront(value) : list.addBack(value))) {
+						Thread.yield();
+					}
+				}
+			}));
+		}
+		for(int consumer = 0; consumer < threads; consumer++) {
+			boolean front = (consumer & 1) == 0;
+			workers.add(new Thread(() -> {
+				while(consumed.get() < total) {
+					Integer value = front ? list.removeFront() : list.removeBack();
+					if(value == null) {
+						Thread.yield();
+					} else {
+						consumed.incrementAndGet();
+						timesRemoved.incrementAndGet(value);
+					}
+				}
+			}));
+		}
+
+		int maximumSize = runWorkers(workers, list);
+		System.out.println("\nDeque with " + threads + " producers and " + threads + " consumers, capacity=" + capacity);
+		testLargeResult("entries removed exactly once", total, countOnes(timesRemoved));
+		testLargeResult("size never exceeded capacity", true, maximumSize <= capacity);
+		testLargeResult("isEmpty after draining", true, list.isEmpty());
+	}
+
+	/*
+	 * One producer puts entries while one consumer takes them through a small list, so both threads repeatedly
+	 * wait for each other. Every entry must arrive, in order.
+	 */
+	public static void testBlockingHandoff(int capacity, int entries) {
+		ConcurrentFrontBackCappedList<Integer> list = new ConcurrentFrontBackCappedList<>(capacity);
+		AtomicInteger outOfOrder = new AtomicInteger();
+		AtomicInteger received = new AtomicInteger();
+
+		Thread producer = new Thread(() -> {
+			try {
+				for(int value = 0; value < entries; value++) {
+					list.putBack(value);
+				}
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		Thread consumer = new Thread(() -> {
+			try {
+				for(int expected = 0; expected < entries; expected++) {
+					if(list.takeFront() != expected) {
+						outOfOrder.incrementAndGet();
+					}
+					received.incrementAndGet();
+				}
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		runWorkers(Arrays.asList(producer, consumer), list);
+		System.out.println("\nHandoff of " + entries + " entries through a list with capacity=" + capacity);
+		testLargeResult("entries taken", entries, received.get());
+		testLargeResult("entries taken out of order", 0, outOfOrder.get());
+	}
+
+	public static void testTimedAddRemove() {
+		ConcurrentFrontBackCappedList<Integer> list = new ConcurrentFrontBackCappedList<>(1);
+		System.out.println("\nTimed adds and removes on a list with capacity=1");
+
+		try {
+			long start = System.nanoTime();
+			Integer polled = list.pollFront(50, TimeUnit.MILLISECONDS);
+			long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			testLargeResult("pollFront on empty list returns null", true, polled == null);
+			testLargeResult("pollFront waited for the timeout", true, waited >= 50);
+
+			list.putBack(1);
+			testLargeResult("offerBack to full list times out", false, list.offerBack(2, 20, TimeUnit.MILLISECONDS));
+
+			// A waiting putFront must complete as soon as another thread makes room
+			Thread remover = new Thread(() -> {
+				try {
+					Thread.sleep(20);
+				} catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				list.removeBack();
+			});
+			remover.start();
+			list.putFront(3);
+			remover.join();
+			testLargeResult("putFront waits for room", 3, list.getEntry(0));
+			testLargeResult("pollBack removes waiting entry", 3, list.pollBack(1, TimeUnit.SECONDS));
+		} catch(InterruptedException e) {
+			System.out.println("*****Test failed for timed adds and removes; interrupted");
+		}
+	}
+
+	public static void testEviction(FrontBackCappedListInterface<Integer> list, List<Integer> evicted, LongSupplier evictionCount) {
+		System.out.println("\nEvicting entries from a full " + list.getClass().getSimpleName() + " with capacity=3");
+		list.addAllBack(new Integer[] {1, 2, 3});
+		testLargeResult("addBack to full list evicts the first entry", true, list.addBack(4));
+		testLargeResult("contents after addBack", "[2, 3, 4]", list.toString().split("\t")[0]);
+		testLargeResult("addFront to full list evicts the last entry", true, list.addFront(0));
+		testLargeResult("contents after addFront", "[0, 2, 3]", list.toString().split("\t")[0]);
+		testLargeResult("addAllBack to full list adds every entry", 2, list.addAllBack(new Integer[] {5, 6}));
+		testLargeResult("contents after addAllBack", "[3, 5, 6]", list.toString().split("\t")[0]);
+		testLargeResult("indexOf after evictions", 1, list.indexOf(5));
+		testLargeResult("indexOf evicted entry", -1, list.indexOf(2));
+		testLargeResult("isFull after evictions", true, list.isFull());
+		testLargeResult("evicted entries, in order", "[1, 4, 0, 2]", evicted.toString());
+		testLargeResult("eviction count", 4L, evictionCount.getAsLong());
+	}
+
+	public static void testOverflowEdgeCases() {
+		System.out.println("\nOverflow policy edge cases");
+		LinkedFrontBackCappedList<Integer> emptyList = new LinkedFrontBackCappedList<>(0);
+		emptyList.setOverflowPolicy(OverflowPolicy.EVICT_OPPOSITE_END);
+		testLargeResult("evicting list with capacity 0 rejects addBack", false, emptyList.addBack(1));
+		testLargeResult("evicting list with capacity 0 counts no eviction", 0L, emptyList.getEvictionCount());
+
+		ConcurrentFrontBackCappedList<Integer> emptyConcurrentList = new ConcurrentFrontBackCappedList<>(0);
+		emptyConcurrentList.setOverflowPolicy(OverflowPolicy.EVICT_OPPOSITE_END);
+		testLargeResult("evicting concurrent list with capacity 0 rejects addFront", false, emptyConcurrentList.addFront(1));
+
+		boolean rejected = false;
+		try {
+			emptyList.setOverflowPolicy(OverflowPolicy.BLOCK);
+		} catch(IllegalArgumentException e) {
+			rejected = true;
+		}
+		testLargeResult("linked list rejects the BLOCK policy", true, rejected);
+		testLargeResult("policy unchanged after rejection", OverflowPolicy.EVICT_OPPOSITE_END, emptyList.getOverflowPolicy());
+	}
+
+	public static void testSlidingWindow(int capacity, int entries) {
+		LinkedFrontBackCappedList<Integer> window = new LinkedFrontBackCappedList<>(capacity);
+		window.setNodeRecycling(true);
+		window.setOverflowPolicy(OverflowPolicy.EVICT_OPPOSITE_END);
+		Integer value = capacity;			// Boxed once, so the loops below box nothing
+		for(int count = 0; count < capacity; count++) {
+			window.addBack(value);
+		}
+
+		ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if(!threadBean.isThreadAllocatedMemorySupported()) {
+			System.out.println("\nAllocation measurement is not supported by this JVM; test skipped.");
+			return;
+		}
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		slide(window, value, entries);		// Warm up so the measured loop runs compiled code
+		long before = threadBean.getCurrentThreadAllocatedBytes();
+		slide(window, value, entries);
+		long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+
+		System.out.println("\nBytes allocated by " + entries + " adds to a full sliding window: expected=0 actual=" + allocated);
+		if(allocated != 0) {
+			System.out.println("*****Test failed for sliding window: evicting adds allocated memory");
+		}
+		testLargeResult("evictions", 2L * entries, window.getEvictionCount());
+		testLargeResult("size after sliding", capacity, window.size());
+	}
+
+	private static void slide(LinkedFrontBackCappedList<Integer> window, Integer value, int entries) {
+		for(int count = 0; count < entries; count++) {
+			window.addBack(value);
+		}
+	}
+
+	/*
+	 * Producers add to the back of a list that evicts from the front, with no consumers. Every entry must end up
+	 * either evicted or still in the list, exactly once, and the list must never hold more than its capacity.
+	 */
+	public static void testConcurrentEviction(int capacity, int threads, int entriesPerProducer) {
+		ConcurrentFrontBackCappedList<Integer> list = new ConcurrentFrontBackCappedList<>(capacity);
+		list.setOverflowPolicy(OverflowPolicy.EVICT_OPPOSITE_END);
+		int total = threads * entriesPerProducer;
+		AtomicIntegerArray timesSeen = new AtomicIntegerArray(total);
+		AtomicInteger rejected = new AtomicInteger();
+		list.setEvictionListener(value -> timesSeen.incrementAndGet(value));
+		List<Thread> workers = new ArrayList<>();
+
+		for(int producer = 0; producer < threads; producer++) {
+			int first = producer * entriesPerProducer;
+			workers.add(new Thread(() -> {
+				for(int value = first; value < first + entriesPerProducer; value++) {
+					if(!list.addBack(value)) {
+						rejected.incrementAndGet();
+					}
+				}
+			}));
+		}
+
+		int maximumSize = runWorkers(workers, list);
+		for(Integer value : list) {
+			timesSeen.incrementAndGet(value);
+		}
+		System.out.println("\nEvicting list with " + threads + " producers, capacity=" + capacity);
+		testLargeResult("adds rejected", 0, rejected.get());
+		testLargeResult("entries evicted or kept exactly once", total, countOnes(timesSeen));
+		testLargeResult("eviction count", (long) total - list.size(), list.getEvictionCount());
+		testLargeResult("size never exceeded capacity", true, maximumSize <= capacity);
+		testLargeResult("isFull after adds", true, list.isFull());
+	}
+
+	/*
+	 * A producer adds with addBack to a list that blocks when full, while a consumer removes more slowly. No add
+	 * may be rejected, and an add that is interrupted while waiting must return false with the interrupt status set.
+	 */
+	public static void testBlockingAdd(int capacity, int entries) {
+		ConcurrentFrontBackCappedList<Integer> list = new ConcurrentFrontBackCappedList<>(capacity);
+		list.setOverflowPolicy(OverflowPolicy.BLOCK);
+		AtomicInteger rejected = new AtomicInteger();
+		AtomicInteger outOfOrder = new AtomicInteger();
+
+		Thread producer = new Thread(() -> {
+			for(int value = 0; value < entries; value++) {
+				if(!list.addBack(value)) {
+					rejected.incrementAndGet();
+				}
+			}
+		});
+		Thread consumer = new Thread(() -> {
+			for(int expected = 0; expected < entries; expected++) {
+				Integer value;
+				while((value = list.removeFront()) == null) {
+					Thread.yield();
+				}
+				if(value != expected) {
+					outOfOrder.incrementAndGet();
+				}
+			}
+		});
+
+		runWorkers(Arrays.asList(producer, consumer), list);
+		System.out.println("\nBlocking adds of " + entries + " entries to a list with capacity=" + capacity);
+		testLargeResult("adds rejected", 0, rejected.get());
+		testLargeResult("entries removed out of order", 0, outOfOrder.get());
+
+		list.addAllBack(Collections.nCopies(capacity, 1));
+		AtomicInteger interruptedResult = new AtomicInteger(-1);
+		Thread blocked = new Thread(() -> {
+			boolean added = list.addBack(2);
+			interruptedResult.set((added ? 1 : 0) + (Thread.currentThread().isInterrupted() ? 2 : 0));
+		});
+		blocked.start();
+		try {
+			while(blocked.getState() != Thread.State.WAITING) {
+				Thread.yield();
+			}
+			blocked.interrupt();
+			blocked.join();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		testLargeResult("interrupted add returns false with interrupt status set", 2, interruptedResult.get());
+		testLargeResult("size after interrupted add", capacity, list.size());
+	}
+
+	/*
+	 * Several threads block in putBack on a full list, and then the list is cleared. The clear frees room for all of
+	 * them, so every put must complete without waiting for a later remove.
+	 */
+	public static void testClearWakesPutters(int capacity, int putters) {
+		ConcurrentFrontBackCappedList<Integer> list = new ConcurrentFrontBackCappedList<>(capacity);
+		list.addAllBack(Collections.nCopies(capacity, 1));
+		AtomicInteger completed = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+
+		for(int count = 0; count < putters; count++) {
+			Thread putter = new Thread(() -> {
+				try {
+					list.putBack(2);
+					completed.incrementAndGet();
+				} catch(InterruptedException e) {
+					// Still parked when the test gave up on it
+				}
+			});
+			threads.add(putter);
+			putter.start();
+		}
+		try {
+			for(Thread putter : threads) {
+				while(putter.getState() != Thread.State.WAITING) {
+					Thread.yield();
+				}
+			}
+			list.clear();
+			for(Thread putter : threads) {
+				putter.join(TimeUnit.SECONDS.toMillis(5));
+				putter.interrupt();			// Releases a putter that was never woken, so the driver can go on
+				putter.join();
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		System.out.println("\nClearing a full list with capacity=" + capacity + " while " + putters + " threads wait in putBack");
+		testLargeResult("puts completed after clear", putters, completed.get());
+		testLargeResult("size after puts", putters, list.size());
+	}
+
+	// Starts the workers and samples the size of the list until they finish; returns the largest size seen
+	private static int runWorkers(List<Thread> workers, FrontBackCappedListInterface<?> list) {
+		int maximumSize = 0;
+		for(Thread worker : workers) {
+			worker.start();
+		}
+		for(Thread worker : workers) {
+			while(worker.isAlive()) {
+				maximumSize = Math.max(maximumSize, list.size());
+				Thread.yield();
+			}
+		}
+		return maximumSize;
+	}
+
+	private static int countOnes(AtomicIntegerArray counts) {
+		int ones = 0;
+		for(int index = 0; index < counts.length(); index++) {
+			if(counts.get(index) == 1) {
+				ones++;
+			}
+		}
+		return ones;
+	}
+
+	/*
+	 * Performs the same random adds, removes and clears on both lists, checking after each one that every query
+	 * gives the same result on both. Entries are drawn from a small range so most of them repeat.
+	 */
+	public static void testAgainstReference(FrontBackCappedListInterface<Integer> list,
+			FrontBackCappedListInterface<Integer> reference, int operations) {
+		Random random = new Random(933);
+		int mismatches = 0;
+
+		for(int operation = 0; operation < operations; operation++) {
+			Integer value = random.nextInt(20);
+			int choice = random.nextInt(110);
+			Object actualResult, expectedResult;
+
+			if(choice >= 100) {
+				// Bulk adds and drains, checked against single adds and removes on the reference list
+				int count = random.nextInt(8);
+				boolean front = random.nextBoolean();
+				if(choice < 105) {
+					Integer[] values = new Integer[count];
+					for(int index = 0; index < count; index++) {
+						values[index] = random.nextInt(20);
+					}
+					actualResult = front ? list.addAllFront(values) : list.addAllBack(values);
+					int added = 0;
+					while(added < count && (front ? reference.addFront(values[added]) : reference.addBack(values[added]))) {
+						added++;
+					}
+					expectedResult = added;
+				} else {
+					List<Integer> drained = new ArrayList<>();
+					if(front) {
+						list.drainFront(count, drained::add);
+					} else {
+						list.drainBack(count, drained::add);
+					}
+					actualResult = drained;
+					List<Integer> removed = new ArrayList<>();
+					while(removed.size() < count && !reference.isEmpty()) {
+						removed.add(front ? reference.removeFront() : reference.removeBack());
+					}
+					expectedResult = removed;
+				}
+			} else if(choice < 30) {
+				actualResult = list.addFront(value);
+				expectedResult = reference.addFront(value);
+			} else if(choice < 60) {
+				actualResult = list.addBack(value);
+				expectedResult = reference.addBack(value);
+			} else if(choice < 79) {
+				actualResult = list.removeFront();
+				expectedResult = reference.removeFront();
+			} else if(choice < 99) {
+				actualResult = list.removeBack();
+				expectedResult = reference.removeBack();
+			} else {
+				list.clear();
+				reference.clear();
+				actualResult = expectedResult = null;
+			}
+
+			int position = random.nextInt(reference.size() + 2) - 1;
+			if(!Objects.equals(actualResult, expectedResult)
+					|| list.size() != reference.size()
+					|| list.indexOf(value) != reference.indexOf(value)
+					|| list.lastIndexOf(value) != reference.lastIndexOf(value)
+					|| list.contains(value) != reference.contains(value)
+					|| !Objects.equals(list.getEntry(position), reference.getEntry(position))) {
+				mismatches++;
+			}
+		}
+
+		System.out.println("\n" + operations + " random operations on " + list.getClass().getSimpleName());
+		testLargeResult("operations that disagreed with the reference list", 0, mismatches);
+		testLargeResult("final contents match the reference list", reference.toString().split("\t")[0],
+				list.toString().split("\t")[0]);
+	}
+
+	/*
+	 * Performs the same random adds, removes and clears on a list of ints and on an array list of Integers, checking
+	 * after each one that every query gives the same result on both. A missing entry is null in the array list and
+	 * the no-entry value in the list of ints.
+	 */
+	public static void testIntList(int capacity, int operations) {
+		IntFrontBackCappedList list = new IntFrontBackCappedList(capacity);
+		ArrayFrontBackCappedList<Integer> reference = new ArrayFrontBackCappedList<>(capacity);
+		Random random = new Random(933);
+		int mismatches = 0;
+
+		for(int operation = 0; operation < operations; operation++) {
+			int value = random.nextInt(20);
+			int choice = random.nextInt(100);
+			Object actualResult, expectedResult;
+
+			if(choice < 30) {
+				actualResult = list.addFront(value);
+				expectedResult = reference.addFront(value);
+			} else if(choice < 60) {
+				actualResult = list.addBack(value);
+				expectedResult = reference.addBack(value);
+			} else if(choice < 79) {
+				actualResult = list.removeFront();
+				expectedResult = orNoEntry(reference.removeFront(), list.getNoEntryValue());
+			} else if(choice < 99) {
+				actualResult = list.removeBack();
+				expectedResult = orNoEntry(reference.removeBack(), list.getNoEntryValue());
+			} else {
+				list.clear();
+				reference.clear();
+				actualResult = expectedResult = null;
+			}
+
+			int position = random.nextInt(reference.size() + 2) - 1;
+			if(!Objects.equals(actualResult, expectedResult)
+					|| list.size() != reference.size()
+					|| list.isFull() != reference.isFull()
+					|| list.indexOf(value) != reference.indexOf(value)
+					|| list.lastIndexOf(value) != reference.lastIndexOf(value)
+					|| list.contains(value) != reference.contains(value)
+					|| list.getEntry(position) != orNoEntry(reference.getEntry(position), list.getNoEntryValue())) {
+				mismatches++;
+			}
+		}
+
+		System.out.println("\n" + operations + " random operations on IntFrontBackCappedList");
+		testLargeResult("operations that disagreed with the reference list", 0, mismatches);
+		testLargeResult("final contents match the reference list", reference.toString(), list.toString());
+	}
+
+	private static int orNoEntry(Integer entry, int noEntryValue) {
+		return (entry == null) ? noEntryValue : entry;
+	}
+
+	public static void testLongList() {
+		LongFrontBackCappedList list = new LongFrontBackCappedList(3, -1L);
+		System.out.println("\nTesting LongFrontBackCappedList with capacity=3 and no-entry value -1");
+		testLargeResult("removeFront from empty list", -1L, list.removeFront());
+		testLargeResult("addBack large value", true, list.addBack(Long.MAX_VALUE));
+		testLargeResult("addFront", true, list.addFront(1L << 40));
+		testLargeResult("addBack", true, list.addBack(7L));
+		testLargeResult("addFront to full list", false, list.addFront(8L));
+		testLargeResult("display", "[1099511627776, 9223372036854775807, 7]\tsize=3\tcapacity=3\thead=1099511627776 tail=7",
+				list.toString());
+		testLargeResult("indexOf large value", 1, list.indexOf(Long.MAX_VALUE));
+		testLargeResult("getEntry out of bounds", -1L, list.getEntry(3));
+		long[] sum = new long[1];
+		list.forEach(entry -> sum[0] += entry);
+		testLargeResult("forEach sum", (1L << 40) + Long.MAX_VALUE + 7L, sum[0]);
+		testLargeResult("removeBack", 7L, list.removeBack());
+		testLargeResult("toArray", "[1099511627776, 9223372036854775807]", Arrays.toString(list.toArray()));
+	}
+
+	public static void testPrimitiveAllocation(int capacity, int repetitions) {
+		IntFrontBackCappedList list = new IntFrontBackCappedList(capacity);
+		for(int count = 0; count < capacity; count++) {
+			list.addBack(count);
+		}
+
+		ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if(!threadBean.isThreadAllocatedMemorySupported()) {
+			System.out.println("\nAllocation measurement is not supported by this JVM; test skipped.");
+			return;
+		}
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		churn(list, repetitions);			// Warm up so the measured loop runs compiled code
+		long before = threadBean.getCurrentThreadAllocatedBytes();
+		churn(list, repetitions);
+		long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+
+		System.out.println("\nBytes allocated by " + repetitions + " repetitions of adds and removes on a full list of ints: expected=0 actual=" + allocated);
+		if(allocated != 0) {
+			System.out.println("*****Test failed for primitive list: adds and removes allocated memory");
+		}
+		testLargeResult("size after repetitions", capacity, list.size());
+	}
+
+	private static void churn(IntFrontBackCappedList list, int repetitions) {
+		for(int count = 0; count < repetitions; count++) {
+			list.addBack(count);			// Rejected: the list is full
+			list.addBack(list.removeFront());
+			list.addFront(list.removeBack());
+		}
+	}
+
+	/*
+	 * Runs the scenarios on lists stored in new temporary files, which are deleted afterwards.
+	 */
+	public static void testMappedFileList() {
+		Path path = null, wordPath = null;
+		try {
+			path = Files.createTempFile("capped-list", ".bin");
+			wordPath = Files.createTempFile("capped-words", ".bin");
+			testList(new MappedFileFrontBackCappedList<Integer>(path, 10, FixedWidthCodec.INTEGER,
+							MappedFileFrontBackCappedList.ForcePolicy.ON_DEMAND),
+					new MappedFileFrontBackCappedList<String>(wordPath, 20, FixedWidthCodec.string(16),
+							MappedFileFrontBackCappedList.ForcePolicy.ON_DEMAND));
+		} catch(IOException e) {
+			System.out.println("*****Test failed for mapped file list: " + e);
+		} finally {
+			deleteQuietly(path);
+			deleteQuietly(wordPath);
+		}
+	}
+
+	/*
+	 * Takes snapshots of a list that recycles its nodes and checks that no later change to the list, at either end,
+	 * changes them. A removed node that was reused while a snapshot held it would change the snapshot's entries.
+	 */
+	public static void testSnapshots() {
+		LinkedFrontBackCappedList<Integer> list = new LinkedFrontBackCappedList<>(10);
+		list.setNodeRecycling(true);
+		list.setIndexed(true);
+		list.addAllBack(new Integer[] {1, 2, 3, 4});
+		FrontBackCappedListInterface<Integer> first = list.snapshot();
+		String firstContents = list.toString();
+		System.out.println("\nSnapshot of " + first);
+		testLargeResult("snapshot matches list", firstContents, first.toString());
+
+		list.removeFront();
+		list.addBack(5);
+		list.addFront(0);
+		list.removeFront();
+		list.addAllFront(Arrays.asList(-1, -2));
+		testLargeResult("snapshot after front changes and addBack", firstContents, first.toString());
+		testLargeResult("list after front changes and addBack", "[-2, -1, 2, 3, 4, 5]", list.toString().split("\t")[0]);
+
+		FrontBackCappedListInterface<Integer> second = list.snapshot();
+		String secondContents = list.toString();
+		testLargeResult("removeBack from shared list", 5, list.removeBack());
+		list.addBack(6);
+		list.addBack(7);
+		testLargeResult("second snapshot after removeBack and addBack", secondContents, second.toString());
+		testLargeResult("first snapshot after removeBack and addBack", firstContents, first.toString());
+		testLargeResult("list after removeBack and addBack", "[-2, -1, 2, 3, 4, 6, 7]", list.toString().split("\t")[0]);
+		testLargeResult("indexOf in list after removeBack", 5, list.indexOf(6));
+
+		FrontBackCappedListInterface<Integer> third = list.snapshot();
+		String thirdContents = list.toString();
+		list.drainBack(2, entry -> { });
+		list.drainFront(2, entry -> { });
+		list.addBack(8);
+		list.addFront(9);
+		testLargeResult("third snapshot after drains", thirdContents, third.toString());
+		testLargeResult("list after drains", "[9, 2, 3, 4, 8]", list.toString().split("\t")[0]);
+
+		FrontBackCappedListInterface<Integer> fourth = list.snapshot();
+		String fourthContents = list.toString();
+		list.clear();
+		list.addAllBack(new Integer[] {10, 11});
+		testLargeResult("fourth snapshot after clear", fourthContents, fourth.toString());
+
+		System.out.println("\nQuerying snapshot " + third);
+		testLargeResult("getEntry", 2, third.getEntry(2));
+		testLargeResult("getEntry out of bounds", null, third.getEntry(7));
+		testLargeResult("indexOf", 5, third.indexOf(6));
+		testLargeResult("lastIndexOf", 6, third.lastIndexOf(7));
+		testLargeResult("contains removed entry", true, third.contains(-2));
+		testLargeResult("size", 7, third.size());
+		testLargeResult("iterator", "[-2, -1, 2, 3, 4, 6, 7]", iterated(third));
+		testLargeResult("stream sum", 19, third.stream().mapToInt(Integer::intValue).sum());
+		testLargeResult("empty snapshot", "[]\tsize=0\tcapacity=0",
+				new LinkedFrontBackCappedList<Integer>(0).snapshot().toString());
+
+		testLargeResult("addBack to snapshot is unsupported", true, throwsUnsupported(() -> third.addBack(1)));
+		testLargeResult("removeFront from snapshot is unsupported", true, throwsUnsupported(() -> third.removeFront()));
+		testLargeResult("addAllFront to snapshot is unsupported", true,
+				throwsUnsupported(() -> third.addAllFront(new Integer[] {1})));
+		testLargeResult("drainBack from snapshot is unsupported", true,
+				throwsUnsupported(() -> third.drainBack(1, entry -> { })));
+		testLargeResult("clear of snapshot is unsupported", true, throwsUnsupported(() -> third.clear()));
+		testLargeResult("snapshot after unsupported changes", thirdContents, third.toString());
+	}
+
+	/*
+	 * One writer slides a list of consecutive entries forwards, occasionally removing and re-adding its last entry,
+	 * while readers read the snapshots it publishes. Every snapshot a reader sees must hold consecutive entries, as
+	 * the list did after some change, and snapshots must never go back in time.
+	 */
+	public static void testCopyOnWriteReads(int capacity, int readers, int entries) {
+		LinkedFrontBackCappedList<Integer> list = new LinkedFrontBackCappedList<>(capacity);
+		list.setNodeRecycling(true);
+		for(int value = 0; value < capacity; value++) {
+			list.addBack(value);
+		}
+		list.setCopyOnWriteReads(true);
+		AtomicBoolean writing = new AtomicBoolean(true);
+		AtomicInteger torn = new AtomicInteger();
+		AtomicInteger readersDone = new AtomicInteger();
+		List<Thread> workers = new ArrayList<>();
+
+		workers.add(new Thread(() -> {
+			for(int value = capacity; value < capacity + entries; value++) {
+				list.removeFront();
+				list.addBack(value);
+				if(value % 1_000 == 0) {
+					list.addBack(list.removeBack());
+				}
+			}
+			writing.set(false);
+		}));
+		for(int reader = 0; reader < readers; reader++) {
+			workers.add(new Thread(() -> {
+				int lastFirst = -1;
+				do {
+					FrontBackCappedListInterface<Integer> snapshot = list.getPublishedSnapshot();
+					int expected = snapshot.getEntry(0);
+					boolean consecutive = snapshot.size() >= capacity - 1 && expected >= lastFirst;
+					lastFirst = expected;
+					for(Integer value : snapshot) {
+						consecutive &= (value == expected++);
+					}
+					if(!consecutive || snapshot.getEntry(snapshot.size() - 1) != expected - 1) {
+						torn.incrementAndGet();
+					}
+				} while(writing.get());
+				readersDone.incrementAndGet();
+			}));
+		}
+
+		for(Thread worker : workers) {
+			worker.start();
+		}
+		try {
+			for(Thread worker : workers) {
+				worker.join();
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		System.out.println("\nCopy-on-write reads by " + readers + " readers while " + entries + " entries slide through capacity=" + capacity);
+		testLargeResult("torn or stale snapshots", 0, torn.get());
+		testLargeResult("readers finished", readers, readersDone.get());
+		testLargeResult("published snapshot matches list after writes", true,
+				list.toString().equals(list.getPublishedSnapshot().toString()));
+		list.setCopyOnWriteReads(false);
+		testLargeResult("published snapshot after copy-on-write reads are off", null, list.getPublishedSnapshot());
+	}
+
+	private static <T> String iterated(Iterable<T> list) {
+		List<T> entries = new ArrayList<>();
+		for(T entry : list) {
+			entries.add(entry);
+		}
+		return entries.toString();
+	}
+
+	private static boolean throwsUnsupported(Runnable operation) {
+		boolean result = false;
+		try {
+			operation.run();
+		} catch(UnsupportedOperationException e) {
+			result = true;
+		}
+		return result;
+	}
+
+	/*
+	 * Changes a list stored in a file, reopening the file after each change to check that the list was restored as
+	 * it was. A crash is simulated by a list that stops just before it records a change in the file's header, after
+	 * any added entry has been written.
+	 */
+	public static void testPersistence(int capacity) {
+		Path path = null;
+		try {
+			path = Files.createTempFile("capped-list", ".bin");
+			MappedFileFrontBackCappedList<Integer> list = new MappedFileFrontBackCappedList<>(path, capacity,
+					FixedWidthCodec.INTEGER, MappedFileFrontBackCappedList.ForcePolicy.EVERY_OPERATION);
+			list.addBack(1);
+			list.addBack(2);
+			list.addBack(3);
+			list.addFront(0);
+			System.out.println("\nList stored in a file: " + list);
+			testLargeResult("reopened after adds", list.toString(), reopen(path, capacity).toString());
+
+			CrashingList crashing = new CrashingList(path, capacity);
+			crashing.crashOnCommit = true;
+			testLargeResult("crash mid-addFront", true, crashes(() -> crashing.addFront(9)));
+			testLargeResult("reopened after crash mid-addFront", list.toString(), reopen(path, capacity).toString());
+			testLargeResult("crash mid-addBack", true, crashes(() -> crashing.addBack(9)));
+			testLargeResult("reopened after crash mid-addBack", list.toString(), reopen(path, capacity).toString());
+			testLargeResult("crash mid-removeBack", true, crashes(() -> crashing.removeBack()));
+			testLargeResult("reopened after crash mid-removeBack", list.toString(), reopen(path, capacity).toString());
+			testLargeResult("crash mid-removeFront", true, crashes(() -> crashing.removeFront()));
+			testLargeResult("reopened after crash mid-removeFront", list.toString(), reopen(path, capacity).toString());
+
+			// The list in memory was not changed by the crashes, so it is still correct
+			MappedFileFrontBackCappedList<Integer> reopened = reopen(path, capacity);
+			testLargeResult("removeBack after reopening", 3, reopened.removeBack());
+			testLargeResult("reopened after removeBack", "[0, 1, 2]", reopen(path, capacity).toString().split("\t")[0]);
+
+			// Wrap the entries around the end of the file
+			reopened.addBack(7);
+			reopened.addBack(8);
+			reopened.removeFront();
+			reopened.removeFront();
+			reopened.addBack(9);
+			testLargeResult("reopened after wrapping around", reopened.toString(), reopen(path, capacity).toString());
+
+			reopened.clear();
+			testLargeResult("reopened after clear", true, reopen(path, capacity).isEmpty());
+
+			boolean rejected = false;
+			try {
+				reopen(path, capacity + 1);
+			} catch(IOException e) {
+				rejected = true;
+			}
+			testLargeResult("reopening with a different capacity is rejected", true, rejected);
+		} catch(IOException e) {
+			System.out.println("*****Test failed for persistence: " + e);
+		} finally {
+			deleteQuietly(path);
+		}
+	}
+
+	private static MappedFileFrontBackCappedList<Integer> reopen(Path path, int capacity) throws IOException {
+		return new MappedFileFrontBackCappedList<>(path, capacity, FixedWidthCodec.INTEGER,
+				MappedFileFrontBackCappedList.ForcePolicy.ON_DEMAND);
+	}
+
+	private static boolean crashes(Runnable operation) {
+		boolean result = false;
+		try {
+			operation.run();
+		} catch(SimulatedCrash e) {
+			result = true;
+		}
+		return result;
+	}
+
+	private static void deleteQuietly(Path path) {
+		if(path != null) {
+			try {
+				Files.deleteIfExists(path);
+			} catch(IOException e) {
+				System.out.println("Could not delete " + path + ": " + e);
+			}
+		}
+	}
+
+	/*
+	 * A list stored in a file that, when told to, stops just before it records a change in the file's header.
+	 */
+	private static class CrashingList extends MappedFileFrontBackCappedList<Integer> {
+		private boolean crashOnCommit = false;
+
+		private CrashingList(Path path, int capacity) throws IOException {
+			super(path, capacity, FixedWidthCodec.INTEGER, ForcePolicy.ON_DEMAND);
+		}
+
+		@Override
+		protected void commit(int newFrontIndex, int newNumberOfEntries) {
+			if(crashOnCommit) {
+				throw new SimulatedCrash();
+			}
+			super.commit(newFrontIndex, newNumberOfEntries);
+		}
+	}
+
+	private static class SimulatedCrash extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/*
+	 * Writes lists with fixed-width and variable-width entry codecs and reads them back: into new lists of the same
+	 * capacity, into a list of another implementation, into a smaller list followed by a second list in the same
+	 * stream, and through a channel that delivers 7 bytes at a time to a codec with a small buffer. Then checks that
+	 * streams that end early, hold something else, or hold entries of another width are rejected.
+	 */
+	public static void testBinaryCodec(int capacity) {
+		try {
+			BinaryListCodec<Integer> integers = new BinaryListCodec<>(FixedWidthCodec.INTEGER);
+			ArrayFrontBackCappedList<Integer> list = new ArrayFrontBackCappedList<>(10);
+			list.addBack(2);
+			list.addBack(3);
+			list.addFront(1);
+			list.addFront(-7);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			long written = integers.write(list, Channels.newChannel(bytes));
+			System.out.println("\nList written with fixed-width entries: " + list);
+			testLargeResult("bytes written", 20L + 4 * list.size(), written);
+			testLargeResult("bytes in the stream", (int) written, bytes.size());
+			testLargeResult("read back", list.toString(), integers.readList(readChannel(bytes.toByteArray()),
+					ArrayFrontBackCappedList<Integer>::new).toString());
+
+			BinaryListCodec<String> strings = new BinaryListCodec<>(VariableWidthCodec.STRING);
+			ArrayFrontBackCappedList<String> words = new ArrayFrontBackCappedList<>(6);
+			for(String word : new String[] {"capped", "", null, "h\u00e9llo", "\u65e5\u672c"}) {
+				words.addBack(word);
+			}
+			bytes.reset();
+			strings.write(words, Channels.newChannel(bytes));
+			System.out.println("\nList written with variable-width entries: " + words);
+			testLargeResult("read back", words.toString(), strings.readList(readChannel(bytes.toByteArray()),
+					ArrayFrontBackCappedList<String>::new).toString());
+
+			// Two lists in one stream, the first read into a list too small for it
+			LinkedFrontBackCappedList<Integer> linked = new LinkedFrontBackCappedList<>(capacity);
+			for(int value = 0; !linked.isFull(); value++) {
+				linked.addBack(value);
+			}
+			bytes.reset();
+			WritableByteChannel out = Channels.newChannel(bytes);
+			integers.write(linked, out);
+			integers.write(list, out);
+			ReadableByteChannel channel = readChannel(bytes.toByteArray());
+			UnrolledFrontBackCappedList<Integer> small = new UnrolledFrontBackCappedList<>(100);
+			System.out.println("\nTwo lists in one stream, the first of " + capacity + " entries");
+			testLargeResult("entries added to a list of capacity 100", 100, integers.readAllBack(channel, small));
+			testLargeResult("last entry added", 99, small.getEntry(99));
+			testLargeResult("second list read after the first", list.toString(),
+					integers.readList(channel, ArrayFrontBackCappedList<Integer>::new).toString());
+
+			// Lists of both kinds in one stream, read by several codecs, with a write between the reads
+			bytes.reset();
+			out = Channels.newChannel(bytes);
+			strings.write(words, out);
+			integers.write(list, out);
+			strings.write(words, out);
+			integers.write(linked, out);
+			channel = readChannel(bytes.toByteArray());
+			System.out.println("\nFour lists of both kinds in one stream, read by several codecs");
+			testLargeResult("first list", words.toString(),
+					strings.readList(channel, ArrayFrontBackCappedList<String>::new).toString());
+			testLargeResult("second list", list.toString(),
+					integers.readList(channel, ArrayFrontBackCappedList<Integer>::new).toString());
+			integers.write(list, Channels.newChannel(new ByteArrayOutputStream()));
+			testLargeResult("third list, by a new codec after a write", words.toString(),
+					new BinaryListCodec<>(VariableWidthCodec.STRING).readList(channel,
+					ArrayFrontBackCappedList<String>::new).toString());
+			testLargeResult("fourth list, by a new codec", true, linked.equals(new BinaryListCodec<>(FixedWidthCodec.INTEGER)
+					.readList(channel, LinkedFrontBackCappedList<Integer>::new)));
+			testLargeResult("stream ends after the fourth list", -1, channel.read(ByteBuffer.allocate(1)));
+
+			// Large lists through a channel that delivers a few bytes at a time, with buffers that fill many times
+			BinaryListCodec<Integer> smallIntegers = new BinaryListCodec<>(FixedWidthCodec.INTEGER, 64);
+			bytes.reset();
+			smallIntegers.write(linked, Channels.newChannel(bytes));
+			LinkedFrontBackCappedList<Integer> linkedCopy = smallIntegers.readList(new TrickleChannel(bytes.toByteArray()),
+					LinkedFrontBackCappedList<Integer>::new);
+			System.out.println("\nLists of " + capacity + " entries read 7 bytes at a time into a 64-byte buffer");
+			testLargeResult("integers read back", true, linked.equals(linkedCopy));
+			testLargeResult("capacity read back", capacity, linkedCopy.getCapacity());
+
+			BinaryListCodec<String> smallStrings = new BinaryListCodec<>(VariableWidthCodec.STRING, 64);
+			ArrayFrontBackCappedList<String> manyWords = new ArrayFrontBackCappedList<>(capacity);
+			Random random = new Random(933);
+			while(!manyWords.isFull()) {
+				manyWords.addBack("w".repeat(random.nextInt(40)) + manyWords.size());
+			}
+			bytes.reset();
+			smallStrings.write(manyWords, Channels.newChannel(bytes));
+			ArrayFrontBackCappedList<String> wordsCopy = smallStrings.readList(new TrickleChannel(bytes.toByteArray()),
+					ArrayFrontBackCappedList<String>::new);
+			testLargeResult("strings read back", true, manyWords.toString().equals(wordsCopy.toString()));
+
+			// Rejected streams and entries
+			bytes.reset();
+			integers.write(list, Channels.newChannel(bytes));
+			byte[] stream = bytes.toByteArray();
+			System.out.println("\nRejecting streams and entries");
+			testLargeResult("stream that ends inside the list", "EOFException",
+					readFailure(() -> integers.readList(readChannel(Arrays.copyOf(stream, stream.length - 1)),
+					ArrayFrontBackCappedList<Integer>::new)));
+			testLargeResult("stream of entries of another width", "IOException",
+					readFailure(() -> strings.readList(readChannel(stream), ArrayFrontBackCappedList<String>::new)));
+			byte[] garbage = stream.clone();
+			garbage[0]++;
+			testLargeResult("stream that holds something else", "IOException",
+					readFailure(() -> integers.readList(readChannel(garbage), ArrayFrontBackCappedList<Integer>::new)));
+			ArrayFrontBackCappedList<String> longWord = new ArrayFrontBackCappedList<>(1);
+			longWord.addBack("w".repeat(100));
+			testLargeResult("entry longer than the buffer", "IllegalArgumentException",
+					readFailure(() -> smallStrings.write(longWord, Channels.newChannel(new ByteArrayOutputStream()))));
+		} catch(IOException e) {
+			System.out.println("*****Test failed for binary codec: " + e);
+		}
+	}
+
+	private static ReadableByteChannel readChannel(byte[] bytes) {
+		return Channels.newChannel(new ByteArrayInputStream(bytes));
+	}
+
+	private interface CodecCall {
+		Object call() throws IOException;
+	}
+
+	// The simple name of the exception a codec call throws, or "none"
+	private static String readFailure(CodecCall call) {
+		String result = "none";
+		try {
+			call.call();
+		} catch(IOException | RuntimeException e) {
+			result = e.getClass().getSimpleName();
+		}
+		return result;
+	}
+
+	/*
+	 * A channel over an array of bytes that delivers at most 7 bytes to each read.
+	 */
+	private static class TrickleChannel implements ReadableByteChannel {
+		private final byte[] bytes;
+		private int position = 0;
+
+		private TrickleChannel(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		public int read(ByteBuffer destination) {
+			if(position == bytes.length) {
+				return -1;
+			}
+			int count = Math.min(7, Math.min(destination.remaining(), bytes.length - position));
+			destination.put(bytes, position, count);
+			position += count;
+			return count;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	public static void testLargeResult(String testDescription, Object expectedResult, Object actualResult) {
+		System.out.println(testDescription + ": expected=" + expectedResult + " actual=" + actualResult);
+		if(!Objects.equals(expectedResult, actualResult)) {
+			System.out.println("*****Test failed for large list; test:" + testDescription);
+		}
 	}
 
 	public static enum AddRemovePosition {
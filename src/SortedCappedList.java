@@ -0,0 +1,455 @@
+/**
+ * A class that implements a list of entries kept in order and capped to a given capacity, using a min-max heap in
+ * a preallocated array.
+ *
+ * A min-max heap is a binary heap whose levels alternate: every entry on an even level, starting with the root, is
+ * the smallest entry of its subtree, and every entry on an odd level is the largest. The smallest entry of the list
+ * is then the root and the largest is one of the root's children, so both can be retrieved in constant time, and
+ * adding an entry or removing the smallest or largest takes O(log n) time.
+ *
+ * When the list is full, adds are rejected, or, with replacing on, an entry larger than the smallest replaces it in
+ * O(log n) time. A list of capacity K that replaces its smallest entry keeps the K largest entries it was given, so
+ * it can track the top K of a stream of entries.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.util.*;
+
+public class SortedCappedList<T extends Comparable<? super T>> implements Iterable<T> {
+
+	private final T[] heap;				// The entries, in min-max heap order
+	private int numberOfEntries;
+	private final int capacity;
+	private boolean initialized = false;
+	private int modCount = 0;			// Number of structural modifications, checked by iterators
+	private boolean replacingMin = false;
+
+
+	/**
+	 * Creates and initializes an empty list.
+	 *
+	 * Precondition: Capacity is not negative.
+	 *
+	 * @param capacity Maximum size of list
+	 */
+	public SortedCappedList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative.");
+		}
+
+		// The cast is safe because the new array contains null entries
+		@SuppressWarnings("unchecked")
+		T[] tempHeap = (T[]) new Comparable[capacity];
+		heap = tempHeap;
+		this.capacity = capacity;
+		numberOfEntries = 0;
+		initialized = true;
+	}
+
+
+	/**
+	 * Adds an entry to the list in O(log n) time if the list is not full. If the list is full and replacing is on,
+	 * an entry larger than the smallest entry replaces it instead.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full and the entry did not
+	 * replace the smallest entry.
+	 * @throws NullPointerException if the entry is null
+	 */
+	public boolean add(T newEntry) {
+		checkInitialization();
+		Objects.requireNonNull(newEntry, "SortedCappedList does not accept null entries.");
+		boolean result = true;
+
+		if (!isFull()) {
+			heap[numberOfEntries] = newEntry;
+			bubbleUp(numberOfEntries);
+			numberOfEntries++;
+			modCount++;
+		} else if (replacingMin && capacity > 0 && newEntry.compareTo(heap[0]) > 0) {
+			heap[0] = newEntry;
+			trickleDown(0);
+			modCount++;
+		} else {
+			result = false;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Retrieves the smallest entry in the list in constant time.
+	 *
+	 * @return The smallest entry or null if the list is empty
+	 */
+	public T getMin() {
+		checkInitialization();
+		return isEmpty() ? null : heap[0];
+	}
+
+
+	/**
+	 * Retrieves the largest entry in the list in constant time.
+	 *
+	 * @return The largest entry or null if the list is empty
+	 */
+	public T getMax() {
+		checkInitialization();
+		return isEmpty() ? null : heap[maxIndex()];
+	}
+
+
+	/**
+	 * Removes the smallest entry from the list in O(log n) time if the list is not empty.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	public T removeMin() {
+		checkInitialization();
+		return isEmpty() ? null : removeAt(0);
+	}
+
+
+	/**
+	 * Removes the largest entry from the list in O(log n) time if the list is not empty.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	public T removeMax() {
+		checkInitialization();
+		return isEmpty() ? null : removeAt(maxIndex());
+	}
+
+
+	/**
+	 * Clears the list to an empty list.
+	 */
+	public void clear() {
+		checkInitialization();
+		Arrays.fill(heap, 0, numberOfEntries, null);	// Release references for garbage collection
+		numberOfEntries = 0;
+		modCount++;
+	}
+
+
+	/**
+	 * Sets what an add does when the list is full. With replacing on, an entry larger than the smallest entry
+	 * replaces it, so the list keeps the largest entries it was given; with replacing off, the add is rejected.
+	 *
+	 * @param replacing True to replace the smallest entry; false to reject adds to a full list
+	 */
+	public void setReplacingMin(boolean replacing) {
+		checkInitialization();
+		replacingMin = replacing;
+	}
+
+
+	/**
+	 * Determines whether an add to a full list replaces the smallest entry.
+	 *
+	 * @return True if replacing is on; otherwise, false.
+	 */
+	public boolean isReplacingMin() {
+		return replacingMin;
+	}
+
+
+	/**
+	 * Determines whether an entry is in the list, by scanning the heap.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 */
+	public boolean contains(T anEntry) {
+		checkInitialization();
+		boolean found = false;
+
+		for (int index = 0; (index < numberOfEntries) && !found; index++) {
+			found = heap[index].equals(anEntry);
+		}
+
+		return found;
+	}
+
+
+	/**
+	 * Retrieves length of the list.
+	 *
+	 * @return Integer number of entries currently in the list.
+	 */
+	public int size() {
+		return numberOfEntries;
+	}
+
+
+	/**
+	 * Determines if the list is empty.
+	 *
+	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 */
+	public boolean isEmpty() {
+		return (numberOfEntries == 0);
+	}
+
+
+	/**
+	 * Determines if the list is full.
+	 *
+	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 */
+	public boolean isFull() {
+		return (numberOfEntries >= capacity);
+	}
+
+
+	/**
+	 * Copies the entries in the list to a new array, sorted from smallest to largest, in O(n log n) time.
+	 *
+	 * @return An array containing all the entries in the list, in ascending order
+	 */
+	public Object[] toArray() {
+		checkInitialization();
+		Object[] result = Arrays.copyOf(heap, numberOfEntries, Object[].class);
+		Arrays.sort(result);
+		return result;
+	}
+
+
+	/**
+	 * Creates an iterator over the entries in heap order, which is not sorted order. The iterator throws a
+	 * ConcurrentModificationException if the list is structurally modified after the iterator was created.
+	 *
+	 * @return An iterator over the entries in the list
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		checkInitialization();
+		return new HeapIterator();
+	}
+
+
+	/**
+	 * Retrieves the entries in the list in ascending order, number of entries, and capacity of the list. If the
+	 * list is not empty, the smallest and largest entries are retrieved.
+	 *
+	 * @return String representation of the list, with number of elements, capacity of the list, and smallest and
+	 * largest entries, if applicable
+	 */
+	public String toString() {
+		checkInitialization();
+		Object[] entries = toArray();
+		StringBuilder result = new StringBuilder(Arrays.toString(entries));
+
+		result.append("\tsize=").append(numberOfEntries).append("\tcapacity=").append(capacity);
+		if (!isEmpty()) {
+			result.append("\tmin=").append(getMin()).append(" max=").append(getMax());
+		}
+
+		return result.toString();
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Checks if list is properly initialized.
+	 *
+	 * @throws SecurityException if this object is not initialized
+	 */
+	private void checkInitialization() {
+		if (!initialized) {
+			throw new SecurityException("SortedCappedList object is not initialized properly.");
+		}
+	}
+
+
+	/**
+	 * Finds the index of the largest entry: the root if it has no children, or else the larger of its children.
+	 *
+	 * Precondition: The list is not empty.
+	 *
+	 * @return The index in the heap of the largest entry
+	 */
+	private int maxIndex() {
+		int result = 0;
+
+		if (numberOfEntries == 2) {
+			result = 1;
+		} else if (numberOfEntries > 2) {
+			result = (heap[1].compareTo(heap[2]) >= 0) ? 1 : 2;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes the entry at an index of the heap by moving the last entry into its place and restoring the heap.
+	 *
+	 * Precondition: 0 <= index < numberOfEntries.
+	 *
+	 * @param index The index in the heap of the entry to remove
+	 * @return The removed entry
+	 */
+	private T removeAt(int index) {
+		T result = heap[index];
+		numberOfEntries--;
+		heap[index] = heap[numberOfEntries];
+		heap[numberOfEntries] = null;			// Release reference for garbage collection
+
+		if (index < numberOfEntries) {
+			trickleDown(index);
+		}
+		modCount++;
+
+		return result;
+	}
+
+
+	/**
+	 * Moves a new entry at the bottom of the heap up to its place. An entry on a min level that is larger than its
+	 * parent, a max-level entry, belongs among the max levels, and likewise for an entry on a max level.
+	 *
+	 * @param index The index in the heap of the new entry
+	 */
+	private void bubbleUp(int index) {
+		if (index > 0) {
+			int parent = (index - 1) / 2;
+			boolean min = isMinLevel(index);
+
+			if (min ? (heap[index].compareTo(heap[parent]) > 0) : (heap[index].compareTo(heap[parent]) < 0)) {
+				swap(index, parent);
+				bubbleUpToGrandparents(parent, !min);
+			} else {
+				bubbleUpToGrandparents(index, min);
+			}
+		}
+	}
+
+
+	/**
+	 * Moves an entry up through the levels of its own kind, two levels at a time, while it is smaller than its
+	 * grandparent on min levels, or larger than its grandparent on max levels.
+	 *
+	 * @param index The index in the heap of the entry
+	 * @param min True if the entry is on a min level; false if it is on a max level
+	 */
+	private void bubbleUpToGrandparents(int index, boolean min) {
+		while (index > 2) {
+			int grandparent = (index - 3) / 4;
+			int comparison = heap[index].compareTo(heap[grandparent]);
+			if (min ? (comparison >= 0) : (comparison <= 0)) {
+				break;
+			}
+			swap(index, grandparent);
+			index = grandparent;
+		}
+	}
+
+
+	/**
+	 * Moves an entry down from an index to its place, comparing it with the smallest, or on max levels the largest,
+	 * of its children and grandchildren. An entry moved to a grandchild is swapped with that grandchild's parent if
+	 * it belongs on the other kind of level.
+	 *
+	 * @param index The index in the heap of the entry
+	 */
+	private void trickleDown(int index) {
+		boolean min = isMinLevel(index);
+
+		while (2 * index + 1 < numberOfEntries) {
+			int extreme = extremeDescendant(index, min);
+			int comparison = heap[extreme].compareTo(heap[index]);
+			if (min ? (comparison >= 0) : (comparison <= 0)) {
+				break;
+			}
+			swap(extreme, index);
+
+			if (extreme <= 2 * index + 2) {
+				break;							// A child has no descendants of the same kind of level below it
+			}
+			int parent = (extreme - 1) / 2;
+			comparison = heap[extreme].compareTo(heap[parent]);
+			if (min ? (comparison > 0) : (comparison < 0)) {
+				swap(extreme, parent);
+			}
+			index = extreme;
+		}
+	}
+
+
+	/**
+	 * Finds the smallest, or the largest, of the children and grandchildren of an entry.
+	 *
+	 * Precondition: The entry has at least one child.
+	 *
+	 * @param index The index in the heap of the entry
+	 * @param min True to find the smallest; false to find the largest
+	 * @return The index in the heap of the smallest or largest descendant within two levels
+	 */
+	private int extremeDescendant(int index, boolean min) {
+		int result = 2 * index + 1;
+		int[] candidates = {2 * index + 2, 4 * index + 3, 4 * index + 4, 4 * index + 5, 4 * index + 6};
+
+		for (int candidate : candidates) {
+			if (candidate < numberOfEntries) {
+				int comparison = heap[candidate].compareTo(heap[result]);
+				if (min ? (comparison < 0) : (comparison > 0)) {
+					result = candidate;
+				}
+			}
+		}
+
+		return result;
+	}
+
+
+	// Determines whether an index of the heap is on a min level, an even level counting the root as level 0
+	private static boolean isMinLevel(int index) {
+		return (31 - Integer.numberOfLeadingZeros(index + 1)) % 2 == 0;
+	}
+
+
+	// Swaps the entries at two indexes of the heap
+	private void swap(int first, int second) {
+		T temp = heap[first];
+		heap[first] = heap[second];
+		heap[second] = temp;
+	}
+
+
+	/*
+	****************
+	ITERATOR CLASS:
+	****************
+	 */
+
+	private class HeapIterator implements Iterator<T> {
+		private int index = 0;
+		private final int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return index < numberOfEntries;
+		}
+
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException("Illegal call to next(); iterator is after end of list.");
+			}
+
+			return heap[index++];
+		}
+	} // end HeapIterator
+} // end SortedCappedList
@@ -0,0 +1,612 @@
+/**
+ * A class that implements the ADT list with front or back entry or removal and capped to a given capacity,
+ * using an unrolled linked list: a doubly linked chain of chunks, each holding up to 64 entries in an array.
+ *
+ * Each chunk keeps its entries in a contiguous range of its array. Adding to the front fills the first chunk
+ * downwards and adding to the back fills the last chunk upwards, starting a new chunk when the end chunk is full,
+ * so adds and removes at either end take constant time. Searches scan each chunk's array in order, and getEntry
+ * skips whole chunks, so they touch one node per 64 entries instead of one node per entry.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.util.*;
+import java.util.function.Consumer;
+
+public class UnrolledFrontBackCappedList<T> implements FrontBackCappedListInterface<T> {
+
+	private static final int CHUNK_SIZE = 64;
+
+	private Chunk head, tail;
+	private int numberOfEntries;
+	private final int capacity;
+	private boolean initialized = false;
+	private int modCount = 0;			// Number of structural modifications, checked by iterators
+	private Chunk spareChunk;			// The last chunk emptied, kept so an end that crosses a chunk boundary
+										// back and forth does not allocate
+
+
+	/**
+	 * Creates and initializes an empty list. No chunk is allocated until the first entry is added.
+	 *
+	 * Precondition: Capacity is not negative.
+	 *
+	 * @param capacity Maximum size of list
+	 */
+	public UnrolledFrontBackCappedList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative.");
+		}
+
+		this.capacity = capacity;
+		initializeDataFields();
+		initialized = true;
+	}
+
+
+	/**
+	 * Adds an entry to the beginning of the list if it is not full. The entry goes in the first chunk, or in a new
+	 * chunk linked before it if the first chunk has no room below its entries.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	@Override
+	public boolean addFront(T newEntry) {
+		checkInitialization();
+		boolean result = true;
+
+		if (isFull()) {
+			result = false;
+		} else {
+			if (isEmpty()) {
+				head = obtainChunk(CHUNK_SIZE / 2);		// Centered, so either end can grow first
+				tail = head;
+			} else if (head.start == 0) {
+				Chunk newChunk = obtainChunk(CHUNK_SIZE);
+				newChunk.next = head;
+				head.previous = newChunk;
+				head = newChunk;
+			}
+			head.start--;
+			head.entries[head.start] = newEntry;
+			numberOfEntries++;
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Adds an entry to the end of the list if it is not full. The entry goes in the last chunk, or in a new chunk
+	 * linked after it if the last chunk has no room above its entries.
+	 *
+	 * @param newEntry The object to be added as a new entry.
+	 * @return True if the entry was added; otherwise, returns false if the list is full.
+	 */
+	@Override
+	public boolean addBack(T newEntry) {
+		checkInitialization();
+		boolean result = true;
+
+		if (isFull()) {
+			result = false;
+		} else {
+			if (isEmpty()) {
+				tail = obtainChunk(CHUNK_SIZE / 2);		// Centered, so either end can grow first
+				head = tail;
+			} else if (tail.end == CHUNK_SIZE) {
+				Chunk newChunk = obtainChunk(0);
+				newChunk.previous = tail;
+				tail.next = newChunk;
+				tail = newChunk;
+			}
+			tail.entries[tail.end] = newEntry;
+			tail.end++;
+			numberOfEntries++;
+			modCount++;
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the beginning of the list if the list is not empty. A chunk left empty is unlinked.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeFront() {
+		checkInitialization();
+		T result = null;
+
+		if (!(isEmpty())) {
+			result = head.entryAt(head.start);
+			head.entries[head.start] = null;	// Release reference for garbage collection
+			head.start++;
+			numberOfEntries--;
+			modCount++;
+
+			if (head.start == head.end) {
+				Chunk emptyChunk = head;
+				if (isEmpty()) {
+					initializeDataFields();
+				} else {
+					head = head.next;
+					head.previous = null;
+				}
+				keepSpare(emptyChunk);
+			}
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Removes an entry from the end of the list if the list is not empty. A chunk left empty is unlinked.
+	 *
+	 * @return A reference to the removed entry or null if the list is empty
+	 */
+	@Override
+	public T removeBack() {
+		checkInitialization();
+		T result = null;
+
+		if (!(isEmpty())) {
+			tail.end--;
+			result = tail.entryAt(tail.end);
+			tail.entries[tail.end] = null;		// Release reference for garbage collection
+			numberOfEntries--;
+			modCount++;
+
+			if (tail.start == tail.end) {
+				Chunk emptyChunk = tail;
+				if (isEmpty()) {
+					initializeDataFields();
+				} else {
+					tail = tail.previous;
+					tail.next = null;
+				}
+				keepSpare(emptyChunk);
+			}
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Clears the list to an empty list. The chunks are left for the garbage collector, except one kept for reuse.
+	 */
+	@Override
+	public void clear() {
+		checkInitialization();
+
+		if (head != null) {
+			Arrays.fill(head.entries, null);
+			keepSpare(head);
+		}
+
+		initializeDataFields();
+		modCount++;
+	}
+
+
+	/**
+	 * Retrieves the entry at a certain position in the list, after determining if the position is valid. Whole
+	 * chunks are skipped from whichever end of the list is nearer.
+	 *
+	 * @param givenPosition An integer that indicates the position of the desired entry
+	 * @return A reference to the indicated entry or null if the index is out of bounds
+	 */
+	@Override
+	public T getEntry(int givenPosition) {
+		checkInitialization();
+		T result = null;
+
+		if (validPosition(givenPosition)) {
+			if (givenPosition < numberOfEntries / 2) {
+				Chunk current = head;
+				int position = givenPosition;
+				while (position >= current.size()) {
+					position -= current.size();
+					current = current.next;
+				}
+				result = current.entryAt(current.start + position);
+			} else {
+				Chunk current = tail;
+				int positionFromBack = numberOfEntries - 1 - givenPosition;
+				while (positionFromBack >= current.size()) {
+					positionFromBack -= current.size();
+					current = current.previous;
+				}
+				result = current.entryAt(current.end - 1 - positionFromBack);
+			}
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the first index
+	 * is returned. Each chunk's entries are scanned in order, as they lie in memory.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The first position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int indexOf(T anEntry) {
+		checkInitialization();
+		int position = -1;
+		int chunkPosition = 0;			// Position in the list of the chunk's first entry
+
+		for (Chunk current = head; (current != null) && (position < 0); current = current.next) {
+			Object[] entries = current.entries;
+			for (int index = current.start; index < current.end; index++) {
+				if (entries[index].equals(anEntry)) {
+					position = chunkPosition + index - current.start;
+					break;
+				}
+			}
+			chunkPosition += current.size();
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines the position in the list of a given entry. If the entry appears more than once, the last index
+	 * is returned. Each chunk's entries are scanned in reverse order.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return The last position that the entry was found or -1 if the entry is not found
+	 */
+	@Override
+	public int lastIndexOf(T anEntry) {
+		checkInitialization();
+		int position = -1;
+		int chunkPosition = numberOfEntries;	// Position in the list just after the chunk's last entry
+
+		for (Chunk current = tail; (current != null) && (position < 0); current = current.previous) {
+			Object[] entries = current.entries;
+			for (int index = current.end - 1; index >= current.start; index--) {
+				if (entries[index].equals(anEntry)) {
+					position = chunkPosition - (current.end - index);
+					break;
+				}
+			}
+			chunkPosition -= current.size();
+		}
+
+		return position;
+	}
+
+
+	/**
+	 * Determines whether an entry is in the list.
+	 *
+	 * @param anEntry The object to search for in the list
+	 * @return True if the entry is in the list; otherwise, false if list is empty or entry is not found
+	 */
+	@Override
+	public boolean contains(T anEntry) {
+		checkInitialization();
+		return (indexOf(anEntry) >= 0);
+	}
+
+
+	/**
+	 * Retrieves length of the list.
+	 *
+	 * @return Integer number of entries currently in the list.
+	 */
+	@Override
+	public int size() {
+		return numberOfEntries;
+	}
+
+
+	/**
+	 * Determines if the list is empty.
+	 *
+	 * @return True if the list is empty; otherwise, returns false if the list contains one or more entries.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return (numberOfEntries == 0);
+	}
+
+
+	/**
+	 * Determines if the list is full.
+	 *
+	 * @return True if the list is full; otherwise, returns false if the list contains entries less than maximum size.
+	 */
+	@Override
+	public boolean isFull() {
+		return (numberOfEntries >= capacity);
+	}
+
+
+	/**
+	 * Retrieves the capacity of the list, the largest number of entries it can hold.
+	 *
+	 * @return The capacity of the list
+	 */
+	@Override
+	public int getCapacity() {
+		return capacity;
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, to a new array, one chunk at a time.
+	 *
+	 * @return An array containing all the entries in the list
+	 */
+	@Override
+	public Object[] toArray() {
+		checkInitialization();
+		Object[] result = new Object[numberOfEntries];
+		copyChunks(result, 0);
+		return result;
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, into an array, starting at the given index of the array, one chunk
+	 * at a time.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 * @throws IndexOutOfBoundsException if the entries do not fit in the array from the given index
+	 */
+	@Override
+	public void copyInto(T[] dest, int from) {
+		checkInitialization();
+		Objects.checkFromIndexSize(from, numberOfEntries, dest.length);
+		copyChunks(dest, from);
+	}
+
+
+	/**
+	 * Performs an action on each entry, from the front to the back of the list, without creating an iterator.
+	 *
+	 * @param action The action to perform on each entry
+	 * @throws ConcurrentModificationException if the action structurally modifies the list
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		checkInitialization();
+		Objects.requireNonNull(action);
+		int expectedModCount = modCount;
+
+		for (Chunk current = head; (current != null) && (modCount == expectedModCount); current = current.next) {
+			for (int index = current.start; (index < current.end) && (modCount == expectedModCount); index++) {
+				action.accept(current.entryAt(index));
+			}
+		}
+
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+
+	/**
+	 * Creates an iterator over the entries from the front to the back of the list. The iterator throws a
+	 * ConcurrentModificationException if the list is structurally modified after the iterator was created.
+	 *
+	 * @return An iterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		checkInitialization();
+		return new ChunkIterator();
+	}
+
+
+	/**
+	 * Creates a spliterator over the entries in the list that reports its exact size.
+	 *
+	 * @return A SIZED and ORDERED spliterator over the entries in the list, from front to back
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		checkInitialization();
+		return Spliterators.spliterator(iterator(), numberOfEntries, Spliterator.ORDERED);
+	}
+
+
+	/**
+	 * Retrieves the entries in the list, number of entries, and capacity of the list. If the list is not empty, the
+	 * entries at the front and back of the list are retrieved. The entries are appended to a single builder, sized
+	 * for entries as long as the first one.
+	 *
+	 * @return String representation of the list, with number of elements, capacity of the list, and entries at the
+	 * head and tail, if applicable
+	 */
+	public String toString() {
+		checkInitialization();
+		int entryLength = isEmpty() ? 0 : String.valueOf(head.entries[head.start]).length() + 2;
+		StringBuilder result = new StringBuilder((int) Math.min(64L + (long) entryLength * numberOfEntries,
+				Integer.MAX_VALUE - 8));
+
+		result.append('[');
+		boolean first = true;
+		for (Chunk current = head; current != null; current = current.next) {
+			for (int index = current.start; index < current.end; index++) {
+				if (!first) {
+					result.append(", ");
+				}
+				result.append(current.entries[index]);
+				first = false;
+			}
+		}
+		result.append("]\tsize=").append(numberOfEntries).append("\tcapacity=").append(capacity);
+
+		if (!isEmpty()) {
+			result.append("\thead=").append(head.entries[head.start])
+					.append(" tail=").append(tail.entries[tail.end - 1]);
+		}
+
+		return result.toString();
+	}
+
+
+	/*
+	****************
+	HELPER METHODS:
+	****************
+	 */
+
+	/**
+	 * Initializes the class's data fields to indicate an empty list.
+	 */
+	private void initializeDataFields() {
+		head = null;
+		tail = null;
+		numberOfEntries = 0;
+	}
+
+
+	/**
+	 * Provides an empty chunk whose entries will start at the given index, reusing the spare chunk if there is one.
+	 *
+	 * @param index The index at which the chunk's range of entries starts and ends
+	 * @return An empty chunk with no previous or next chunk
+	 */
+	private Chunk obtainChunk(int index) {
+		Chunk result = spareChunk;
+
+		if (result == null) {
+			result = new Chunk();
+		} else {
+			spareChunk = null;
+		}
+		result.start = index;
+		result.end = index;
+
+		return result;
+	}
+
+
+	/**
+	 * Keeps an emptied chunk for reuse. Its links are cut, so the spare chunk does not keep the chunks it was linked
+	 * to, or their entries, from being garbage collected.
+	 *
+	 * @param emptyChunk A chunk that holds no entries and is no longer part of the list
+	 */
+	private void keepSpare(Chunk emptyChunk) {
+		emptyChunk.previous = null;
+		emptyChunk.next = null;
+		spareChunk = emptyChunk;
+	}
+
+
+	/**
+	 * Copies the entries in the list, in order, into an array with one System.arraycopy per chunk.
+	 *
+	 * Precondition: The entries fit in the array from the given index.
+	 *
+	 * @param dest The array to copy the entries to
+	 * @param from The index in the array of the first entry
+	 */
+	private void copyChunks(Object[] dest, int from) {
+		int index = from;
+
+		for (Chunk current = head; current != null; current = current.next) {
+			System.arraycopy(current.entries, current.start, dest, index, current.size());
+			index += current.size();
+		}
+	}
+
+
+	/**
+	 * Checks if list is properly initialized.
+	 *
+	 * @throws SecurityException if this object is not initialized
+	 */
+	private void checkInitialization() {
+		if (!initialized) {
+			throw new SecurityException("UnrolledFrontBackCappedList object is not initialized properly.");
+		}
+	}
+
+
+	/**
+	 * Determines if given position is a valid position within the bounds of the list.
+	 *
+	 * @param position The position in the list
+	 * @return True if the position is valid; otherwise, returns false.
+	 */
+	private boolean validPosition(int position) {
+		return position >= 0 && position < numberOfEntries;
+	}
+
+
+	/*
+	****************
+	ITERATOR CLASS:
+	****************
+	 */
+
+	private class ChunkIterator implements Iterator<T> {
+		private Chunk chunk = head;
+		private int index = (head == null) ? 0 : head.start;	// Index in the chunk of the next entry
+		private int remaining = numberOfEntries;
+		private final int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (remaining == 0) {
+				throw new NoSuchElementException("Illegal call to next(); iterator is after end of list.");
+			}
+
+			if (index == chunk.end) {
+				chunk = chunk.next;
+				index = chunk.start;
+			}
+			remaining--;
+			return chunk.entryAt(index++);
+		}
+	} // end ChunkIterator
+
+
+	/*
+	****************
+	CHUNK CLASS:
+	****************
+	 */
+
+	private class Chunk {
+		private final Object[] entries = new Object[CHUNK_SIZE];
+		private int start;				// Index of the chunk's first entry
+		private int end;				// Index after the chunk's last entry
+		private Chunk previous, next;
+
+		private int size() {
+			return end - start;
+		}
+
+		// The cast is safe because only entries of the list are stored in the array
+		@SuppressWarnings("unchecked")
+		private T entryAt(int index) {
+			return (T) entries[index];
+		}
+	} // end Chunk
+} // end UnrolledFrontBackCappedList
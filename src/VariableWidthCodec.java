@@ -0,0 +1,55 @@
+/**
+ * An interface for a codec that stores entries of a given type in as many bytes as each one needs, so that entries
+ * of very different lengths can be written one after another in a stream. The codec writes and reads the entry's
+ * bytes only; whoever stores the entries records how many bytes each one took.
+ *
+ * A codec for strings in UTF-8 is provided.
+ *
+ * @author Trang Hoang (sect. 933)
+ * @version 1.0
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public interface VariableWidthCodec<T> {
+
+	/**
+	 * Stores strings in UTF-8.
+	 */
+	public static final VariableWidthCodec<String> STRING = new VariableWidthCodec<>() {
+		@Override
+		public void write(ByteBuffer buffer, String entry) {
+			buffer.put(entry.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String read(ByteBuffer buffer, int length) {
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+
+	/**
+	 * Stores an entry in the bytes starting at the buffer's position, and advances the position past them. If the
+	 * entry does not fit, the buffer's position is undefined, and the caller may try again with more room.
+	 *
+	 * @param buffer The buffer to write to
+	 * @param entry The entry to store
+	 * @throws java.nio.BufferOverflowException if the entry does not fit in the bytes remaining in the buffer
+	 */
+	public void write(ByteBuffer buffer, T entry);
+
+
+	/**
+	 * Reads the entry stored in a given number of bytes starting at the buffer's position, and advances the position
+	 * past them.
+	 *
+	 * @param buffer The buffer to read from
+	 * @param length The number of bytes the entry was stored in
+	 * @return The entry stored at the buffer's position
+	 */
+	public T read(ByteBuffer buffer, int length);
+} // end VariableWidthCodec